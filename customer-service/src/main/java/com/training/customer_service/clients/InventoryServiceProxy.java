@@ -1,14 +1,20 @@
 package com.training.customer_service.clients;
 
 import com.training.customer_service.dtos.feign.AssetAssignRequest;
+import com.training.customer_service.dtos.feign.AssetsByCustomersRequest;
+import com.training.customer_service.dtos.feign.PortOccupancySeedRequest;
+import com.training.customer_service.dtos.feign.SplitterPortOccupancy;
 import com.training.customer_service.dtos.AssetResponse;
+import com.training.customer_service.dtos.PortOccupancySeedResult;
 import com.training.customer_service.dtos.SplitterDto;
 import com.training.customer_service.dtos.SplitterUpdateRequest;
+import com.training.customer_service.exceptions.InvalidPortAssignmentException;
 import com.training.customer_service.exceptions.InventoryServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.ClientResponse;
@@ -17,6 +23,7 @@ import org.springframework.web.reactive.function.client.WebClientException;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 @Service
@@ -29,8 +36,14 @@ public class InventoryServiceProxy {
     private static final String FAILED_TO_ASSIGN_ASSET_MSG = "Failed to assign asset";
     private static final String ASSET_NOT_FOUND_MSG = "Asset not found: %s";
     private static final String FAILED_TO_GET_ASSETS_MSG = "Failed to get assets for customer";
+    private static final String FAILED_TO_GET_ASSETS_BATCH_MSG = "Failed to get assets for customers";
     private static final String FAILED_TO_GET_SPLITTER_MSG = "Failed to get splitter details";
     private static final String FAILED_TO_UPDATE_SPLITTER_MSG = "Failed to update splitter used ports";
+    private static final String FAILED_TO_RESERVE_PORT_MSG = "Failed to reserve splitter port";
+    private static final String FAILED_TO_RELEASE_PORT_MSG = "Failed to release splitter port";
+    private static final String FAILED_TO_SEED_PORTS_MSG = "Failed to seed splitter port occupancy";
+    private static final String SPLITTER_FULL_MSG = "Splitter %s is at full capacity.";
+    private static final String PORT_UNAVAILABLE_MSG = "Port %s on splitter %s is unavailable.";
 
     private final WebClient webClient;
 
@@ -114,6 +127,27 @@ public class InventoryServiceProxy {
         }
     }
 
+    /**
+     * Fetches the assets of many customers in a single round trip.
+     * The result contains an entry (possibly empty) for every requested customer ID.
+     */
+    public Map<Long, List<AssetResponse>> getAssetsByCustomerIds(List<Long> customerIds) {
+        try {
+            AssetsByCustomersRequest request = new AssetsByCustomersRequest();
+            request.setCustomerIds(customerIds);
+
+            return webClient.post()
+                    .uri("/api/inventory/assets/by-customers")
+                    .bodyValue(request)
+                    .retrieve()
+                    .onStatus(isErrorStatus(), resp -> handleErrorResponse(resp, FAILED_TO_GET_ASSETS_BATCH_MSG))
+                    .bodyToMono(new ParameterizedTypeReference<Map<Long, List<AssetResponse>>>() {})
+                    .block();
+        } catch (WebClientException e) {
+            throw new InventoryServiceException(COMMUNICATION_ERROR_MSG + ": " + e.getMessage());
+        }
+    }
+
     public SplitterDto getSplitterDetails(Long splitterId) {
         try {
             return webClient.get()
@@ -140,4 +174,72 @@ public class InventoryServiceProxy {
             throw new InventoryServiceException(COMMUNICATION_ERROR_MSG + ": " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reserves the given port on the splitter, or the first free one when no port
+     * number is given. A conflict means the port is taken or the splitter is full.
+     */
+    public SplitterDto reserveSplitterPort(Long splitterId, Integer portNumber) {
+        try {
+            return webClient.post()
+                    .uri(portUri(portNumber, "reserve"), portUriVariables(splitterId, portNumber))
+                    .retrieve()
+                    .onStatus(status -> status.value() == HttpStatus.CONFLICT.value(), resp ->
+                            Mono.error(new InvalidPortAssignmentException(portNumber == null
+                                    ? String.format(SPLITTER_FULL_MSG, splitterId)
+                                    : String.format(PORT_UNAVAILABLE_MSG, portNumber, splitterId))))
+                    .onStatus(isErrorStatus(), resp -> handleErrorResponse(resp, FAILED_TO_RESERVE_PORT_MSG))
+                    .bodyToMono(SplitterDto.class)
+                    .block();
+        } catch (WebClientException e) {
+            throw new InventoryServiceException(COMMUNICATION_ERROR_MSG + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Frees the given port on the splitter; freeing a free port is a no-op. Without a port
+     * number, one unit of usage recorded before port numbers were tracked is released.
+     */
+    public SplitterDto releaseSplitterPort(Long splitterId, Integer portNumber) {
+        try {
+            return webClient.post()
+                    .uri(portUri(portNumber, "release"), portUriVariables(splitterId, portNumber))
+                    .retrieve()
+                    .onStatus(isErrorStatus(), resp -> handleErrorResponse(resp, FAILED_TO_RELEASE_PORT_MSG))
+                    .bodyToMono(SplitterDto.class)
+                    .block();
+        } catch (WebClientException e) {
+            throw new InventoryServiceException(COMMUNICATION_ERROR_MSG + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records ports customers already hold in the splitters' port bitmaps. Idempotent.
+     */
+    public PortOccupancySeedResult seedSplitterPorts(List<SplitterPortOccupancy> ports) {
+        try {
+            PortOccupancySeedRequest request = new PortOccupancySeedRequest();
+            request.setPorts(ports);
+
+            return webClient.post()
+                    .uri("/api/inventory/splitters/ports/occupancy")
+                    .bodyValue(request)
+                    .retrieve()
+                    .onStatus(isErrorStatus(), resp -> handleErrorResponse(resp, FAILED_TO_SEED_PORTS_MSG))
+                    .bodyToMono(PortOccupancySeedResult.class)
+                    .block();
+        } catch (WebClientException e) {
+            throw new InventoryServiceException(COMMUNICATION_ERROR_MSG + ": " + e.getMessage());
+        }
+    }
+
+    private static String portUri(Integer portNumber, String action) {
+        return portNumber == null
+                ? "/api/inventory/splitters/{id}/ports/" + action
+                : "/api/inventory/splitters/{id}/ports/{port}/" + action;
+    }
+
+    private static Object[] portUriVariables(Long splitterId, Integer portNumber) {
+        return portNumber == null ? new Object[]{splitterId} : new Object[]{splitterId, portNumber};
+    }
+}
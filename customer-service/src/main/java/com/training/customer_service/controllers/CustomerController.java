@@ -56,6 +56,13 @@ public class CustomerController {
         return ResponseEntity.ok(customer);
     }
 
+    // One-time migration of existing port assignments into inventory's port bitmaps
+    @PostMapping("/port-occupancy/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PortOccupancySeedResult> backfillSplitterPortOccupancy() {
+        return ResponseEntity.ok(customerService.backfillSplitterPortOccupancy());
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT', 'TECHNICIAN')")
     public ResponseEntity<CustomerResponse> getCustomerById(@PathVariable Long id) {
@@ -0,0 +1,17 @@
+package com.training.customer_service.dtos;
+
+import com.training.customer_service.dtos.feign.SplitterPortOccupancy;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class PortOccupancySeedResult {
+    private int requested;
+    private int seeded;
+    private int alreadyTracked;
+    private List<SplitterPortOccupancy> rejected = new ArrayList<>(); // Ports inventory could not record; needs manual follow-up
+}
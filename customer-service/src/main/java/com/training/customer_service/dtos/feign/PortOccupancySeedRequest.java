@@ -0,0 +1,12 @@
+package com.training.customer_service.dtos.feign;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PortOccupancySeedRequest {
+    private List<SplitterPortOccupancy> ports;
+}
@@ -0,0 +1,15 @@
+package com.training.customer_service.dtos.feign;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitterPortOccupancy {
+    private Long splitterId;
+    private Integer port;
+}
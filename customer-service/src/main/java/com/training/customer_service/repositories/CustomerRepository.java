@@ -2,6 +2,7 @@ package com.training.customer_service.repositories;
 
 import com.training.customer_service.entities.Customer;
 import com.training.customer_service.enums.CustomerStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
@@ -12,4 +13,7 @@ import java.util.List;
 public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> { // Added JpaSpecificationExecutor
     // The old methods are no longer needed as Specification handles them
     List<Customer> findBySplitterIdAndStatus(Long splitterId, CustomerStatus status);
+
+    // Keyset page over customers holding a numbered splitter port, for the port occupancy backfill
+    List<Customer> findBySplitterIdNotNullAndAssignedPortNotNullAndIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
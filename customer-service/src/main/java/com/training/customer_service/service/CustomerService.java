@@ -2,13 +2,13 @@ package com.training.customer_service.service;
 
 import com.training.customer_service.clients.InventoryServiceProxy;
 import com.training.customer_service.dtos.*;
+import com.training.customer_service.dtos.feign.SplitterPortOccupancy;
 import com.training.customer_service.entities.Customer;
 import com.training.customer_service.entities.FiberDropLine;
 import com.training.customer_service.enums.CustomerStatus;
 import com.training.customer_service.enums.FiberStatus;
 import com.training.customer_service.exceptions.CustomerActionException;
 import com.training.customer_service.exceptions.CustomerNotFoundException;
-import com.training.customer_service.exceptions.InvalidPortAssignmentException;
 import com.training.customer_service.exceptions.InventoryServiceException;
 import com.training.customer_service.repositories.CustomerRepository;
 import com.training.customer_service.repositories.CustomerSpecification;
@@ -16,12 +16,16 @@ import com.training.customer_service.repositories.FiberDropLineRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CustomerService implements CustomerServiceInterface {
@@ -35,12 +39,14 @@ public class CustomerService implements CustomerServiceInterface {
     private static final String CANNOT_ACTIVATE_NO_FIBER_MSG = "Customer cannot be activated without a corresponding Fiber Drop Line entry.";
     private static final String FAILED_TO_DECREMENT_PORTS_MSG = "Failed to decrement splitter used ports for splitter ID {}: {}";
     private static final String FAILED_TO_RELEASE_OLD_PORT_MSG = "Failed to release old splitter port: %s";
-    private static final String SPLITTER_FULL_MSG = "Splitter %s is at full capacity.";
+    private static final String FAILED_TO_COMPENSATE_MSG = "Failed to undo port change on splitter ID {}: {}";
     private static final String FAILED_TO_UPDATE_SPLITTER_MSG = "Failed to update splitter used ports: %s";
     private static final String CUSTOMER_ALREADY_ASSIGNED_MSG = "Customer is already assigned to a port. Use the re-assign endpoint to move them.";
     private static final String FIBER_LINE_NOT_FOUND_MSG = "FiberDropLine not found for customer: %d";
     private static final String CANNOT_DELETE_ACTIVE_CUSTOMER_MSG = "Cannot delete customer. Status must be INACTIVE before deletion.";
 
+    private static final int PORT_BACKFILL_BATCH_SIZE = 1000; // Inventory's limit per seed request
+
 
     private final CustomerRepository customerRepository;
     private final FiberDropLineRepository fiberDropLineRepository;
@@ -77,13 +83,8 @@ public class CustomerService implements CustomerServiceInterface {
             if (customer.getSplitterId() != null) {
                 try {
                     logger.info("Decrementing used ports for splitter ID {}.", customer.getSplitterId());
-                    SplitterDto splitter = inventoryServiceProxy.getSplitterDetails(customer.getSplitterId());
-                    if (splitter.getUsedPorts() > 0) {
-                        SplitterUpdateRequest updateRequest = new SplitterUpdateRequest();
-                        updateRequest.setUsedPorts(splitter.getUsedPorts() - 1);
-                        inventoryServiceProxy.updateSplitterUsedPorts(splitter.getId(), updateRequest);
-                        logger.info("Successfully decremented used ports for splitter ID {}.", customer.getSplitterId());
-                    }
+                    inventoryServiceProxy.releaseSplitterPort(customer.getSplitterId(), customer.getAssignedPort());
+                    logger.info("Successfully decremented used ports for splitter ID {}.", customer.getSplitterId());
                 } catch (InventoryServiceException e) { // --- Sonar: Catch specific exception
                     // --- Sonar: Log full exception ---
                     logger.error(FAILED_TO_DECREMENT_PORTS_MSG, customer.getSplitterId(), e.getMessage(), e);
@@ -130,54 +131,88 @@ public class CustomerService implements CustomerServiceInterface {
     public CustomerResponse reassignSplitterPort(Long customerId, CustomerAssignmentRequest assignment) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new CustomerNotFoundException(String.format(CUSTOMER_NOT_FOUND_GENERIC, customerId)));
+        // Local lookups come first so a missing row fails before anything is changed in inventory
+        FiberDropLine fiberLine = fiberDropLineRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> new InventoryServiceException(String.format(FIBER_LINE_NOT_FOUND_MSG, customerId)));
 
         Long oldSplitterId = customer.getSplitterId();
+        Integer oldPort = customer.getAssignedPort();
         AssetResponse newSplitterAsset = inventoryServiceProxy.getAssetBySerial(assignment.splitterSerialNumber());
+        Long newSplitterId = newSplitterAsset.getId();
+        Integer newPort = assignment.portNumber();
+
+        // Moving to the port the customer already holds changes nothing
+        if (newSplitterId.equals(oldSplitterId) && newPort != null && newPort.equals(oldPort)) {
+            logger.info("Customer ID {} already holds port {} on splitter ID {}; nothing to reassign.", customerId, oldPort, oldSplitterId);
+            return mapToCustomerResponse(customer, inventoryServiceProxy.getAssetsByCustomerId(customerId));
+        }
 
-        // 1. Decrement old splitter port count
+        // 1. Reserve the requested port on the new splitter first; a full splitter fails here with nothing to undo
+        try {
+            inventoryServiceProxy.reserveSplitterPort(newSplitterId, newPort);
+        } catch (InventoryServiceException e) { // --- Sonar: Catch specific exception
+            // --- Sonar: Re-throw with original cause ---
+            throw new InventoryServiceException(String.format(FAILED_TO_UPDATE_SPLITTER_MSG, e.getMessage()));
+        }
+
+        // 2. Release the old splitter port, compensating the reservation if that fails
         if (oldSplitterId != null) {
             try {
-                SplitterDto oldSplitter = inventoryServiceProxy.getSplitterDetails(oldSplitterId);
-                if (oldSplitter.getUsedPorts() > 0) {
-                    SplitterUpdateRequest updateRequest = new SplitterUpdateRequest();
-                    updateRequest.setUsedPorts(oldSplitter.getUsedPorts() - 1);
-                    inventoryServiceProxy.updateSplitterUsedPorts(oldSplitterId, updateRequest);
-                }
+                inventoryServiceProxy.releaseSplitterPort(oldSplitterId, oldPort);
             } catch (InventoryServiceException e) { // --- Sonar: Catch specific exception
+                compensate(() -> inventoryServiceProxy.releaseSplitterPort(newSplitterId, newPort), newSplitterId);
                 // --- Sonar: Log and re-throw to roll back transaction ---
                 throw new CustomerActionException(String.format(FAILED_TO_RELEASE_OLD_PORT_MSG, e.getMessage()));
             }
         }
 
-        // 2. Increment new splitter port count
-        try {
-            SplitterDto newSplitter = inventoryServiceProxy.getSplitterDetails(newSplitterAsset.getId());
-            if (newSplitter.getUsedPorts() >= newSplitter.getPortCapacity()) {
-                throw new InvalidPortAssignmentException(String.format(SPLITTER_FULL_MSG, newSplitter.getSerialNumber()));
+        // Both inventory changes are outside this transaction; undo them if it rolls back later
+        registerRollbackCompensation(() -> {
+            compensate(() -> inventoryServiceProxy.releaseSplitterPort(newSplitterId, newPort), newSplitterId);
+            if (oldSplitterId != null) {
+                compensate(() -> inventoryServiceProxy.reserveSplitterPort(oldSplitterId, oldPort), oldSplitterId);
             }
-            SplitterUpdateRequest updateRequest = new SplitterUpdateRequest();
-            updateRequest.setUsedPorts(newSplitter.getUsedPorts() + 1);
-            inventoryServiceProxy.updateSplitterUsedPorts(newSplitter.getId(), updateRequest);
-        } catch (InventoryServiceException e) { // --- Sonar: Catch specific exception
-            // --- Sonar: Re-throw with original cause ---
-            throw new InventoryServiceException(String.format(FAILED_TO_UPDATE_SPLITTER_MSG, e.getMessage()));
-        }
+        });
 
         // 3. Update customer's assignment
-        customer.setSplitterId(newSplitterAsset.getId());
+        customer.setSplitterId(newSplitterId);
         customer.setSplitterSerialNumber(assignment.splitterSerialNumber());
-        customer.setAssignedPort(assignment.portNumber());
+        customer.setAssignedPort(newPort);
         Customer updatedCustomer = customerRepository.save(customer);
 
         // 4. Update FiberDropLine
-        FiberDropLine fiberLine = fiberDropLineRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new InventoryServiceException(String.format(FIBER_LINE_NOT_FOUND_MSG, customerId)));
-        fiberLine.setFromSplitterId(newSplitterAsset.getId());
+        fiberLine.setFromSplitterId(newSplitterId);
         fiberDropLineRepository.save(fiberLine);
 
         return mapToCustomerResponse(updatedCustomer, inventoryServiceProxy.getAssetsByCustomerId(customerId));
     }
 
+    /**
+     * Runs a compensating inventory call; its failure is logged rather than thrown so it
+     * cannot replace the error that triggered it.
+     */
+    private void compensate(Runnable action, Long splitterId) {
+        try {
+            action.run();
+        } catch (InventoryServiceException e) { // --- Sonar: Catch specific exception
+            logger.error(FAILED_TO_COMPENSATE_MSG, splitterId, e.getMessage(), e);
+        }
+    }
+
+    private void registerRollbackCompensation(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
     @Transactional
     public CustomerResponse assignSplitterPort(Long customerId, CustomerAssignmentRequest assignment) {
         logger.info("Assigning new port for customer ID: {}", customerId);
@@ -191,13 +226,8 @@ public class CustomerService implements CustomerServiceInterface {
         AssetResponse splitterAsset = inventoryServiceProxy.getAssetBySerial(assignment.splitterSerialNumber());
 
         try {
-            SplitterDto splitter = inventoryServiceProxy.getSplitterDetails(splitterAsset.getId());
-            if (splitter.getUsedPorts() >= splitter.getPortCapacity()) {
-                throw new InvalidPortAssignmentException(String.format(SPLITTER_FULL_MSG, splitter.getSerialNumber()));
-            }
-            SplitterUpdateRequest updateRequest = new SplitterUpdateRequest();
-            updateRequest.setUsedPorts(splitter.getUsedPorts() + 1);
-            inventoryServiceProxy.updateSplitterUsedPorts(splitter.getId(), updateRequest);
+            // Atomic reserve: inventory rejects the call when the port is taken or the splitter is full
+            inventoryServiceProxy.reserveSplitterPort(splitterAsset.getId(), assignment.portNumber());
         } catch (InventoryServiceException e) { // --- Sonar: Catch specific exception
             // --- Sonar: Re-throw with original cause ---
             throw new InventoryServiceException(String.format(FAILED_TO_UPDATE_SPLITTER_MSG, e.getMessage()));
@@ -313,16 +343,48 @@ public class CustomerService implements CustomerServiceInterface {
 
     public List<CustomerAssignmentDto> getCustomersBySplitter(Long splitterId) {
         List<Customer> customers = customerRepository.findBySplitterIdAndStatus(splitterId, CustomerStatus.ACTIVE);
-        // --- Sonar: This N+1 call is now explicit. ---
-        // Fixing it would require a new proxy method (e.g., getAssetsByCustomerIds)
+        if (customers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // --- Sonar: Fixed N+1 by fetching assets for all customers in one batch call ---
+        List<Long> customerIds = customers.stream().map(Customer::getId).toList();
+        Map<Long, List<AssetResponse>> assetsByCustomer = inventoryServiceProxy.getAssetsByCustomerIds(customerIds);
         return customers.stream()
-                .map(customer -> {
-                    List<AssetResponse> assets = inventoryServiceProxy.getAssetsByCustomerId(customer.getId());
-                    return toCustomerAssignmentDto(customer, assets);
-                })
+                .map(customer -> toCustomerAssignmentDto(customer,
+                        assetsByCustomer.getOrDefault(customer.getId(), Collections.emptyList())))
                 .toList();
     }
 
+    /**
+     * One-time migration: sends the port every customer holds to inventory so the splitter
+     * port bitmaps reflect assignments made before ports were tracked. Inventory skips ports
+     * it already tracks, so the backfill can be re-run after a partial failure.
+     */
+    public PortOccupancySeedResult backfillSplitterPortOccupancy() {
+        PortOccupancySeedResult total = new PortOccupancySeedResult();
+        long afterId = 0;
+        List<Customer> page;
+        do {
+            page = customerRepository.findBySplitterIdNotNullAndAssignedPortNotNullAndIdGreaterThanOrderByIdAsc(
+                    afterId, Limit.of(PORT_BACKFILL_BATCH_SIZE));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<SplitterPortOccupancy> ports = page.stream()
+                    .map(customer -> new SplitterPortOccupancy(customer.getSplitterId(), customer.getAssignedPort()))
+                    .toList();
+            PortOccupancySeedResult seeded = inventoryServiceProxy.seedSplitterPorts(ports);
+            total.setRequested(total.getRequested() + seeded.getRequested());
+            total.setSeeded(total.getSeeded() + seeded.getSeeded());
+            total.setAlreadyTracked(total.getAlreadyTracked() + seeded.getAlreadyTracked());
+            total.getRejected().addAll(seeded.getRejected());
+            afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == PORT_BACKFILL_BATCH_SIZE);
+        logger.info("Port occupancy backfill: {} ports sent, {} seeded, {} already tracked, {} rejected",
+                total.getRequested(), total.getSeeded(), total.getAlreadyTracked(), total.getRejected().size());
+        return total;
+    }
+
     private FiberDropLineResponse toFiberDropLineResponse(FiberDropLine line) {
         FiberDropLineResponse dto = new FiberDropLineResponse();
         dto.setId(line.getId());
@@ -21,4 +21,5 @@ public interface CustomerServiceInterface {
     List<CustomerResponse> searchCustomers(String neighborhood, CustomerStatus status, String address, String name);
     CustomerAssignmentDto getCustomerAssignment(Long id);
     List<CustomerAssignmentDto> getCustomersBySplitter(Long splitterId);
+    PortOccupancySeedResult backfillSplitterPortOccupancy();
 }
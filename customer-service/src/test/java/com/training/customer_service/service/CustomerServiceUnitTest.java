@@ -2,14 +2,17 @@ package com.training.customer_service.service;
 
 import com.training.customer_service.clients.InventoryServiceProxy;
 import com.training.customer_service.dtos.AssetResponse;
+import com.training.customer_service.dtos.CustomerAssignmentDto;
 import com.training.customer_service.dtos.CustomerAssignmentRequest;
 import com.training.customer_service.dtos.CustomerResponse;
-import com.training.customer_service.dtos.SplitterDto;
+import com.training.customer_service.dtos.PortOccupancySeedResult;
 import com.training.customer_service.dtos.SplitterUpdateRequest;
+import com.training.customer_service.dtos.feign.SplitterPortOccupancy;
 import com.training.customer_service.entities.Customer;
 import com.training.customer_service.entities.FiberDropLine;
 import com.training.customer_service.enums.CustomerStatus;
 import com.training.customer_service.exceptions.CustomerActionException;
+import com.training.customer_service.exceptions.InventoryServiceException;
 import com.training.customer_service.repositories.CustomerRepository;
 import com.training.customer_service.repositories.FiberDropLineRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,12 +24,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -123,25 +129,16 @@ class CustomerServiceUnitTest {
     void reassignSplitterPort_Success() {
         // Arrange
         customer.setSplitterId(100L); // Old splitter
+        customer.setAssignedPort(5);
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
         when(customerRepository.save(any(Customer.class))).thenReturn(customer);
 
         // Mock inventory calls
-        SplitterDto oldSplitter = new SplitterDto();
-        oldSplitter.setUsedPorts(5);
-        when(inventoryServiceProxy.getSplitterDetails(100L)).thenReturn(oldSplitter);
-
         AssetResponse newSplitterAsset = new AssetResponse();
         newSplitterAsset.setId(200L);
         newSplitterAsset.setSerialNumber("NEW-SPLITTER");
         when(inventoryServiceProxy.getAssetBySerial(anyString())).thenReturn(newSplitterAsset);
 
-        SplitterDto newSplitter = new SplitterDto();
-        newSplitter.setId(200L); // *** THIS IS THE FIX ***
-        newSplitter.setUsedPorts(2);
-        newSplitter.setPortCapacity(8);
-        when(inventoryServiceProxy.getSplitterDetails(200L)).thenReturn(newSplitter);
-
         when(fiberDropLineRepository.findByCustomerId(1L)).thenReturn(Optional.of(new FiberDropLine()));
         when(inventoryServiceProxy.getAssetsByCustomerId(1L)).thenReturn(Collections.emptyList());
 
@@ -152,12 +149,107 @@ class CustomerServiceUnitTest {
         CustomerResponse response = customerService.reassignSplitterPort(1L, request);
 
         // Assert
-        // Verify port decrement on old splitter
-        verify(inventoryServiceProxy, times(1)).updateSplitterUsedPorts(eq(100L), any(SplitterUpdateRequest.class));
-        // Verify port increment on new splitter
-        verify(inventoryServiceProxy, times(1)).updateSplitterUsedPorts(eq(200L), any(SplitterUpdateRequest.class));
+        // Verify the requested port is reserved on the new splitter and the old port released
+        verify(inventoryServiceProxy, times(1)).reserveSplitterPort(200L, 3);
+        verify(inventoryServiceProxy, times(1)).releaseSplitterPort(100L, 5);
+        verify(inventoryServiceProxy, never()).updateSplitterUsedPorts(any(), any(SplitterUpdateRequest.class));
         // Verify customer is updated
         assertEquals(200L, customer.getSplitterId());
         verify(customerRepository, times(1)).save(customer);
     }
+
+    @Test
+    void reassignSplitterPort_SamePortIsNoOp() {
+        // Arrange
+        customer.setSplitterId(100L);
+        customer.setAssignedPort(5);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(fiberDropLineRepository.findByCustomerId(1L)).thenReturn(Optional.of(new FiberDropLine()));
+
+        AssetResponse splitterAsset = new AssetResponse();
+        splitterAsset.setId(100L);
+        when(inventoryServiceProxy.getAssetBySerial("SPLITTER-1")).thenReturn(splitterAsset);
+        when(inventoryServiceProxy.getAssetsByCustomerId(1L)).thenReturn(Collections.emptyList());
+
+        // Act
+        customerService.reassignSplitterPort(1L, new CustomerAssignmentRequest("SPLITTER-1", 5, new BigDecimal("50.0")));
+
+        // Assert
+        verify(inventoryServiceProxy, never()).reserveSplitterPort(any(), any());
+        verify(inventoryServiceProxy, never()).releaseSplitterPort(any(), any());
+        verify(customerRepository, never()).save(any(Customer.class));
+    }
+
+    @Test
+    void reassignSplitterPort_FailedCompensationKeepsOriginalError() {
+        // Arrange
+        customer.setSplitterId(100L);
+        customer.setAssignedPort(5);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(fiberDropLineRepository.findByCustomerId(1L)).thenReturn(Optional.of(new FiberDropLine()));
+
+        AssetResponse newSplitterAsset = new AssetResponse();
+        newSplitterAsset.setId(200L);
+        when(inventoryServiceProxy.getAssetBySerial("NEW-SPLITTER")).thenReturn(newSplitterAsset);
+        when(inventoryServiceProxy.releaseSplitterPort(100L, 5)).thenThrow(new InventoryServiceException("old port release failed"));
+        when(inventoryServiceProxy.releaseSplitterPort(200L, 3)).thenThrow(new InventoryServiceException("undo failed"));
+
+        CustomerAssignmentRequest request = new CustomerAssignmentRequest("NEW-SPLITTER", 3, new BigDecimal("50.0"));
+
+        // Act
+        CustomerActionException exception = assertThrows(CustomerActionException.class,
+                () -> customerService.reassignSplitterPort(1L, request));
+
+        // Assert
+        assertEquals("Failed to release old splitter port: old port release failed", exception.getMessage());
+        verify(inventoryServiceProxy).releaseSplitterPort(200L, 3);
+        verify(customerRepository, never()).save(any(Customer.class));
+    }
+
+    @Test
+    void getCustomersBySplitter_FetchesAssetsInOneBatchCall() {
+        // Arrange
+        customer.setStatus(CustomerStatus.ACTIVE);
+        Customer other = new Customer();
+        other.setId(2L);
+        other.setStatus(CustomerStatus.ACTIVE);
+        when(customerRepository.findBySplitterIdAndStatus(100L, CustomerStatus.ACTIVE)).thenReturn(List.of(customer, other));
+
+        AssetResponse ont = new AssetResponse();
+        ont.setSerialNumber("ONT-1");
+        ont.setAssetType("ONT");
+        when(inventoryServiceProxy.getAssetsByCustomerIds(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, List.of(ont), 2L, Collections.emptyList()));
+
+        // Act
+        List<CustomerAssignmentDto> result = customerService.getCustomersBySplitter(100L);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getAssignedAssets().size());
+        assertEquals(0, result.get(1).getAssignedAssets().size());
+        verify(inventoryServiceProxy, times(1)).getAssetsByCustomerIds(List.of(1L, 2L));
+        verify(inventoryServiceProxy, never()).getAssetsByCustomerId(any());
+    }
+
+    @Test
+    void backfillSplitterPortOccupancy_SendsEveryHeldPortToInventory() {
+        // Arrange
+        customer.setSplitterId(100L);
+        customer.setAssignedPort(3);
+        when(customerRepository.findBySplitterIdNotNullAndAssignedPortNotNullAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(customer));
+        PortOccupancySeedResult seeded = new PortOccupancySeedResult();
+        seeded.setRequested(1);
+        seeded.setSeeded(1);
+        when(inventoryServiceProxy.seedSplitterPorts(any())).thenReturn(seeded);
+
+        // Act
+        PortOccupancySeedResult result = customerService.backfillSplitterPortOccupancy();
+
+        // Assert
+        assertEquals(1, result.getSeeded());
+        verify(inventoryServiceProxy).seedSplitterPorts(argThat((List<SplitterPortOccupancy> ports) -> ports.size() == 1
+                && ports.get(0).getSplitterId() == 100L && ports.get(0).getPort() == 3));
+    }
 }
@@ -0,0 +1,30 @@
+package com.training.inventory_service.archive;
+
+import com.training.inventory_service.entities.AssetHistory;
+
+import java.time.Instant;
+
+/**
+ * One asset history row as stored in an archive segment. The journal key is dropped:
+ * it only guards crash replay, and rows are archived long after any replay could happen.
+ */
+public record ArchivedHistoryEntry(Long id, Long assetId, String changeType, String description,
+                                   Instant timestamp, Long changedByUserId) {
+
+    public static ArchivedHistoryEntry of(AssetHistory history) {
+        return new ArchivedHistoryEntry(history.getId(), history.getAssetId(), history.getChangeType(),
+                history.getDescription(), history.getTimestamp(), history.getChangedByUserId());
+    }
+
+    /** A detached copy for merging with hot rows; it is never persisted. */
+    public AssetHistory toAssetHistory() {
+        AssetHistory history = new AssetHistory();
+        history.setId(id);
+        history.setAssetId(assetId);
+        history.setChangeType(changeType);
+        history.setDescription(description);
+        history.setTimestamp(timestamp);
+        history.setChangedByUserId(changedByUserId);
+        return history;
+    }
+}
@@ -0,0 +1,265 @@
+package com.training.inventory_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.dtos.HistoryArchiveStatsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for asset history that has aged out of the {@code asset_history} table.
+ * <p>
+ * Each archive run writes sealed, gzip-compressed NDJSON segments in (timestamp, id) order,
+ * so segments are time-ordered and never rewritten. Every segment has a small sidecar index
+ * with its time range and the sorted asset ids it contains; the indexes are kept in memory,
+ * so a per-asset read only decompresses segments that actually hold that asset. A segment
+ * only counts once its index exists, which makes a write interrupted by a crash invisible.
+ */
+@Component
+public class HistoryArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryArchive.class);
+
+    private static final String OPEN_FAILED_MSG = "Failed to open asset history archive in %s";
+    private static final String WRITE_FAILED_MSG = "Failed to write asset history archive segment %s";
+    private static final String READ_FAILED_MSG = "Failed to read asset history archive segment %s";
+
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String DATA_SUFFIX = ".ndjson.gz";
+    private static final String INDEX_SUFFIX = ".idx.json";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Object writeLock = new Object();
+
+    // Oldest first; replaced copy-on-write under writeLock so readers never block
+    private volatile List<Segment> segments;
+
+    @Autowired
+    public HistoryArchive(ObjectMapper objectMapper,
+                          @Value("${inventory.history-archive.directory:data/history-archive}") String directory) {
+        this(objectMapper, Path.of(directory));
+    }
+
+    HistoryArchive(ObjectMapper objectMapper, Path directory) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(directory);
+            this.segments = loadSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format(OPEN_FAILED_MSG, directory), e);
+        }
+    }
+
+    /**
+     * Seals the entries, which must be ordered by (timestamp, id), as a new segment.
+     * Returns once the segment is durable and visible to readers.
+     */
+    public void append(List<ArchivedHistoryEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            List<Segment> current = segments;
+            long sequence = current.isEmpty() ? 1 : current.get(current.size() - 1).index().sequence() + 1;
+            String baseName = String.format("%s%010d", SEGMENT_PREFIX, sequence);
+            Path dataFile = directory.resolve(baseName + DATA_SUFFIX);
+            Path indexFile = directory.resolve(baseName + INDEX_SUFFIX);
+            SegmentIndex index = new SegmentIndex(sequence, entries.size(),
+                    entries.get(0).timestamp(), entries.get(entries.size() - 1).timestamp(),
+                    entries.stream().mapToLong(ArchivedHistoryEntry::assetId).distinct().sorted().toArray());
+            try {
+                Path dataTmp = directory.resolve(baseName + DATA_SUFFIX + TMP_SUFFIX);
+                try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(dataTmp), IO_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+                    for (ArchivedHistoryEntry entry : entries) {
+                        writer.write(objectMapper.writeValueAsString(entry));
+                        writer.newLine();
+                    }
+                }
+                publish(dataTmp, dataFile);
+                Path indexTmp = directory.resolve(baseName + INDEX_SUFFIX + TMP_SUFFIX);
+                Files.write(indexTmp, objectMapper.writeValueAsBytes(index));
+                publish(indexTmp, indexFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format(WRITE_FAILED_MSG, baseName), e);
+            }
+            List<Segment> updated = new ArrayList<>(current);
+            updated.add(new Segment(dataFile, index));
+            segments = List.copyOf(updated);
+        }
+    }
+
+    /** Ids in the newest segment, so an archive run interrupted before its delete can be finished. */
+    public List<Long> lastSegmentIds() {
+        List<Segment> current = segments;
+        if (current.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        read(current.get(current.size() - 1), entry -> ids.add(entry.id()));
+        return ids;
+    }
+
+    /** True when archived entries may fall in a window starting at {@code from} (null = unbounded). */
+    public boolean mayContain(Instant from) {
+        List<Segment> current = segments;
+        return !current.isEmpty()
+                && (from == null || !current.get(current.size() - 1).index().maxTimestamp().isBefore(from));
+    }
+
+    /** Every archived entry of one asset in [from, to), oldest first; null bounds are open. */
+    public List<ArchivedHistoryEntry> findByAsset(Long assetId, Instant from, Instant to, String changeType) {
+        List<ArchivedHistoryEntry> found = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.overlaps(from, to) && Arrays.binarySearch(segment.index().assetIds(), assetId) >= 0) {
+                read(segment, entry -> {
+                    if (assetId.equals(entry.assetId()) && matches(entry, from, to, changeType)) {
+                        found.add(entry);
+                    }
+                });
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Streams archived entries in [from, to) across all assets in (timestamp, id) order,
+     * handing them to the consumer in chunks of at most {@code chunkSize}.
+     */
+    public void stream(Instant from, Instant to, String changeType, int chunkSize, Consumer<List<ArchivedHistoryEntry>> chunkConsumer) {
+        List<ArchivedHistoryEntry> chunk = new ArrayList<>(chunkSize);
+        for (Segment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+            read(segment, entry -> {
+                if (matches(entry, from, to, changeType)) {
+                    chunk.add(entry);
+                    if (chunk.size() == chunkSize) {
+                        chunkConsumer.accept(List.copyOf(chunk));
+                        chunk.clear();
+                    }
+                }
+            });
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(List.copyOf(chunk));
+        }
+    }
+
+    public HistoryArchiveStatsDto getStats() {
+        List<Segment> current = segments;
+        HistoryArchiveStatsDto stats = new HistoryArchiveStatsDto();
+        stats.setSegmentCount(current.size());
+        long entries = 0;
+        long bytes = 0;
+        for (Segment segment : current) {
+            entries += segment.index().count();
+            bytes += sizeOf(segment.dataFile());
+        }
+        stats.setArchivedEntries(entries);
+        stats.setSizeBytes(bytes);
+        if (!current.isEmpty()) {
+            stats.setOldestArchivedAt(current.get(0).index().minTimestamp());
+            stats.setNewestArchivedAt(current.get(current.size() - 1).index().maxTimestamp());
+        }
+        return stats;
+    }
+
+    private List<Segment> loadSegments() throws IOException {
+        List<Segment> loaded = new ArrayList<>();
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(TMP_SUFFIX)) {
+                Files.deleteIfExists(file); // Torn write; its rows are still in the hot table
+            } else if (name.endsWith(DATA_SUFFIX)) {
+                Path indexFile = directory.resolve(name.substring(0, name.length() - DATA_SUFFIX.length()) + INDEX_SUFFIX);
+                if (Files.exists(indexFile)) {
+                    loaded.add(new Segment(file, objectMapper.readValue(indexFile.toFile(), SegmentIndex.class)));
+                } else {
+                    logger.warn("Removing unsealed history archive segment {}", name);
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingLong(segment -> segment.index().sequence()));
+        return List.copyOf(loaded);
+    }
+
+    private void read(Segment segment, Consumer<ArchivedHistoryEntry> consumer) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment.dataFile()), IO_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    consumer.accept(objectMapper.readValue(line, ArchivedHistoryEntry.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format(READ_FAILED_MSG, segment.dataFile().getFileName()), e);
+        }
+    }
+
+    private static boolean matches(ArchivedHistoryEntry entry, Instant from, Instant to, String changeType) {
+        return (from == null || !entry.timestamp().isBefore(from))
+                && (to == null || entry.timestamp().isBefore(to))
+                && (changeType == null || changeType.isBlank() || changeType.equals(entry.changeType()));
+    }
+
+    private static void publish(Path tmp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    record SegmentIndex(long sequence, int count, Instant minTimestamp, Instant maxTimestamp, long[] assetIds) {
+    }
+
+    private record Segment(Path dataFile, SegmentIndex index) {
+        boolean overlaps(Instant from, Instant to) {
+            return (from == null || !index.maxTimestamp().isBefore(from))
+                    && (to == null || index.minTimestamp().isBefore(to));
+        }
+    }
+}
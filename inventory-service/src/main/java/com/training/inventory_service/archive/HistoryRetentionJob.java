@@ -0,0 +1,89 @@
+package com.training.inventory_service.archive;
+
+import com.training.inventory_service.entities.AssetHistory;
+import com.training.inventory_service.repositories.AssetHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves asset history older than the hot retention window from {@code asset_history} into
+ * the {@link HistoryArchive}, one segment at a time. Each segment is sealed on disk before
+ * its rows are deleted, so a crash can only leave rows in both places; the next run deletes
+ * those first. Keeping the table to the recent window keeps its indexes small and inserts fast.
+ */
+@Component
+public class HistoryRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryRetentionJob.class);
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final HistoryArchive historyArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration hotRetention;
+    private final int segmentMaxRecords;
+
+    @Autowired
+    public HistoryRetentionJob(AssetHistoryRepository assetHistoryRepository,
+                               HistoryArchive historyArchive,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${inventory.history-archive.enabled:true}") boolean enabled,
+                               @Value("${inventory.history-archive.hot-retention-days:90}") long hotRetentionDays,
+                               @Value("${inventory.history-archive.segment-max-records:50000}") int segmentMaxRecords) {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.historyArchive = historyArchive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotRetention = Duration.ofDays(hotRetentionDays);
+        this.segmentMaxRecords = segmentMaxRecords;
+    }
+
+    @Scheduled(initialDelayString = "${inventory.history-archive.interval-ms:3600000}",
+            fixedDelayString = "${inventory.history-archive.interval-ms:3600000}")
+    public synchronized int archiveExpiredHistory() {
+        if (!enabled) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(hotRetention);
+        deleteHotRows(historyArchive.lastSegmentIds()); // Finishes a run that stopped between seal and delete
+
+        int archived = 0;
+        List<AssetHistory> rows;
+        do {
+            rows = assetHistoryRepository.findByTimestampBeforeOrderByTimestampAscIdAsc(cutoff, Limit.of(segmentMaxRecords));
+            if (rows.isEmpty()) {
+                break;
+            }
+            historyArchive.append(rows.stream().map(ArchivedHistoryEntry::of).toList());
+            deleteHotRows(rows.stream().map(AssetHistory::getId).toList());
+            archived += rows.size();
+        } while (rows.size() == segmentMaxRecords);
+
+        if (archived > 0) {
+            logger.info("Archived {} asset history entries older than {} days in {} ms",
+                    archived, hotRetention.toDays(), System.currentTimeMillis() - start);
+        }
+        return archived;
+    }
+
+    private void deleteHotRows(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> assetHistoryRepository.deleteAllByIdInBatch(chunk));
+        }
+    }
+}
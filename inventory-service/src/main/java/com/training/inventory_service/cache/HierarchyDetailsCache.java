@@ -0,0 +1,183 @@
+package com.training.inventory_service.cache;
+
+import com.training.inventory_service.dtos.HierarchyCacheStatsDto;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache with a time-to-live for headend, core switch, FDH and splitter detail DTOs.
+ * <p>
+ * Writers call {@link #evict} for every node they change. The entry is dropped immediately and
+ * again after the surrounding transaction commits, so a reader that loaded the pre-commit row
+ * in between cannot leave a stale copy behind. A load that overlaps any eviction is returned
+ * but not cached. The TTL bounds staleness for changes made by other instances.
+ * Cached DTOs are shared between callers and must be treated as read-only.
+ */
+@Component
+public class HierarchyDetailsCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    // All state below is guarded by "this"
+    private final LinkedHashMap<Key, CachedValue> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    @Autowired
+    public HierarchyDetailsCache(@Value("${inventory.hierarchy-cache.max-entries:10000}") int maxEntries,
+                                 @Value("${inventory.hierarchy-cache.ttl-ms:300000}") long ttlMillis) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    HierarchyDetailsCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedValue> eldest) {
+                if (size() > HierarchyDetailsCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(AssetType nodeType, Long id, Supplier<V> loader) {
+        Key key = new Key(nodeType, id);
+        long loadGeneration;
+        synchronized (this) {
+            CachedValue cached = entries.get(key);
+            if (cached != null) {
+                if (clock.getAsLong() - cached.loadedAt() < ttlNanos) {
+                    hits++;
+                    return (V) cached.value();
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock so a slow query does not block hits on other nodes
+        V value = loader.get();
+        synchronized (this) {
+            if (generation == loadGeneration && maxEntries > 0) {
+                entries.put(key, new CachedValue(value, clock.getAsLong()));
+            }
+        }
+        return value;
+    }
+
+    public void evict(AssetType nodeType, Long id) {
+        Key key = new Key(nodeType, id);
+        invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Batch form of {@link #evict} for bulk writers: one pass under the lock and one
+     * post-commit synchronization for the whole batch instead of one per node.
+     */
+    public void evictAll(AssetType nodeType, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            keys.add(new Key(nodeType, id));
+        }
+        invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    /**
+     * Asset deletion lives in AssetService, which already announces removed hierarchy nodes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHierarchyNodeDeleted(HierarchyNodeDeletedEvent event) {
+        invalidate(new Key(event.nodeType(), event.id()));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized HierarchyCacheStatsDto getStats() {
+        HierarchyCacheStatsDto dto = new HierarchyCacheStatsDto();
+        dto.setSize(entries.size());
+        dto.setMaxEntries(maxEntries);
+        dto.setTtlMillis(TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+        dto.setHits(hits);
+        dto.setMisses(misses);
+        dto.setEvictions(evictions);
+        dto.setExpirations(expirations);
+        dto.setInvalidations(invalidations);
+        long lookups = hits + misses;
+        dto.setHitRatio(lookups == 0 ? 0 : (double) hits / lookups);
+        return dto;
+    }
+
+    private synchronized void invalidateAll(List<Key> keys) {
+        generation++;
+        for (Key key : keys) {
+            if (entries.remove(key) != null) {
+                invalidations++;
+            }
+        }
+    }
+
+    private synchronized void invalidate(Key key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    private record Key(AssetType nodeType, Long id) {
+    }
+
+    private record CachedValue(Object value, long loadedAt) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.training.inventory_service.cache;
+
+/**
+ * Serialized JSON body of a hierarchy read together with its strong ETag.
+ * The ETag is a digest of the bytes, so it only changes when the content does.
+ */
+public record HierarchySnapshot(long version, byte[] body, String etag) {
+
+    /**
+     * True when an {@code If-None-Match} header value names this snapshot's ETag.
+     * Weak validators are accepted since they are only used for GET revalidation.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
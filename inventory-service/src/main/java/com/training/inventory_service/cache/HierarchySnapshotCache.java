@@ -0,0 +1,144 @@
+package com.training.inventory_service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import com.training.inventory_service.events.HierarchyNodesMovedEvent;
+import com.training.inventory_service.events.SplitterCapacityChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the last serialized body of each topology and list read, tagged with the hierarchy
+ * version it was built at.
+ * <p>
+ * The version is bumped after every committed create, reparent, update or delete of a headend,
+ * core switch, FDH or splitter. While it is unchanged a cached body is served as is, so an
+ * unchanged poll costs a map lookup and never reaches the database. The version is also bumped
+ * on a timer so that writes made by other instances are picked up; a rebuild that produces the
+ * same bytes keeps the same ETag, so clients still get 304 responses.
+ */
+@Component
+public class HierarchySnapshotCache {
+
+    private static final String SERIALIZATION_FAILED_MSG = "Failed to serialize hierarchy snapshot";
+    private static final Set<AssetType> HIERARCHY_TYPES =
+            Set.of(AssetType.HEADEND, AssetType.CORE_SWITCH, AssetType.FDH, AssetType.SPLITTER);
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final AtomicLong version = new AtomicLong();
+
+    // Guarded by "this"
+    private final LinkedHashMap<String, HierarchySnapshot> snapshots;
+
+    @Autowired
+    public HierarchySnapshotCache(ObjectMapper objectMapper,
+                                  @Value("${inventory.hierarchy-snapshots.max-entries:1000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HierarchySnapshot> eldest) {
+                return size() > HierarchySnapshotCache.this.maxEntries;
+            }
+        };
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the snapshot for {@code key}, building and serializing it only if the
+     * hierarchy changed since it was last built.
+     */
+    public HierarchySnapshot get(String key, Supplier<?> builder) {
+        // Read the version before the data: a change committed mid-build then forces a rebuild next time
+        long buildVersion = version.get();
+        synchronized (this) {
+            HierarchySnapshot cached = snapshots.get(key);
+            if (cached != null && cached.version() == buildVersion) {
+                return cached;
+            }
+        }
+
+        byte[] body = serialize(builder.get());
+        HierarchySnapshot snapshot = new HierarchySnapshot(buildVersion, body, etagOf(body));
+        synchronized (this) {
+            HierarchySnapshot cached = snapshots.get(key);
+            if (cached == null || cached.version() <= buildVersion) {
+                snapshots.put(key, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    // --- Version bumps (applied only once the change is committed) ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHierarchyNodeChanged(HierarchyNodeChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHierarchyNodeDeleted(HierarchyNodeDeletedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHierarchyNodesMoved(HierarchyNodesMovedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitterCapacityChanged(SplitterCapacityChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssetChanged(AssetChangedEvent event) {
+        AssetType type = event.after() != null ? event.after().assetType() : event.before().assetType();
+        if (HIERARCHY_TYPES.contains(type)) {
+            bump();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${inventory.hierarchy-snapshots.refresh-interval-ms:60000}",
+            fixedDelayString = "${inventory.hierarchy-snapshots.refresh-interval-ms:60000}")
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(SERIALIZATION_FAILED_MSG, e);
+        }
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
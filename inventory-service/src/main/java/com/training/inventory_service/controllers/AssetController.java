@@ -1,32 +1,58 @@
 package com.training.inventory_service.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.training.inventory_service.dtos.*;
 import com.training.inventory_service.enums.AssetStatus;
 import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ImportFormat;
+import com.training.inventory_service.services.AssetImportService;
+import com.training.inventory_service.services.AssetImportServiceInterface;
+import com.training.inventory_service.services.AssetSearchService;
+import com.training.inventory_service.services.AssetSearchServiceInterface;
 import com.training.inventory_service.services.AssetService;
 import com.training.inventory_service.services.AssetServiceInterface;
 import com.training.inventory_service.services.NetworkHierarchyService;
 import com.training.inventory_service.services.NetworkHierarchyServiceInterface;
+import com.training.inventory_service.services.SerialReconciliationService;
+import com.training.inventory_service.services.SerialReconciliationServiceInterface;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/inventory/assets")
 public class AssetController {
 
+    private static final String TEXT_CSV = "text/csv";
+
     private final AssetServiceInterface assetService;
     private final NetworkHierarchyServiceInterface networkHierarchyService;
+    private final AssetImportServiceInterface assetImportService;
+    private final AssetSearchServiceInterface assetSearchService;
+    private final SerialReconciliationServiceInterface serialReconciliationService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public AssetController(AssetService assetService, NetworkHierarchyService networkHierarchyService) {
+    public AssetController(AssetService assetService, NetworkHierarchyService networkHierarchyService, AssetImportService assetImportService,
+                           AssetSearchService assetSearchService, SerialReconciliationService serialReconciliationService,
+                           ObjectMapper objectMapper) {
         this.assetService = assetService;
         this.networkHierarchyService = networkHierarchyService;
+        this.assetImportService = assetImportService;
+        this.assetSearchService = assetSearchService;
+        this.serialReconciliationService = serialReconciliationService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -43,6 +69,41 @@ public class AssetController {
         };
     }
 
+    /**
+     * Bulk import of customer premises equipment (ONT, ROUTER, FIBER_ROLL).
+     * The body is read line by line, so uploads of any size run in constant memory.
+     * CSV needs a header row with at least assetType and serialNumber columns.
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, NdjsonWriter.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<AssetImportResult> importAssets(@RequestHeader("Content-Type") String contentType, InputStream body) {
+        ImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? ImportFormat.CSV
+                : ImportFormat.NDJSON;
+        Long userId = 1L; // Placeholder for authenticated user ID
+        return ResponseEntity.ok(assetImportService.importAssets(body, format, userId));
+    }
+
+    /**
+     * Field audit: diffs scanned serials (plain text, one per line) against what inventory places
+     * in the location or FDH cabinet. Streams MISSING, UNEXPECTED and MISPLACED records as NDJSON,
+     * followed by one SUMMARY record.
+     */
+    @PostMapping(value = "/reconcile", consumes = MediaType.TEXT_PLAIN_VALUE, produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'TECHNICIAN')")
+    public ResponseEntity<StreamingResponseBody> reconcileSerials(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Long fdhId,
+            InputStream body) {
+        serialReconciliationService.validateScope(location, fdhId);
+        StreamingResponseBody response = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            writer.write(serialReconciliationService.reconcile(body, location, fdhId, writer::write));
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(response);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Object> updateAsset(@PathVariable Long id, @Valid @RequestBody AssetUpdateRequest request) {
@@ -62,7 +123,7 @@ public class AssetController {
             @PathVariable String serialNumber,
             @Valid @RequestBody AssetAssignRequest request) {
         Long userId = 1L; // Placeholder for authenticated user ID
-        AssetResponse updatedAsset = assetService.assignAssetToCustomer(serialNumber, request.getCustomerId(), userId);
+        AssetResponse updatedAsset = assetService.assignAssetToCustomer(serialNumber, request.getCustomerId(), userId, request.getExpectedVersion());
         return ResponseEntity.ok(updatedAsset);
     }
 
@@ -82,6 +143,47 @@ public class AssetController {
         return ResponseEntity.ok(assets);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<AssetPageResponse> filterAssetsPage(
+            @RequestParam(required = false) AssetType type,
+            @RequestParam(required = false) AssetStatus status,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(assetService.filterAssetsPage(type, status, location, cursor, limit));
+    }
+
+    /**
+     * Autocomplete over serial numbers and models, served from an in-memory index.
+     * Serial prefix matches rank first, then serial substring, model prefix and model substring.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<List<AssetSearchHit>> searchAssets(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) AssetType type,
+            @RequestParam(required = false) AssetStatus status,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(assetSearchService.search(query, type, status, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<StreamingResponseBody> streamAssets(
+            @RequestParam(required = false) AssetType type,
+            @RequestParam(required = false) AssetStatus status,
+            @RequestParam(required = false) String location) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            assetService.streamFilteredAssets(type, status, location, chunk -> {
+                chunk.forEach(writer::write);
+                writer.flush();
+            });
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<AssetResponse>> getAssetsByCustomerId(@PathVariable Long customerId) {
@@ -89,6 +191,12 @@ public class AssetController {
         return ResponseEntity.ok(assets);
     }
 
+    @PostMapping("/by-customers")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<Long, List<AssetResponse>>> getAssetsByCustomerIds(@Valid @RequestBody AssetsByCustomersRequest request) {
+        return ResponseEntity.ok(assetService.getAssetsByCustomerIds(request.getCustomerIds()));
+    }
+
     @GetMapping("/by-serial/{serialNumber}") // Corrected Path
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<AssetResponse> getAssetBySerial(@PathVariable String serialNumber) {
@@ -113,6 +221,53 @@ public class AssetController {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Cursor-paginated history for one asset, newest first, with optional time range and change type.
+     */
+    @GetMapping("/{id}/history/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<AssetHistoryPageResponse> getAssetHistoryPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String changeType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(assetService.getAssetHistoryPage(id, from, to, changeType, cursor, limit));
+    }
+
+    /**
+     * History across all assets as NDJSON in chronological order, e.g. every ASSIGNED entry of the last day.
+     * {@code from} defaults to 24 hours ago.
+     */
+    @GetMapping(value = "/history/stream", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<StreamingResponseBody> streamHistory(
+            @RequestParam(required = false) String changeType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            assetService.streamHistory(changeType, from, to, chunk -> {
+                chunk.forEach(writer::write);
+                writer.flush();
+            });
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/history-journal/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HistoryJournalStatsDto> getHistoryJournalStats() {
+        return ResponseEntity.ok(assetService.getHistoryJournalStats());
+    }
+
+    @GetMapping("/history-archive/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HistoryArchiveStatsDto> getHistoryArchiveStats() {
+        return ResponseEntity.ok(assetService.getHistoryArchiveStats());
+    }
+
     @PatchMapping("/unassign/by-serial/{serialNumber}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
     public ResponseEntity<AssetResponse> unassignAsset(@PathVariable String serialNumber) {
@@ -128,6 +283,12 @@ public class AssetController {
         return ResponseEntity.ok(newAsset);
     }
 
+    @PostMapping("/replace/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN', 'SUPPORT_AGENT')")
+    public ResponseEntity<BulkReplacementResult> replaceFaultyAssets(@Valid @RequestBody BulkReplacementRequest request) {
+        return ResponseEntity.ok(assetService.replaceFaultyAssets(request.getReplacements(), null));
+    }
+
     @GetMapping("/faulty-assigned")
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN', 'SUPPORT_AGENT')")
     public ResponseEntity<List<AssetResponse>> getFaultyAssignedAssets() {
@@ -0,0 +1,62 @@
+package com.training.inventory_service.controllers;
+
+import com.training.inventory_service.dtos.CapacityRollupDto;
+import com.training.inventory_service.services.CapacityRollupService;
+import com.training.inventory_service.services.CapacityRollupServiceInterface;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory/capacity")
+public class CapacityController {
+
+    private final CapacityRollupServiceInterface capacityRollupService;
+
+    @Autowired
+    public CapacityController(CapacityRollupService capacityRollupService) {
+        this.capacityRollupService = capacityRollupService;
+    }
+
+    @GetMapping("/headends")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<List<CapacityRollupDto>> getAllHeadendCapacities() {
+        return ResponseEntity.ok(capacityRollupService.getAllHeadendCapacities());
+    }
+
+    @GetMapping("/headends/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<CapacityRollupDto> getHeadendCapacity(@PathVariable Long id) {
+        return ResponseEntity.ok(capacityRollupService.getHeadendCapacity(id));
+    }
+
+    @GetMapping("/headends/{id}/core-switches")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<List<CapacityRollupDto>> getCoreSwitchCapacitiesByHeadend(@PathVariable Long id) {
+        return ResponseEntity.ok(capacityRollupService.getCoreSwitchCapacitiesByHeadend(id));
+    }
+
+    @GetMapping("/core-switches/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<CapacityRollupDto> getCoreSwitchCapacity(@PathVariable Long id) {
+        return ResponseEntity.ok(capacityRollupService.getCoreSwitchCapacity(id));
+    }
+
+    @GetMapping("/core-switches/{id}/fdhs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<List<CapacityRollupDto>> getFdhCapacitiesByCoreSwitch(@PathVariable Long id) {
+        return ResponseEntity.ok(capacityRollupService.getFdhCapacitiesByCoreSwitch(id));
+    }
+
+    @GetMapping("/fdhs/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<CapacityRollupDto> getFdhCapacity(@PathVariable Long id) {
+        return ResponseEntity.ok(capacityRollupService.getFdhCapacity(id));
+    }
+}
@@ -0,0 +1,45 @@
+package com.training.inventory_service.controllers;
+
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+import com.training.inventory_service.services.ChangeFeedService;
+import com.training.inventory_service.services.ChangeFeedServiceInterface;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Delta sync for downstream replicas: bootstrap with a full list plus {@code /changes/head},
+ * then poll {@code /changes?since=} with the returned {@code nextSince}. A 410 means the
+ * consumer fell behind the retention window and must bootstrap again.
+ */
+@RestController
+@RequestMapping("/api/inventory/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeedServiceInterface changeFeedService;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ChangeFeedResponse> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+
+    @GetMapping("/head")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Long>> getLastSequence() {
+        return ResponseEntity.ok(Map.of("sequence", changeFeedService.getLastSequence()));
+    }
+}
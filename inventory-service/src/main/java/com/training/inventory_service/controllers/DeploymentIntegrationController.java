@@ -1,8 +1,11 @@
 package com.training.inventory_service.controllers;
 
 import com.training.inventory_service.dtos.AssetReclaimRequest;
+import com.training.inventory_service.dtos.BulkReclaimRequest;
+import com.training.inventory_service.dtos.BulkReclaimResult;
 import com.training.inventory_service.services.AssetService;
 import com.training.inventory_service.services.AssetServiceInterface;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,4 +29,11 @@ public class DeploymentIntegrationController {
         assetService.unassignAssetsFromCustomer(customerId, request.getStatus(), null);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/unassign/customers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPPORT_AGENT')") // Secured for internal system calls
+    public ResponseEntity<BulkReclaimResult> reclaimAssetsByCustomers(@Valid @RequestBody BulkReclaimRequest request) {
+        // The userId for logging can be extracted from JWT if needed, passing null for now
+        return ResponseEntity.ok(assetService.reclaimAssetsFromCustomers(request.getCustomerIds(), request.getStatus(), null));
+    }
 }
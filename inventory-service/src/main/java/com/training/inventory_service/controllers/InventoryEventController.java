@@ -0,0 +1,34 @@
+package com.training.inventory_service.controllers;
+
+import com.training.inventory_service.outbox.SseInventoryEventBroker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live stream of committed inventory changes for services that cache inventory data.
+ * Reconnect with {@code Last-Event-ID} to resume; a {@code resync} event means the gap is
+ * too large and the client must reload its state.
+ */
+@RestController
+@RequestMapping("/api/inventory/events")
+public class InventoryEventController {
+
+    private final SseInventoryEventBroker sseBroker;
+
+    @Autowired
+    public InventoryEventController(SseInventoryEventBroker sseBroker) {
+        this.sseBroker = sseBroker;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return sseBroker.subscribe(lastEventId);
+    }
+}
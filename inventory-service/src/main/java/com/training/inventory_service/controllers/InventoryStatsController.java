@@ -0,0 +1,36 @@
+package com.training.inventory_service.controllers;
+
+import com.training.inventory_service.dtos.InventoryStatsDto;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.services.InventoryStatsService;
+import com.training.inventory_service.services.InventoryStatsServiceInterface;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/inventory/stats")
+public class InventoryStatsController {
+
+    private final InventoryStatsServiceInterface inventoryStatsService;
+
+    @Autowired
+    public InventoryStatsController(InventoryStatsService inventoryStatsService) {
+        this.inventoryStatsService = inventoryStatsService;
+    }
+
+    // Served from in-memory counters; no database access
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<InventoryStatsDto> getStats(
+            @RequestParam(required = false) AssetType type,
+            @RequestParam(required = false) AssetStatus status,
+            @RequestParam(required = false) String location) {
+        return ResponseEntity.ok(inventoryStatsService.getStats(type, status, location));
+    }
+}
@@ -1,50 +1,70 @@
 package com.training.inventory_service.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.cache.HierarchySnapshot;
+import com.training.inventory_service.cache.HierarchySnapshotCache;
 import com.training.inventory_service.dtos.*;
+import com.training.inventory_service.services.InfrastructureProvisioningService;
+import com.training.inventory_service.services.InfrastructureProvisioningServiceInterface;
 import com.training.inventory_service.services.NetworkHierarchyService;
 import com.training.inventory_service.services.NetworkHierarchyServiceInterface;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/inventory")
 public class NetworkHierarchyController {
 
+    private static final int TOPOLOGY_FLUSH_EVERY = 500;
+
     private final NetworkHierarchyServiceInterface networkHierarchyService;
+    private final HierarchySnapshotCache snapshotCache;
+    private final ObjectMapper objectMapper;
+    private final InfrastructureProvisioningServiceInterface provisioningService;
 
     @Autowired
-    public NetworkHierarchyController(NetworkHierarchyService networkHierarchyService) {
+    public NetworkHierarchyController(NetworkHierarchyService networkHierarchyService, HierarchySnapshotCache snapshotCache, ObjectMapper objectMapper, InfrastructureProvisioningService provisioningService) {
         this.networkHierarchyService = networkHierarchyService;
+        this.snapshotCache = snapshotCache;
+        this.objectMapper = objectMapper;
+        this.provisioningService = provisioningService;
     }
+
     // --- List All Endpoints ---
+    // List and topology reads support If-None-Match; see HierarchySnapshotCache
 
     @GetMapping("/headends")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
-    public ResponseEntity<List<HeadendDto>> getAllHeadends() {
-        return ResponseEntity.ok(networkHierarchyService.getAllHeadends());
+    public ResponseEntity<byte[]> getAllHeadends(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet("/headends", ifNoneMatch, networkHierarchyService::getAllHeadends);
     }
 
     @GetMapping("/core-switches")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
-    public ResponseEntity<List<CoreSwitchDto>> getAllCoreSwitches() {
-        return ResponseEntity.ok(networkHierarchyService.getAllCoreSwitches());
+    public ResponseEntity<byte[]> getAllCoreSwitches(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet("/core-switches", ifNoneMatch, networkHierarchyService::getAllCoreSwitches);
     }
 
     @GetMapping("/fdhs")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
-    public ResponseEntity<List<FdhDto>> getAllFdhs() {
-        return ResponseEntity.ok(networkHierarchyService.getAllFdhs());
+    public ResponseEntity<byte[]> getAllFdhs(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet("/fdhs", ifNoneMatch, networkHierarchyService::getAllFdhs);
     }
 
     @GetMapping("/splitters")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
-    public ResponseEntity<List<SplitterDto>> getAllSplitters() {
-        return ResponseEntity.ok(networkHierarchyService.getAllSplitters());
+    public ResponseEntity<byte[]> getAllSplitters(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet("/splitters", ifNoneMatch, networkHierarchyService::getAllSplitters);
     }
 
     // --- Reparenting Endpoints ---
@@ -67,6 +87,37 @@ public class NetworkHierarchyController {
         return ResponseEntity.ok(networkHierarchyService.reparentSplitter(id, request.getNewFdhId()));
     }
 
+    // Bulk variants: one validation and one UPDATE for the whole batch
+
+    @PatchMapping("/fdhs/bulk-reparent")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkReparentResult> reparentFdhs(@Valid @RequestBody BulkFdhReparentRequest request) {
+        return ResponseEntity.ok(networkHierarchyService.reparentFdhs(request));
+    }
+
+    @PatchMapping("/splitters/bulk-reparent")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkReparentResult> reparentSplitters(@Valid @RequestBody BulkSplitterReparentRequest request) {
+        return ResponseEntity.ok(networkHierarchyService.reparentSplitters(request));
+    }
+
+    // --- Bulk Provisioning Endpoints ---
+    // A whole subtree in one transaction instead of one create call per node
+
+    @PostMapping("/provision/fdhs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<ProvisionResult> provisionFdh(@Valid @RequestBody FdhProvisionRequest request) {
+        Long userId = 1L; // Placeholder for authenticated user ID
+        return new ResponseEntity<>(provisioningService.provisionFdh(request, userId), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/provision/core-switches")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<ProvisionResult> provisionCoreSwitch(@Valid @RequestBody CoreSwitchProvisionRequest request) {
+        Long userId = 1L; // Placeholder for authenticated user ID
+        return new ResponseEntity<>(provisioningService.provisionCoreSwitch(request, userId), HttpStatus.CREATED);
+    }
+
     // --- Existing Endpoints ---
 
     @GetMapping("/headends/{id}")
@@ -75,10 +126,47 @@ public class NetworkHierarchyController {
         return ResponseEntity.ok(networkHierarchyService.getHeadendDetails(id));
     }
 
+    /**
+     * The whole network as one document: four set-based queries, then streamed out.
+     * Replaces calling /headends followed by /headends/{id}/topology per headend.
+     */
+    @GetMapping("/topology")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<StreamingResponseBody> getNetworkTopology() {
+        NetworkTopology topology = networkHierarchyService.getNetworkTopology();
+        StreamingResponseBody body = out -> TopologyJsonWriter.write(objectMapper, topology, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/headends/{id}/topology")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
-    public ResponseEntity<HeadendTopologyDto> getHeadendTopology(@PathVariable Long id) {
-        return ResponseEntity.ok(networkHierarchyService.getHeadendTopology(id));
+    public ResponseEntity<byte[]> getHeadendTopology(@PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet("/headends/" + id + "/topology", ifNoneMatch, () -> networkHierarchyService.getHeadendTopology(id));
+    }
+
+    /**
+     * Depth-first NDJSON variant of the topology: one node per line, each carrying its parent id.
+     * Splitters are read from a database cursor and written as they arrive, so memory use does not
+     * grow with the headend and clients can render while the response is still streaming.
+     */
+    @GetMapping(value = "/headends/{id}/topology/stream", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
+    public ResponseEntity<StreamingResponseBody> streamHeadendTopology(@PathVariable Long id) {
+        // Resolve the headend up front so a missing one is still a 404 rather than an empty stream
+        networkHierarchyService.getHeadendDetails(id);
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            int[] written = {0};
+            networkHierarchyService.streamHeadendTopology(id, node -> {
+                writer.write(node);
+                if (++written[0] % TOPOLOGY_FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/core-switches/{id}")
@@ -99,10 +187,17 @@ public class NetworkHierarchyController {
         return ResponseEntity.ok(networkHierarchyService.getSplitterDetails(id));
     }
 
+    @GetMapping("/hierarchy-cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<HierarchyCacheStatsDto> getDetailsCacheStats() {
+        return ResponseEntity.ok(networkHierarchyService.getDetailsCacheStats());
+    }
+
     @GetMapping("/fdhs/{id}/splitters")
     @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'SUPPORT_AGENT')")
-    public ResponseEntity<List<SplitterDto>> getSplittersByFdh(@PathVariable Long id) {
-        return ResponseEntity.ok(networkHierarchyService.getSplittersByFdh(id));
+    public ResponseEntity<byte[]> getSplittersByFdh(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return conditionalGet("/fdhs/" + id + "/splitters", ifNoneMatch, () -> networkHierarchyService.getSplittersByFdh(id));
     }
 
     @PatchMapping("/splitters/{id}/used-ports")
@@ -110,4 +205,53 @@ public class NetworkHierarchyController {
     public ResponseEntity<SplitterDto> updateSplitterUsedPorts(@PathVariable Long id, @Valid @RequestBody SplitterUpdateRequest request) {
         return ResponseEntity.ok(networkHierarchyService.updateSplitterUsedPorts(id, request));
     }
-}
\ No newline at end of file
+
+    // --- Port Occupancy Endpoints ---
+
+    @GetMapping("/splitters/{id}/ports")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'TECHNICIAN', 'SUPPORT_AGENT')")
+    public ResponseEntity<SplitterPortsDto> getSplitterPorts(@PathVariable Long id) {
+        return ResponseEntity.ok(networkHierarchyService.getSplitterPorts(id));
+    }
+
+    @PostMapping("/splitters/{id}/ports/reserve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'TECHNICIAN')")
+    public ResponseEntity<SplitterPortsDto> reserveSplitterPort(@PathVariable Long id) {
+        return ResponseEntity.ok(networkHierarchyService.reserveSplitterPort(id));
+    }
+
+    @PostMapping("/splitters/{id}/ports/{port}/reserve")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'TECHNICIAN')")
+    public ResponseEntity<SplitterPortsDto> reserveSplitterPortNumber(@PathVariable Long id, @PathVariable int port) {
+        return ResponseEntity.ok(networkHierarchyService.reserveSplitterPort(id, port));
+    }
+
+    @PostMapping("/splitters/{id}/ports/release")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'TECHNICIAN')")
+    public ResponseEntity<SplitterPortsDto> releaseSplitterPort(@PathVariable Long id) {
+        return ResponseEntity.ok(networkHierarchyService.releaseSplitterPort(id));
+    }
+
+    @PostMapping("/splitters/{id}/ports/{port}/release")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER', 'TECHNICIAN')")
+    public ResponseEntity<SplitterPortsDto> releaseSplitterPortNumber(@PathVariable Long id, @PathVariable int port) {
+        return ResponseEntity.ok(networkHierarchyService.releaseSplitterPort(id, port));
+    }
+
+    @PostMapping("/splitters/ports/occupancy")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PortOccupancySeedResult> seedSplitterPorts(@Valid @RequestBody PortOccupancySeedRequest request) {
+        return ResponseEntity.ok(networkHierarchyService.seedSplitterPorts(request.getPorts()));
+    }
+
+    private ResponseEntity<byte[]> conditionalGet(String key, String ifNoneMatch, Supplier<?> builder) {
+        HierarchySnapshot snapshot = snapshotCache.get(key, builder);
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+}
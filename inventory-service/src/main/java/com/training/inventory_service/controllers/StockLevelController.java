@@ -0,0 +1,63 @@
+package com.training.inventory_service.controllers;
+
+import com.training.inventory_service.dtos.StockLevelDto;
+import com.training.inventory_service.dtos.StockThresholdRequest;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.services.StockLevelService;
+import com.training.inventory_service.services.StockLevelServiceInterface;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory/stock")
+public class StockLevelController {
+
+    private final StockLevelServiceInterface stockLevelService;
+
+    @Autowired
+    public StockLevelController(StockLevelService stockLevelService) {
+        this.stockLevelService = stockLevelService;
+    }
+
+    // Served from in-memory levels; no database access
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<StockLevelDto>> getStockLevels(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) AssetType type) {
+        return ResponseEntity.ok(stockLevelService.getStockLevels(location, model, type));
+    }
+
+    @GetMapping("/low")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<StockLevelDto>> getLowStock() {
+        return ResponseEntity.ok(stockLevelService.getLowStock());
+    }
+
+    @PutMapping("/thresholds")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<StockLevelDto> setThreshold(@Valid @RequestBody StockThresholdRequest request) {
+        return ResponseEntity.ok(stockLevelService.setThreshold(request));
+    }
+
+    @DeleteMapping("/thresholds")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PLANNER')")
+    public ResponseEntity<Void> deleteThreshold(@RequestParam String location,
+                                                @RequestParam String model,
+                                                @RequestParam AssetType type) {
+        stockLevelService.deleteThreshold(location, model, type);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.training.inventory_service.controllers;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.dtos.CoreSwitchDto;
+import com.training.inventory_service.dtos.FdhDto;
+import com.training.inventory_service.dtos.HeadendDto;
+import com.training.inventory_service.dtos.NetworkTopology;
+import com.training.inventory_service.dtos.SplitterDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Streams a {@link NetworkTopology} as one nested JSON document without building a tree
+ * of wrapper DTOs first. Output is flushed after every headend so large networks start
+ * reaching the client immediately.
+ */
+public final class TopologyJsonWriter {
+
+    private final JsonGenerator generator;
+    private final NetworkTopology topology;
+
+    private TopologyJsonWriter(JsonGenerator generator, NetworkTopology topology) {
+        this.generator = generator;
+        this.topology = topology;
+    }
+
+    public static void write(ObjectMapper objectMapper, NetworkTopology topology, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setCodec(objectMapper);
+            new TopologyJsonWriter(generator, topology).writeDocument();
+        }
+    }
+
+    private void writeDocument() throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("headends");
+        for (HeadendDto headend : topology.headends()) {
+            writeHeadend(headend);
+            generator.flush();
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("unattachedCoreSwitches");
+        for (CoreSwitchDto coreSwitch : topology.unattachedCoreSwitches()) {
+            writeCoreSwitch(coreSwitch);
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("unattachedFdhs");
+        for (FdhDto fdh : topology.unattachedFdhs()) {
+            writeFdh(fdh);
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("unattachedSplitters");
+        writeSplitters(topology.unattachedSplitters());
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeHeadend(HeadendDto headend) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectField("id", headend.getId());
+        generator.writeStringField("name", headend.getName());
+        generator.writeStringField("location", headend.getLocation());
+        generator.writeStringField("serialNumber", headend.getSerialNumber());
+        generator.writeStringField("model", headend.getModel());
+        generator.writeArrayFieldStart("coreSwitches");
+        for (CoreSwitchDto coreSwitch : topology.coreSwitchesByHeadend().getOrDefault(headend.getId(), List.of())) {
+            writeCoreSwitch(coreSwitch);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeCoreSwitch(CoreSwitchDto coreSwitch) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectField("id", coreSwitch.getId());
+        generator.writeStringField("name", coreSwitch.getName());
+        generator.writeStringField("location", coreSwitch.getLocation());
+        generator.writeObjectField("headendId", coreSwitch.getHeadendId());
+        generator.writeStringField("serialNumber", coreSwitch.getSerialNumber());
+        generator.writeStringField("model", coreSwitch.getModel());
+        generator.writeArrayFieldStart("fdhs");
+        for (FdhDto fdh : topology.fdhsByCoreSwitch().getOrDefault(coreSwitch.getId(), List.of())) {
+            writeFdh(fdh);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeFdh(FdhDto fdh) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectField("id", fdh.getId());
+        generator.writeStringField("name", fdh.getName());
+        generator.writeStringField("region", fdh.getRegion());
+        generator.writeObjectField("coreSwitchId", fdh.getCoreSwitchId());
+        generator.writeStringField("serialNumber", fdh.getSerialNumber());
+        generator.writeStringField("model", fdh.getModel());
+        generator.writeArrayFieldStart("splitters");
+        writeSplitters(topology.splittersByFdh().getOrDefault(fdh.getId(), List.of()));
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private void writeSplitters(List<SplitterDto> splitters) throws IOException {
+        for (SplitterDto splitter : splitters) {
+            generator.writeObject(splitter);
+        }
+    }
+}
@@ -9,4 +9,7 @@ import lombok.Setter;
 public class AssetAssignRequest {
     @NotNull
     private Long customerId;
+
+    // Optional: the version the client last read; a mismatch fails with 409 instead of being retried
+    private Long expectedVersion;
 }
@@ -0,0 +1,15 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AssetCountDto {
+    private AssetType assetType;
+    private AssetStatus assetStatus;
+    private String location;
+    private long count;
+}
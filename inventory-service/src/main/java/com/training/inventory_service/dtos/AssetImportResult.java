@@ -0,0 +1,17 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class AssetImportResult {
+    private long totalRows;
+    private long importedCount;
+    private long failedCount;
+    private List<AssetImportRowError> errors = new ArrayList<>();
+    private boolean errorsTruncated; // True when more rows failed than are listed in errors
+}
@@ -0,0 +1,16 @@
+package com.training.inventory_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetImportRowError {
+    private long rowNumber; // 1-based line number in the uploaded file
+    private String serialNumber;
+    private String message;
+}
@@ -0,0 +1,13 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AssetPageResponse {
+    private List<AssetResponse> items;
+    private String nextCursor; // Null when there are no more rows
+}
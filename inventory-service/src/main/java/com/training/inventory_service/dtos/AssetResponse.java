@@ -18,4 +18,5 @@ public class AssetResponse {
     private String location;
     private Long assignedToCustomerId;
     private Instant createdAt;
+    private Long version;
 }
@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AssetSearchHit {
+    private Long id;
+    private String serialNumber;
+    private String model;
+    private AssetType assetType;
+    private AssetStatus assetStatus;
+    private String location;
+    private String matchedField;
+}
@@ -0,0 +1,17 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AssetsByCustomersRequest {
+    @NotEmpty(message = "customerIds cannot be empty")
+    @Size(max = 1000, message = "At most 1000 customer IDs per request")
+    private List<@NotNull Long> customerIds;
+}
@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkFdhReparentRequest {
+    private Long sourceCoreSwitchId; // Move every FDH of this core switch...
+    @Size(max = 1000)
+    private List<Long> fdhIds; // ...or exactly these FDHs
+    @NotNull
+    private Long newCoreSwitchId;
+}
@@ -0,0 +1,21 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkReclaimRequest {
+    @NotEmpty(message = "customerIds cannot be empty")
+    @Size(max = 10000, message = "At most 10000 customer IDs per request")
+    private List<@NotNull Long> customerIds;
+
+    @NotBlank(message = "status is required")
+    private String status;
+}
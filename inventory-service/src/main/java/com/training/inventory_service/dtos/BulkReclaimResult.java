@@ -0,0 +1,17 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkReclaimResult {
+    private AssetStatus newStatus;
+    private int customerCount;
+    private int reclaimedAssetCount;
+    private List<CustomerReclaimSummary> customers = new ArrayList<>();
+}
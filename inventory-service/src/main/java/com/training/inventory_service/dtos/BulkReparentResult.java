@@ -0,0 +1,16 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkReparentResult {
+    private AssetType nodeType;
+    private Long newParentId;
+    private int movedCount;
+    private List<Long> movedIds;
+}
@@ -0,0 +1,17 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkReplacementRequest {
+    @NotEmpty(message = "replacements cannot be empty")
+    @Size(max = 5000, message = "At most 5000 replacement pairs per request")
+    private List<@NotNull AssetReplacementRequest> replacements;
+}
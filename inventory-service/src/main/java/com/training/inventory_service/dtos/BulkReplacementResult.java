@@ -0,0 +1,17 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkReplacementResult {
+    private int requested;
+    private int replaced;
+    private int failed;
+    // One entry per requested pair, in request order
+    private List<ReplacementPairResult> results = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkSplitterReparentRequest {
+    private Long sourceFdhId; // Move every splitter of this FDH...
+    @Size(max = 1000)
+    private List<Long> splitterIds; // ...or exactly these splitters
+    @NotNull
+    private Long newFdhId;
+}
@@ -0,0 +1,16 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CapacityRollupDto {
+    private AssetType nodeType;
+    private Long id;
+    private int splitterCount;
+    private long totalPorts;
+    private long usedPorts;
+    private long freePorts;
+}
@@ -0,0 +1,15 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ChangeFeedResponse {
+    private List<InventoryChangeDto> changes = new ArrayList<>();
+    private Long nextSince; // Pass back as "since" to continue
+    private boolean hasMore;
+}
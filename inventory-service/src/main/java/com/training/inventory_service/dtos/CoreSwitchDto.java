@@ -1,10 +1,14 @@
 package com.training.inventory_service.dtos;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor // Field order is used by the JPQL constructor expressions in the repositories
 public class CoreSwitchDto {
     private Long id;
     private String name;
@@ -0,0 +1,26 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class CoreSwitchProvisionRequest {
+    @NotBlank
+    private String name;
+    private String location;
+    private String serialNumber; // Defaults to the name, as for single creates
+    private String model;
+    @NotNull
+    private Long headendId;
+    @Valid
+    @Size(max = 200)
+    private List<FdhProvisionRequest> fdhs = new ArrayList<>();
+}
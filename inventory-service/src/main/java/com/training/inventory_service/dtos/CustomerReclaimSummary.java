@@ -0,0 +1,15 @@
+package com.training.inventory_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerReclaimSummary {
+    private Long customerId;
+    private int reclaimedAssets;
+}
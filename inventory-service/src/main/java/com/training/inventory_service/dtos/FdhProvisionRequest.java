@@ -0,0 +1,24 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class FdhProvisionRequest {
+    @NotBlank
+    private String name;
+    private String region;
+    private String serialNumber; // Defaults to the name, as for single creates
+    private String model;
+    private Long coreSwitchId; // Ignored when nested under a core switch request
+    @Valid
+    @Size(max = 500)
+    private List<SplitterProvisionRequest> splitters = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HierarchyCacheStatsDto {
+    private int size;
+    private int maxEntries;
+    private long ttlMillis;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    private double hitRatio;
+}
@@ -0,0 +1,16 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class HistoryArchiveStatsDto {
+    private int segmentCount;
+    private long archivedEntries;
+    private long sizeBytes;
+    private Instant oldestArchivedAt;
+    private Instant newestArchivedAt;
+}
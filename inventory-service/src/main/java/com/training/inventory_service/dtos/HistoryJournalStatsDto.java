@@ -0,0 +1,24 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class HistoryJournalStatsDto {
+    private boolean enabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private long journaledEntries;
+    private long flushedEntries;
+    private long flushCount;
+    private long flushFailures;
+    private long overflowedEntries;
+    private int lastFlushBatchSize;
+    private long lastFlushMillis;
+    private long maxFlushMillis;
+    private double averageFlushMillis;
+    private Instant lastFlushAt;
+}
@@ -0,0 +1,21 @@
+package com.training.inventory_service.dtos;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.training.inventory_service.enums.ChangeEntityType;
+import com.training.inventory_service.enums.ChangeOperation;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class InventoryChangeDto {
+    private Long sequence;
+    private ChangeEntityType entityType;
+    private Long entityId;
+    private ChangeOperation operation;
+    @JsonRawValue
+    private String payload;
+    private Instant changedAt;
+}
@@ -0,0 +1,21 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class InventoryStatsDto {
+    private long totalAssets;
+    private Map<AssetType, Long> byType;
+    private Map<AssetStatus, Long> byStatus;
+    private Map<String, Long> byLocation; // Assets without a location are counted under "UNSPECIFIED"
+    private List<AssetCountDto> counts;
+    private Instant reconciledAt;
+}
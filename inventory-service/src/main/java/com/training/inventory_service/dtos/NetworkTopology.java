@@ -0,0 +1,24 @@
+package com.training.inventory_service.dtos;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The whole hierarchy read in one pass, with children grouped under their parent's id.
+ * Nodes whose parent is unset or missing are listed as unattached, together with their subtrees.
+ */
+public record NetworkTopology(List<HeadendDto> headends,
+                              Map<Long, List<CoreSwitchDto>> coreSwitchesByHeadend,
+                              Map<Long, List<FdhDto>> fdhsByCoreSwitch,
+                              Map<Long, List<SplitterDto>> splittersByFdh,
+                              List<CoreSwitchDto> unattachedCoreSwitches,
+                              List<FdhDto> unattachedFdhs,
+                              List<SplitterDto> unattachedSplitters) {
+
+    public int nodeCount() {
+        return headends.size()
+                + coreSwitchesByHeadend.values().stream().mapToInt(List::size).sum() + unattachedCoreSwitches.size()
+                + fdhsByCoreSwitch.values().stream().mapToInt(List::size).sum() + unattachedFdhs.size()
+                + splittersByFdh.values().stream().mapToInt(List::size).sum() + unattachedSplitters.size();
+    }
+}
@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PortOccupancySeedRequest {
+    @NotEmpty(message = "ports cannot be empty")
+    @Size(max = 1000, message = "At most 1000 ports per request")
+    private List<@NotNull @Valid SplitterPortOccupancy> ports;
+}
@@ -0,0 +1,16 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class PortOccupancySeedResult {
+    private int requested;
+    private int seeded; // Newly marked in the bitmap
+    private int alreadyTracked;
+    private List<SplitterPortOccupancy> rejected = new ArrayList<>(); // Unknown splitter, port out of range, or splitter full
+}
@@ -0,0 +1,15 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ProvisionResult {
+    private CoreSwitchDto coreSwitch; // Null when only an FDH subtree was provisioned
+    private List<FdhDto> fdhs = new ArrayList<>();
+    private List<SplitterDto> splitters = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplacementPairResult {
+    private String faultySerialNumber;
+    private String newSerialNumber;
+    private boolean replaced;
+    private Long customerId;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ReconciliationRecordType;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One discrepancy between a field scan and inventory. The recorded fields describe
+ * what inventory holds and are empty for an UNEXPECTED serial.
+ */
+@Getter
+@Setter
+public class SerialReconciliationRecord {
+    private ReconciliationRecordType type;
+    private String serialNumber;
+    private Long assetId;
+    private AssetType assetType;
+    private AssetStatus assetStatus;
+    private String recordedLocation;
+    private Long recordedFdhId; // Splitters only
+}
@@ -0,0 +1,19 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.ReconciliationRecordType;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SerialReconciliationSummary {
+    private ReconciliationRecordType type = ReconciliationRecordType.SUMMARY;
+    private String location;
+    private Long fdhId;
+    private long scannedSerials;
+    private long matched;
+    private long missing;
+    private long unexpected;
+    private long misplaced;
+    private long elapsedMs;
+}
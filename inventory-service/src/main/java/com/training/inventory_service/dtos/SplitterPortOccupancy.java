@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SplitterPortOccupancy {
+    @NotNull
+    private Long splitterId;
+    @NotNull
+    private Integer port;
+}
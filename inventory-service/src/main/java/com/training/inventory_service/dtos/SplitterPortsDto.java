@@ -0,0 +1,18 @@
+package com.training.inventory_service.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SplitterPortsDto {
+    private Long id;
+    private int portCapacity;
+    private int usedPorts;
+    private Integer reservedPort; // Only set on reserve responses
+    private Integer firstFreePort; // Null when no port is free
+    private List<Integer> occupiedPorts;
+    private List<Integer> freePorts;
+}
@@ -0,0 +1,19 @@
+package com.training.inventory_service.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SplitterProvisionRequest {
+    private String serialNumber; // Derived from the FDH serial when omitted
+    private String model;
+    @NotNull
+    @Min(1)
+    @Max(64)
+    private Integer portCapacity;
+    private String neighborhood;
+}
@@ -0,0 +1,19 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class StockLevelDto {
+    private String location;
+    private String model;
+    private AssetType assetType;
+    private long available;
+    private Integer minAvailable; // Null when no threshold is configured for the SKU
+    private boolean lowStock;
+    private Instant lowSince;
+}
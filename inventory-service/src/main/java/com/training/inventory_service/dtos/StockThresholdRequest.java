@@ -0,0 +1,25 @@
+package com.training.inventory_service.dtos;
+
+import com.training.inventory_service.enums.AssetType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockThresholdRequest {
+    @NotBlank
+    private String location;
+
+    @NotBlank
+    private String model;
+
+    @NotNull
+    private AssetType assetType;
+
+    @NotNull
+    @Min(0)
+    private Integer minAvailable;
+}
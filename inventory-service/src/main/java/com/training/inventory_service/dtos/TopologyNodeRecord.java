@@ -0,0 +1,27 @@
+package com.training.inventory_service.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.training.inventory_service.enums.AssetType;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One node of a streamed headend topology. Records arrive depth-first, so every
+ * node's parent has already been sent by the time the node itself is.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopologyNodeRecord {
+    private AssetType nodeType;
+    private Long id;
+    private Long parentId;
+    private String name;
+    private String location;
+    private String region;
+    private String neighborhood;
+    private String serialNumber;
+    private String model;
+    private Integer portCapacity;
+    private Integer usedPorts;
+}
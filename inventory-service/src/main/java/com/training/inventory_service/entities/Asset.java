@@ -9,7 +9,11 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "assets")
+@Table(name = "assets", indexes = {
+        @Index(name = "idx_assets_type_status_location", columnList = "asset_type, asset_status, location"),
+        @Index(name = "idx_assets_status_location_model", columnList = "asset_status, location, model"),
+        @Index(name = "idx_assets_location", columnList = "location")
+})
 @Getter
 @Setter
 public class Asset {
@@ -37,4 +41,9 @@ public class Asset {
 
     @Column(nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
+
+    // Optimistic concurrency; the bulk SQL paths in AssetBatchRepository bump it as well
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
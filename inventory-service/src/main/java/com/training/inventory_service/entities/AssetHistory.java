@@ -7,7 +7,13 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "asset_history")
+// (asset_id, timestamp) serves per-asset history pages; (change_type, timestamp) serves cross-asset queries;
+// (timestamp) lets the retention job find the oldest rows without a scan
+@Table(name = "asset_history", indexes = {
+        @Index(name = "idx_asset_history_asset_timestamp", columnList = "asset_id, timestamp"),
+        @Index(name = "idx_asset_history_type_timestamp", columnList = "change_type, timestamp"),
+        @Index(name = "idx_asset_history_timestamp", columnList = "timestamp")
+})
 @Getter
 @Setter
 public class AssetHistory {
@@ -29,4 +35,8 @@ public class AssetHistory {
     private Instant timestamp = Instant.now();
 
     private Long changedByUserId;
+
+    // Set for rows written through the history journal; makes crash replay idempotent
+    @Column(name = "journal_key", unique = true, length = 36)
+    private String journalKey;
 }
@@ -0,0 +1,41 @@
+package com.training.inventory_service.entities;
+
+import com.training.inventory_service.enums.ChangeEntityType;
+import com.training.inventory_service.enums.ChangeOperation;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One row of the append-only change feed. The generated id is the sequence number consumers resume from.
+ */
+@Entity
+@Table(name = "inventory_changes", indexes = @Index(name = "idx_inventory_changes_changed_at", columnList = "changedAt"))
+@Getter
+@Setter
+public class InventoryChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeEntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ChangeOperation operation;
+
+    // JSON state after the change; null for deletes
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
@@ -24,6 +24,15 @@ public class Splitter {
 
     private int usedPorts;
 
+    // Occupancy bitmap: bit N-1 is set when port N is taken (see SplitterPortMap)
+    @Column(name = "port_map", nullable = false)
+    private long portMap;
+
     @Column(name = "neighborhood") // Explicitly defining the column
     private String neighborhood;
+
+    // Optimistic concurrency; the conditional port UPDATEs in SplitterRepository bump it as well
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,39 @@
+package com.training.inventory_service.entities;
+
+import com.training.inventory_service.enums.AssetType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Minimum number of AVAILABLE units of one SKU (model and type) that a location should hold.
+ */
+@Entity
+@Table(name = "stock_thresholds", uniqueConstraints = @UniqueConstraint(
+        name = "uk_stock_thresholds_sku", columnNames = {"location", "model", "asset_type"}))
+@Getter
+@Setter
+public class StockThreshold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String location;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AssetType assetType;
+
+    @Column(nullable = false)
+    private int minAvailable;
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,9 @@
+package com.training.inventory_service.enums;
+
+public enum ChangeEntityType {
+    ASSET,
+    HEADEND,
+    CORE_SWITCH,
+    FDH,
+    SPLITTER
+}
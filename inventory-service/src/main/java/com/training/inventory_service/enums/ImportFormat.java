@@ -0,0 +1,6 @@
+package com.training.inventory_service.enums;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
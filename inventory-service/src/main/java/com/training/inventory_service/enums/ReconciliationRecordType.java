@@ -0,0 +1,8 @@
+package com.training.inventory_service.enums;
+
+public enum ReconciliationRecordType {
+    MISSING,    // Inventory places the asset in scope but it was not scanned
+    UNEXPECTED, // Scanned serial that inventory does not know
+    MISPLACED,  // Scanned serial that inventory places outside the scope
+    SUMMARY
+}
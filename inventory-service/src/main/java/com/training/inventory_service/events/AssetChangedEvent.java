@@ -0,0 +1,20 @@
+package com.training.inventory_service.events;
+
+/**
+ * Published for every asset create, update and delete. {@code before} is null for a
+ * newly created asset and {@code after} is null for a deleted one.
+ */
+public record AssetChangedEvent(AssetSnapshot before, AssetSnapshot after) {
+
+    public static AssetChangedEvent created(AssetSnapshot after) {
+        return new AssetChangedEvent(null, after);
+    }
+
+    public static AssetChangedEvent deleted(AssetSnapshot before) {
+        return new AssetChangedEvent(before, null);
+    }
+
+    public Long assetId() {
+        return after != null ? after.id() : before.id();
+    }
+}
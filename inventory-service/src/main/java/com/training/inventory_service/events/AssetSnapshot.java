@@ -0,0 +1,21 @@
+package com.training.inventory_service.events;
+
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+
+/**
+ * Immutable copy of the searchable and countable fields of an asset at one point in time.
+ */
+public record AssetSnapshot(Long id, String serialNumber, AssetType assetType, String model,
+                            AssetStatus assetStatus, String location, Long assignedToCustomerId) {
+
+    public static AssetSnapshot of(Asset asset) {
+        return new AssetSnapshot(asset.getId(), asset.getSerialNumber(), asset.getAssetType(), asset.getModel(),
+                asset.getAssetStatus(), asset.getLocation(), asset.getAssignedToCustomerId());
+    }
+
+    public AssetSnapshot withAssignment(AssetStatus newStatus, Long newCustomerId) {
+        return new AssetSnapshot(id, serialNumber, assetType, model, newStatus, location, newCustomerId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.training.inventory_service.events;
+
+import com.training.inventory_service.enums.AssetType;
+
+/**
+ * Published when a headend, core switch or FDH is created or reparented.
+ * {@code parentId} is null for headends and for nodes that are not attached yet.
+ */
+public record HierarchyNodeChangedEvent(AssetType nodeType, Long id, Long parentId) {
+}
@@ -0,0 +1,9 @@
+package com.training.inventory_service.events;
+
+import com.training.inventory_service.enums.AssetType;
+
+/**
+ * Published when an infrastructure node (headend, core switch, FDH or splitter) is deleted.
+ */
+public record HierarchyNodeDeletedEvent(AssetType nodeType, Long id) {
+}
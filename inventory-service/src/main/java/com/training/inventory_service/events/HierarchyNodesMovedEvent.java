@@ -0,0 +1,13 @@
+package com.training.inventory_service.events;
+
+import com.training.inventory_service.enums.AssetType;
+
+import java.util.List;
+
+/**
+ * Published once per bulk reparent: every node in {@code ids} (all of {@code nodeType}) now sits
+ * under {@code newParentId}. Only the parent link changed, so consumers that need capacities
+ * already hold them from earlier events.
+ */
+public record HierarchyNodesMovedEvent(AssetType nodeType, Long newParentId, List<Long> ids) {
+}
@@ -0,0 +1,10 @@
+package com.training.inventory_service.events;
+
+/**
+ * Published whenever a splitter is created or its parent, capacity or port usage changes.
+ * {@code usedPorts} is the value seen by the publisher; listeners that already track the
+ * splitter should apply {@code usedPortsDelta} instead so concurrent reservations add up
+ * in any order.
+ */
+public record SplitterCapacityChangedEvent(Long splitterId, Long fdhId, int portCapacity, int usedPorts, int usedPortsDelta) {
+}
@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class AssetVersionConflictException extends RuntimeException {
+    public AssetVersionConflictException(String message) {
+        super(message);
+    }
+}
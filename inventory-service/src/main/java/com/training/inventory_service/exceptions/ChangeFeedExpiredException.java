@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class InvalidImportFileException extends RuntimeException {
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class InvalidReconciliationScopeException extends RuntimeException {
+    public InvalidReconciliationScopeException(String message) {
+        super(message);
+    }
+}
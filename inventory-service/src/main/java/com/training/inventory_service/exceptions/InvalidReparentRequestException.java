@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class InvalidReparentRequestException extends RuntimeException {
+    public InvalidReparentRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class InvalidSplitterPortException extends RuntimeException {
+    public InvalidSplitterPortException(String message) {
+        super(message);
+    }
+}
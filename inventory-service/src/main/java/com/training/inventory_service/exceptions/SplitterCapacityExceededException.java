@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class SplitterCapacityExceededException extends RuntimeException {
+    public SplitterCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.training.inventory_service.exceptions;
+
+public class SplitterPortInUseException extends RuntimeException {
+    public SplitterPortInUseException(String message) {
+        super(message);
+    }
+}
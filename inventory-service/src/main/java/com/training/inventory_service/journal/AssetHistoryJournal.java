@@ -0,0 +1,430 @@
+package com.training.inventory_service.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.dtos.HistoryJournalStatsDto;
+import com.training.inventory_service.entities.AssetHistory;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind journal for asset history. Instead of inserting a history row inside
+ * every business transaction, entries are appended to a local log just before the
+ * transaction commits (one fsync per commit, shared between concurrent commits), so an
+ * entry is durable before the change it describes, and queued in memory once the commit
+ * succeeds.
+ * A background flusher writes the queue to {@code asset_history} in JDBC batches when the
+ * batch size is reached or the flush interval elapses. Entries still in the log after a
+ * crash are replayed on the next startup; inserts are keyed on {@code journal_key} so a
+ * replay never duplicates rows. A rolled-back transaction appends an abort record for its
+ * entries, so a replay skips them. Only a crash after the log write but before the
+ * transaction's outcome is recorded can replay entries for a transaction that never
+ * committed; an extra history row is preferred over a missing one.
+ * <p>
+ * When the queue is full, committing callers neither block nor flush inline. An entry that
+ * does not fit stays in the log and is read back from its segment by a later flush.
+ */
+@Component
+public class AssetHistoryJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetHistoryJournal.class);
+
+    private static final String LOG_OPEN_FAILED_MSG = "Failed to open asset history journal in %s";
+
+    private final AssetBatchRepository assetBatchRepository;
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final TransactionTemplate flushTransactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final int queueCapacity;
+    private final BlockingQueue<PendingEntry> queue;
+    private final JournalLog journalLog;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    // Entries drained from the queue but not yet written; retried first on the next flush. Guarded by "this".
+    private final List<PendingEntry> inFlight = new ArrayList<>();
+    // Entries the full queue had no room for: only their keys are held, the entries are re-read from the log
+    private final Queue<OverflowedEntry> overflowed = new ConcurrentLinkedQueue<>();
+
+    // --- Metrics ---
+    private final AtomicLong journaledEntries = new AtomicLong();
+    private final AtomicLong flushedEntries = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong overflowedEntries = new AtomicLong();
+    private final AtomicLong totalFlushMillis = new AtomicLong();
+    private volatile int lastFlushBatchSize;
+    private volatile long lastFlushMillis;
+    private volatile long maxFlushMillis;
+    private volatile Instant lastFlushAt;
+
+    @Autowired
+    public AssetHistoryJournal(AssetBatchRepository assetBatchRepository,
+                               AssetHistoryRepository assetHistoryRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${inventory.history-journal.enabled:true}") boolean enabled,
+                               @Value("${inventory.history-journal.directory:data/history-journal}") String directory,
+                               @Value("${inventory.history-journal.batch-size:500}") int batchSize,
+                               @Value("${inventory.history-journal.flush-interval-ms:1000}") long flushIntervalMillis,
+                               @Value("${inventory.history-journal.queue-capacity:10000}") int queueCapacity,
+                               @Value("${inventory.history-journal.segment-max-records:10000}") int segmentMaxRecords,
+                               @Value("${inventory.history-journal.fsync:true}") boolean fsync) {
+        this.assetBatchRepository = assetBatchRepository;
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.flushTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (enabled) {
+            try {
+                this.journalLog = new JournalLog(Path.of(directory), objectMapper, segmentMaxRecords, fsync);
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format(LOG_OPEN_FAILED_MSG, directory), e);
+            }
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "asset-history-journal");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.journalLog = null;
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Records a history entry for the current transaction. The entry is journaled before
+     * the transaction commits and queued for the database only if it does; without a
+     * transaction it is journaled immediately.
+     */
+    public void record(Long assetId, String changeType, String description, Long changedByUserId) {
+        JournalEntry entry = new JournalEntry(UUID.randomUUID().toString(), assetId, changeType, description,
+                Instant.now(), changedByUserId);
+        if (!enabled) {
+            assetHistoryRepository.save(toAssetHistory(entry));
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            JournalLog.Segment segment = writeAhead(List.of(entry));
+            if (segment != null) {
+                enqueueAll(List.of(entry), segment);
+            }
+            return;
+        }
+
+        // Collect all entries of one transaction so they share a single log write and fsync
+        @SuppressWarnings("unchecked")
+        List<JournalEntry> entries = (List<JournalEntry>) TransactionSynchronizationManager.getResource(this);
+        if (entries == null) {
+            List<JournalEntry> transactionEntries = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionEntries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private JournalLog.Segment segment;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    segment = writeAhead(transactionEntries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AssetHistoryJournal.this);
+                    if (segment == null) {
+                        return;
+                    }
+                    if (status == STATUS_COMMITTED) {
+                        enqueueAll(transactionEntries, segment);
+                    } else if (status == STATUS_ROLLED_BACK) {
+                        abort(transactionEntries, segment);
+                    } else {
+                        // Outcome unknown: leave the entries in the log, the next startup replays them
+                        logger.warn("Commit outcome unknown; {} asset history entries stay in the journal log for replay",
+                                transactionEntries.size());
+                    }
+                }
+            });
+            entries = transactionEntries;
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * Writes everything queued so far to the database, then any overflowed entries. Used by
+     * the background flusher and by callers that need read-your-writes (history reads, asset
+     * deletion).
+     */
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        while (true) {
+            if (inFlight.isEmpty()) {
+                queue.drainTo(inFlight, batchSize);
+            }
+            if (inFlight.isEmpty()) {
+                break;
+            }
+            long start = System.nanoTime();
+            List<JournalEntry> entries = inFlight.stream().map(PendingEntry::entry).toList();
+            flushTransactionTemplate.executeWithoutResult(status -> assetBatchRepository.insertJournalEntries(entries));
+            recordFlush(entries.size(), (System.nanoTime() - start) / 1_000_000);
+            releaseSegments(inFlight);
+            inFlight.clear();
+        }
+        flushOverflowed();
+    }
+
+    public HistoryJournalStatsDto getStats() {
+        HistoryJournalStatsDto stats = new HistoryJournalStatsDto();
+        stats.setEnabled(enabled);
+        stats.setQueueDepth(queue.size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setJournaledEntries(journaledEntries.get());
+        stats.setFlushedEntries(flushedEntries.get());
+        stats.setFlushCount(flushCount.get());
+        stats.setFlushFailures(flushFailures.get());
+        stats.setOverflowedEntries(overflowedEntries.get());
+        stats.setLastFlushBatchSize(lastFlushBatchSize);
+        stats.setLastFlushMillis(lastFlushMillis);
+        stats.setMaxFlushMillis(maxFlushMillis);
+        long flushes = flushCount.get();
+        stats.setAverageFlushMillis(flushes == 0 ? 0 : (double) totalFlushMillis.get() / flushes);
+        stats.setLastFlushAt(lastFlushAt);
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        recover();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(flushIntervalMillis * 2, TimeUnit.MILLISECONDS)) {
+                logger.warn("Asset history journal flusher did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        // Anything not flushed stays in the log and is replayed on the next start
+        journalLog.close();
+    }
+
+    /**
+     * Makes the entries durable in the local log. If the log cannot be written they are
+     * inserted directly instead; inside a transaction that insert joins it, so history and
+     * change still commit together. Returns null when the entries took the direct path.
+     */
+    private JournalLog.Segment writeAhead(List<JournalEntry> entries) {
+        try {
+            JournalLog.Segment segment = journalLog.append(entries);
+            journaledEntries.addAndGet(entries.size());
+            return segment;
+        } catch (IOException e) {
+            logger.error("Asset history journal append failed, writing {} entries directly", entries.size(), e);
+            assetBatchRepository.insertJournalEntries(entries);
+            return null;
+        }
+    }
+
+    private void enqueueAll(List<JournalEntry> entries, JournalLog.Segment segment) {
+        int overflow = 0;
+        for (JournalEntry entry : entries) {
+            if (!queue.offer(new PendingEntry(entry, segment))) {
+                // The caller may still hold its connection, so it must not flush inline; the
+                // entry stays in the log and the flusher reads it back once the queue drains
+                overflowed.add(new OverflowedEntry(entry.journalKey(), segment));
+                overflow++;
+            }
+        }
+        if (overflow > 0) {
+            overflowedEntries.addAndGet(overflow);
+            logger.warn("Asset history queue full; {} entries left in the journal log for the flusher", overflow);
+        }
+        if (overflow > 0 || queue.size() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (!flusher.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushRequested.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void abort(List<JournalEntry> entries, JournalLog.Segment segment) {
+        try {
+            journalLog.abort(segment, entries);
+        } catch (IOException e) {
+            logger.error("Could not mark {} rolled-back asset history entries as aborted; a replay may still insert them",
+                    entries.size(), e);
+        }
+    }
+
+    /**
+     * Reads overflowed entries back from their segments and writes them. Keys that could not
+     * be written are put back and retried on the next flush. Caller holds "this".
+     */
+    private void flushOverflowed() {
+        Map<JournalLog.Segment, Set<String>> keysBySegment = new LinkedHashMap<>();
+        OverflowedEntry next;
+        while ((next = overflowed.poll()) != null) {
+            keysBySegment.computeIfAbsent(next.segment(), segment -> new HashSet<>()).add(next.journalKey());
+        }
+        Iterator<Map.Entry<JournalLog.Segment, Set<String>>> segments = keysBySegment.entrySet().iterator();
+        while (segments.hasNext()) {
+            Map.Entry<JournalLog.Segment, Set<String>> pending = segments.next();
+            JournalLog.Segment segment = pending.getKey();
+            Set<String> keys = pending.getValue();
+            try {
+                List<JournalEntry> entries = journalLog.read(segment).stream()
+                        .filter(entry -> keys.contains(entry.journalKey()))
+                        .toList();
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    long start = System.nanoTime();
+                    List<JournalEntry> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+                    flushTransactionTemplate.executeWithoutResult(status -> assetBatchRepository.insertJournalEntries(batch));
+                    recordFlush(batch.size(), (System.nanoTime() - start) / 1_000_000);
+                }
+                if (entries.size() < keys.size()) {
+                    logger.error("{} overflowed asset history entries were not found in their journal segment",
+                            keys.size() - entries.size());
+                }
+                journalLog.release(segment, keys.size());
+            } catch (IOException | RuntimeException e) {
+                // Put this segment's keys and every one not yet tried back for the next flush
+                keys.forEach(key -> overflowed.add(new OverflowedEntry(key, segment)));
+                segments.forEachRemaining(rest -> rest.getValue()
+                        .forEach(key -> overflowed.add(new OverflowedEntry(key, rest.getKey()))));
+                if (e instanceof IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+                throw (RuntimeException) e;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            flushFailures.incrementAndGet();
+            logger.warn("Asset history journal flush failed, will retry: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            logger.error("Asset history journal flush failed, will retry", e);
+        }
+    }
+
+    private void recover() {
+        for (Path segment : journalLog.recoverableSegments()) {
+            try {
+                List<JournalEntry> entries = journalLog.readSegment(segment);
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    List<JournalEntry> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+                    flushTransactionTemplate.executeWithoutResult(status -> assetBatchRepository.insertJournalEntries(batch));
+                }
+                journalLog.deleteSegment(segment);
+                logger.info("Replayed {} asset history entries from {}", entries.size(), segment.getFileName());
+            } catch (IOException | DataAccessException e) {
+                // Keep the segment; it is retried on the next startup
+                logger.error("Failed to replay asset history journal segment {}", segment.getFileName(), e);
+            }
+        }
+    }
+
+    private void recordFlush(int size, long millis) {
+        flushedEntries.addAndGet(size);
+        flushCount.incrementAndGet();
+        totalFlushMillis.addAndGet(millis);
+        lastFlushBatchSize = size;
+        lastFlushMillis = millis;
+        maxFlushMillis = Math.max(maxFlushMillis, millis);
+        lastFlushAt = Instant.now();
+    }
+
+    private void releaseSegments(List<PendingEntry> flushed) {
+        Map<JournalLog.Segment, Integer> counts = new IdentityHashMap<>();
+        for (PendingEntry pending : flushed) {
+            counts.merge(pending.segment(), 1, Integer::sum);
+        }
+        counts.forEach(journalLog::release);
+    }
+
+    private static AssetHistory toAssetHistory(JournalEntry entry) {
+        AssetHistory history = new AssetHistory();
+        history.setAssetId(entry.assetId());
+        history.setChangeType(entry.changeType());
+        history.setDescription(entry.description());
+        history.setTimestamp(entry.timestamp());
+        history.setChangedByUserId(entry.changedByUserId());
+        history.setJournalKey(entry.journalKey());
+        return history;
+    }
+
+    private record PendingEntry(JournalEntry entry, JournalLog.Segment segment) {
+    }
+
+    private record OverflowedEntry(String journalKey, JournalLog.Segment segment) {
+    }
+}
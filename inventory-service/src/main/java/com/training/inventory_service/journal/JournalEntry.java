@@ -0,0 +1,11 @@
+package com.training.inventory_service.journal;
+
+import java.time.Instant;
+
+/**
+ * One asset history row as written to the journal log and later to {@code asset_history}.
+ * {@code journalKey} is unique per entry so replaying the log after a crash is idempotent.
+ */
+public record JournalEntry(String journalKey, Long assetId, String changeType, String description,
+                           Instant timestamp, Long changedByUserId) {
+}
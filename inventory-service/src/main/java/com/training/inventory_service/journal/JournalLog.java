@@ -0,0 +1,296 @@
+package com.training.inventory_service.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only log backing the history journal. Entries are written as NDJSON
+ * into numbered segment files; a segment is deleted once it is sealed and every entry
+ * in it has reached the database. Segments left behind by a crash are replayed on startup.
+ * Concurrent appenders share one fsync (group commit).
+ * <p>
+ * Entries of a rolled-back transaction are cancelled by an abort record appended to the
+ * segment that holds them, so a replay of that segment skips them.
+ */
+class JournalLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalLog.class);
+
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ABORTED_KEYS_FIELD = "abortedKeys";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final int maxSegmentRecords;
+    private final boolean fsync;
+    private final List<Path> recoverableSegments;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    // Guarded by writeLock
+    private Segment current;
+    private long nextSegmentId;
+    private long writtenBatches;
+
+    private volatile long syncedBatches;
+
+    JournalLog(Path directory, ObjectMapper objectMapper, int maxSegmentRecords, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.maxSegmentRecords = maxSegmentRecords;
+        this.fsync = fsync;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            this.recoverableSegments = files.filter(JournalLog::isSegment)
+                    .sorted(Comparator.comparingLong(JournalLog::segmentId))
+                    .toList();
+        }
+        this.nextSegmentId = recoverableSegments.isEmpty() ? 1 : segmentId(recoverableSegments.get(recoverableSegments.size() - 1)) + 1;
+        synchronized (writeLock) {
+            this.current = openSegment();
+        }
+    }
+
+    /** Segments that existed before this process started and still need to be replayed. */
+    List<Path> recoverableSegments() {
+        return recoverableSegments;
+    }
+
+    /**
+     * Appends the entries as one write and returns once they are durable.
+     * The caller must {@link #release} the returned segment once the entries are in the database.
+     */
+    Segment append(List<JournalEntry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(serialize(entries));
+        Segment segment;
+        long ticket;
+        synchronized (writeLock) {
+            if (current.records >= maxSegmentRecords) {
+                roll();
+            }
+            segment = current;
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer);
+            }
+            segment.records += entries.size();
+            segment.pending.addAndGet(entries.size());
+            ticket = ++writtenBatches;
+        }
+        if (fsync) {
+            sync(ticket);
+        }
+        return segment;
+    }
+
+    /**
+     * Appends an abort record for entries whose transaction rolled back, then releases them.
+     * The record goes into the entries' own segment, which cannot have been deleted yet since
+     * they are still pending in it; a sealed segment is reopened for the write.
+     */
+    void abort(Segment segment, List<JournalEntry> entries) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(serializeAbort(entries));
+            long ticket = 0;
+            synchronized (writeLock) {
+                if (segment.sealed) {
+                    try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        if (fsync) {
+                            channel.force(false);
+                        }
+                    }
+                } else {
+                    while (buffer.hasRemaining()) {
+                        segment.channel.write(buffer);
+                    }
+                    ticket = ++writtenBatches;
+                }
+            }
+            if (fsync && ticket > 0) {
+                sync(ticket);
+            }
+        } finally {
+            release(segment, entries.size());
+        }
+    }
+
+    /** Re-reads the entries still in a live segment, e.g. ones that did not fit the flush queue. */
+    List<JournalEntry> read(Segment segment) throws IOException {
+        synchronized (writeLock) {
+            return readSegment(segment.path);
+        }
+    }
+
+    void release(Segment segment, int count) {
+        if (segment.pending.addAndGet(-count) == 0) {
+            synchronized (writeLock) {
+                deleteIfDrained(segment);
+            }
+        }
+    }
+
+    /** Entries in the segment, minus those cancelled by an abort record. */
+    List<JournalEntry> readSegment(Path path) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        Set<String> aborted = new HashSet<>();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode record = objectMapper.readTree(line);
+                if (record.has(ABORTED_KEYS_FIELD)) {
+                    record.get(ABORTED_KEYS_FIELD).forEach(key -> aborted.add(key.asText()));
+                } else {
+                    entries.add(objectMapper.treeToValue(record, JournalEntry.class));
+                }
+            } catch (JsonProcessingException e) {
+                // Only a torn final write can be incomplete; anything else is reported and skipped
+                logger.warn("Skipping unreadable journal record {} in {}: {}", i + 1, path.getFileName(), e.getOriginalMessage());
+            }
+        }
+        if (!aborted.isEmpty()) {
+            entries.removeIf(entry -> aborted.contains(entry.journalKey()));
+        }
+        return entries;
+    }
+
+    void deleteSegment(Path path) throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            current.sealed = true;
+            current.channel.force(false);
+            current.channel.close();
+            deleteIfDrained(current);
+        }
+    }
+
+    /** Group commit: one fsync covers every batch written before it started. */
+    private void sync(long ticket) throws IOException {
+        synchronized (syncLock) {
+            if (syncedBatches >= ticket) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            synchronized (writeLock) {
+                target = writtenBatches;
+                channel = current.channel;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // The segment was rolled meanwhile; roll() forces a segment before closing it
+            }
+            syncedBatches = target;
+        }
+    }
+
+    // Caller holds writeLock
+    private void roll() throws IOException {
+        Segment sealed = current;
+        sealed.sealed = true;
+        sealed.channel.force(false);
+        sealed.channel.close();
+        current = openSegment();
+        deleteIfDrained(sealed);
+    }
+
+    // Caller holds writeLock
+    private Segment openSegment() throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new Segment(path, channel);
+    }
+
+    // Caller holds writeLock
+    private void deleteIfDrained(Segment segment) {
+        if (segment.sealed && !segment.deleted && segment.pending.get() == 0) {
+            try {
+                Files.deleteIfExists(segment.path);
+                segment.deleted = true;
+            } catch (IOException e) {
+                logger.warn("Could not delete drained journal segment {}: {}", segment.path.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private byte[] serialize(List<JournalEntry> entries) throws JsonProcessingException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entries.size() * 160);
+        for (JournalEntry entry : entries) {
+            out.writeBytes(objectMapper.writeValueAsBytes(entry));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] serializeAbort(List<JournalEntry> entries) throws JsonProcessingException {
+        List<String> keys = entries.stream().map(JournalEntry::journalKey).toList();
+        byte[] record = objectMapper.writeValueAsBytes(Map.of(ABORTED_KEYS_FIELD, keys));
+        ByteArrayOutputStream out = new ByteArrayOutputStream(record.length + 1);
+        out.writeBytes(record);
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger pending = new AtomicInteger();
+        private int records;
+        private boolean sealed;
+        private boolean deleted;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
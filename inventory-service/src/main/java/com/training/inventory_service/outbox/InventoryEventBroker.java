@@ -0,0 +1,13 @@
+package com.training.inventory_service.outbox;
+
+import com.training.inventory_service.dtos.InventoryChangeDto;
+
+import java.util.List;
+
+/**
+ * Destination for committed inventory changes relayed from the outbox. Batches arrive
+ * in sequence order and never overlap; an implementation must not block for long.
+ */
+public interface InventoryEventBroker {
+    void publish(List<InventoryChangeDto> batch);
+}
@@ -0,0 +1,129 @@
+package com.training.inventory_service.outbox;
+
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+import com.training.inventory_service.exceptions.ChangeFeedExpiredException;
+import com.training.inventory_service.services.ChangeFeedServiceInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays committed changes from the outbox to every registered {@link InventoryEventBroker}.
+ * <p>
+ * The outbox is the {@code inventory_changes} table: rows are written in the same transaction
+ * as the mutation, so nothing is relayed for a rolled-back change and nothing committed is lost.
+ * Every instance tails the table from its own position, so subscribers connected to any
+ * instance see every change. Delivery is at least once; consumers dedupe by sequence.
+ * <p>
+ * The relay runs on its own thread rather than the shared {@code @Scheduled} pool, so long
+ * jobs such as the archive or a search rebuild never delay delivery, and the reverse.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final ChangeFeedServiceInterface changeFeedService;
+    private final List<InventoryEventBroker> brokers;
+    private final int batchSize;
+    private final boolean enabled;
+    private final long intervalMillis;
+    private final ScheduledExecutorService relayExecutor;
+
+    // Only touched by relay(), which the scheduler never runs concurrently
+    private long position = -1;
+
+    @Autowired
+    public OutboxRelay(ChangeFeedServiceInterface changeFeedService,
+                       List<InventoryEventBroker> brokers,
+                       @Value("${inventory.outbox.batch-size:500}") int batchSize,
+                       @Value("${inventory.outbox.enabled:true}") boolean enabled,
+                       @Value("${inventory.outbox.relay-interval-ms:500}") long intervalMillis) {
+        this.changeFeedService = changeFeedService;
+        this.brokers = brokers;
+        this.batchSize = batchSize;
+        this.enabled = enabled;
+        this.intervalMillis = intervalMillis;
+        this.relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        start();
+        relayExecutor.scheduleWithFixedDelay(this::relayQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayExecutor.shutdownNow();
+    }
+
+    public synchronized void start() {
+        // Subscribers that need older changes replay them from the change feed themselves
+        position = changeFeedService.getLastSequence();
+        logger.info("Outbox relay starting after sequence {} for {} broker(s)", position, brokers.size());
+    }
+
+    public synchronized void relay() {
+        if (!enabled || position < 0) {
+            return;
+        }
+        try {
+            ChangeFeedResponse page;
+            do {
+                page = changeFeedService.getChanges(position, batchSize);
+                if (page.getChanges().isEmpty()) {
+                    return;
+                }
+                for (InventoryEventBroker broker : brokers) {
+                    publish(broker, page);
+                }
+                position = page.getNextSince();
+            } while (page.isHasMore());
+        } catch (ChangeFeedExpiredException e) {
+            long head = changeFeedService.getLastSequence();
+            logger.warn("Outbox relay fell behind retention at sequence {}; skipping to {}", position, head);
+            position = head;
+        }
+    }
+
+    private void relayQuietly() {
+        try {
+            relay();
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; log it and try again next tick
+            logger.error("Outbox relay failed; retrying on the next tick", e);
+        }
+    }
+
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    private static void publish(InventoryEventBroker broker, ChangeFeedResponse page) {
+        try {
+            broker.publish(page.getChanges());
+        } catch (RuntimeException e) {
+            // One failing broker must not hold back the others; its subscribers resume by sequence
+            logger.warn("Broker {} failed to publish {} change(s): {}", broker.getClass().getSimpleName(),
+                    page.getChanges().size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.training.inventory_service.outbox;
+
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+import com.training.inventory_service.dtos.InventoryChangeDto;
+import com.training.inventory_service.exceptions.ChangeFeedExpiredException;
+import com.training.inventory_service.services.ChangeFeedServiceInterface;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes relayed changes to Server-Sent Events subscribers. Each event carries one batch
+ * and uses the batch's last sequence as its id, so a reconnecting client that sends
+ * {@code Last-Event-ID} is first replayed what it missed.
+ * <p>
+ * Publishing never touches a socket: every subscriber has a bounded queue of batches and
+ * its own sender task, so a slow or half-open client only delays itself. A subscriber
+ * whose queue overflows is sent a {@code resync} event and disconnected.
+ */
+@Component
+public class SseInventoryEventBroker implements InventoryEventBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseInventoryEventBroker.class);
+
+    static final String CHANGES_EVENT = "inventory-changes";
+    static final String RESYNC_EVENT = "resync";
+
+    private final ChangeFeedServiceInterface changeFeedService;
+    private final long timeoutMillis;
+    private final int replayLimit;
+    private final int queueCapacity;
+
+    // Unbounded on purpose: a sender blocked in a socket write holds only its own thread
+    private final ExecutorService senders;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public SseInventoryEventBroker(ChangeFeedServiceInterface changeFeedService,
+                                   @Value("${inventory.outbox.sse-timeout-ms:1800000}") long timeoutMillis,
+                                   @Value("${inventory.outbox.replay-limit:5000}") int replayLimit,
+                                   @Value("${inventory.outbox.subscriber-queue-capacity:100}") int queueCapacity) {
+        this.changeFeedService = changeFeedService;
+        this.timeoutMillis = timeoutMillis;
+        this.replayLimit = replayLimit;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registers the subscriber before replaying, so batches relayed while the replay runs
+     * are queued rather than missed; the overlap is dropped by sequence when sending.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, lastEventId);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            subscriber.schedule();
+        }
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<InventoryChangeDto> batch) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(batch);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final BlockingQueue<List<InventoryChangeDto>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        // At most one sender task per subscriber, so its events go out in order
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        // Only touched by the sender task
+        private Long replayFrom;
+        private long lastSentSequence;
+
+        private Subscriber(SseEmitter emitter, Long lastEventId) {
+            this.emitter = emitter;
+            this.replayFrom = lastEventId;
+            this.lastSentSequence = lastEventId == null ? 0 : lastEventId;
+        }
+
+        private void offer(List<InventoryChangeDto> batch) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(batch)) {
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+            } finally {
+                scheduled.set(false);
+                // A batch offered after the queue ran dry but before the flag was cleared must not be stranded
+                if (!queue.isEmpty() || overflowed) {
+                    schedule();
+                }
+            }
+        }
+
+        private void drain() {
+            if (replayFrom != null) {
+                long since = replayFrom;
+                replayFrom = null;
+                if (!replay(since)) {
+                    return;
+                }
+            }
+            List<InventoryChangeDto> batch;
+            while (!closed) {
+                if (overflowed) {
+                    logger.debug("SSE subscriber fell {} batches behind; asking it to resync", queueCapacity);
+                    resync();
+                    return;
+                }
+                batch = queue.poll();
+                if (batch == null || !send(batch)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean replay(long since) {
+            int replayed = 0;
+            try {
+                ChangeFeedResponse page;
+                do {
+                    page = changeFeedService.getChanges(since, replayLimit);
+                    if (!page.getChanges().isEmpty() && !send(page.getChanges())) {
+                        return false;
+                    }
+                    replayed += page.getChanges().size();
+                    since = page.getNextSince();
+                } while (page.isHasMore() && replayed < replayLimit);
+                if (!page.isHasMore()) {
+                    return true;
+                }
+            } catch (ChangeFeedExpiredException e) {
+                // Fall through: the client is too far behind to replay
+            }
+            resync();
+            return false;
+        }
+
+        private boolean send(List<InventoryChangeDto> batch) {
+            // A replay can run ahead of the relay, so drop what this subscriber already has
+            List<InventoryChangeDto> fresh = batch.stream()
+                    .filter(change -> change.getSequence() > lastSentSequence)
+                    .toList();
+            if (fresh.isEmpty()) {
+                return true;
+            }
+            long last = fresh.get(fresh.size() - 1).getSequence();
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(last))
+                        .name(CHANGES_EVENT)
+                        .data(fresh, MediaType.APPLICATION_JSON));
+                lastSentSequence = last;
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping SSE subscriber: {}", e.getMessage());
+                close();
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        private void resync() {
+            close();
+            try {
+                emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("Reload full state, then reconnect."));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.training.inventory_service.repositories;
+
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.entities.CoreSwitch;
+import com.training.inventory_service.entities.Fdh;
+import com.training.inventory_service.entities.InventoryChange;
+import com.training.inventory_service.entities.Splitter;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.journal.JournalEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JDBC based bulk writer for assets, their hierarchy rows and their history.
+ * Asset ids are IDENTITY generated, which stops Hibernate from batching inserts,
+ * so the bulk paths go through JdbcTemplate batch updates instead.
+ */
+@Repository
+public class AssetBatchRepository {
+
+    private static final String INSERT_ASSET_SQL =
+            "INSERT INTO assets (serial_number, asset_type, model, asset_status, location, assigned_to_customer_id, created_at, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // History rows are derived from the freshly inserted assets, so generated ids never have to be read back.
+    private static final String INSERT_HISTORY_FOR_SERIALS_SQL =
+            "INSERT INTO asset_history (asset_id, change_type, description, timestamp, changed_by_user_id) "
+                    + "SELECT id, ?, ?, ?, ? FROM assets WHERE serial_number IN (%s)";
+
+    // INSERT IGNORE on the unique journal_key turns a replay of already written entries into a no-op
+    private static final String INSERT_JOURNAL_ENTRY_SQL =
+            "INSERT IGNORE INTO asset_history (asset_id, change_type, description, timestamp, changed_by_user_id, journal_key) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Subtype rows share the asset id (@MapsId), so provisioning inserts them after reading the ids back by serial
+    private static final String INSERT_CORE_SWITCH_SQL =
+            "INSERT INTO core_switches (id, name, location, headend_id) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_FDH_SQL =
+            "INSERT INTO fdhs (id, name, region, core_switch_id) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_SPLITTER_SQL =
+            "INSERT INTO splitters (id, fdh_id, port_capacity, used_ports, port_map, neighborhood, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_CHANGE_SQL =
+            "INSERT INTO inventory_changes (entity_type, entity_id, operation, payload, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    // Set-based reclaim: lock the customers' assets, derive history from them, then release them in one UPDATE
+    private static final String SNAPSHOT_COLUMNS =
+            "SELECT id, serial_number, asset_type, model, asset_status, location, assigned_to_customer_id FROM assets";
+
+    private static final String LOCK_ASSIGNED_TO_CUSTOMERS_SQL =
+            SNAPSHOT_COLUMNS + " WHERE assigned_to_customer_id IN (%s) FOR UPDATE";
+
+    private static final String SNAPSHOTS_FOR_SERIALS_SQL = SNAPSHOT_COLUMNS + " WHERE serial_number IN (%s)";
+
+    private static final String LOCK_SNAPSHOTS_FOR_SERIALS_SQL = SNAPSHOTS_FOR_SERIALS_SQL + " ORDER BY id FOR UPDATE";
+
+    private static final String SNAPSHOTS_FOR_IDS_SQL = SNAPSHOT_COLUMNS + " WHERE id IN (%s)";
+
+    // Keyset page over one location, walking idx_assets_location in id order
+    private static final String SNAPSHOTS_AT_LOCATION_SQL =
+            SNAPSHOT_COLUMNS + " WHERE location = ? AND asset_status NOT IN (%s) AND id > ? ORDER BY id LIMIT ?";
+
+    private static final RowMapper<AssetSnapshot> SNAPSHOT_ROW_MAPPER = (rs, rowNum) -> new AssetSnapshot(
+            rs.getLong("id"),
+            rs.getString("serial_number"),
+            AssetType.valueOf(rs.getString("asset_type")),
+            rs.getString("model"),
+            AssetStatus.valueOf(rs.getString("asset_status")),
+            rs.getString("location"),
+            rs.getObject("assigned_to_customer_id", Long.class));
+
+    private static final String INSERT_HISTORY_FOR_CUSTOMERS_SQL =
+            "INSERT INTO asset_history (asset_id, change_type, description, timestamp, changed_by_user_id) "
+                    + "SELECT id, ?, CONCAT(?, assigned_to_customer_id), ?, ? FROM assets WHERE assigned_to_customer_id IN (%s)";
+
+    private static final String UNASSIGN_CUSTOMERS_SQL =
+            "UPDATE assets SET assigned_to_customer_id = NULL, asset_status = ?, version = version + 1 WHERE assigned_to_customer_id IN (%s)";
+
+    // Batch replacement: release the faulty units in one UPDATE, hand each customer its new unit in another
+    private static final String MARK_FAULTY_SQL =
+            "UPDATE assets SET assigned_to_customer_id = NULL, asset_status = ?, version = version + 1 WHERE id IN (%s)";
+
+    private static final String ASSIGN_TO_CUSTOMERS_SQL =
+            "UPDATE assets SET asset_status = ?, assigned_to_customer_id = CASE id %s END, version = version + 1 WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public AssetBatchRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${inventory.jdbc.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void insertAssets(List<Asset> assets) {
+        if (assets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ASSET_SQL, assets, batchSize, (ps, asset) -> {
+            ps.setString(1, asset.getSerialNumber());
+            ps.setString(2, asset.getAssetType().name());
+            ps.setString(3, asset.getModel());
+            ps.setString(4, asset.getAssetStatus().name());
+            ps.setString(5, asset.getLocation());
+            ps.setObject(6, asset.getAssignedToCustomerId(), Types.BIGINT);
+            ps.setTimestamp(7, Timestamp.from(asset.getCreatedAt()));
+        });
+    }
+
+    public void insertCoreSwitches(List<CoreSwitch> coreSwitches) {
+        if (coreSwitches.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CORE_SWITCH_SQL, coreSwitches, batchSize, (ps, coreSwitch) -> {
+            ps.setLong(1, coreSwitch.getId());
+            ps.setString(2, coreSwitch.getName());
+            ps.setString(3, coreSwitch.getLocation());
+            ps.setObject(4, coreSwitch.getHeadendId(), Types.BIGINT);
+        });
+    }
+
+    public void insertFdhs(List<Fdh> fdhs) {
+        if (fdhs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_FDH_SQL, fdhs, batchSize, (ps, fdh) -> {
+            ps.setLong(1, fdh.getId());
+            ps.setString(2, fdh.getName());
+            ps.setString(3, fdh.getRegion());
+            ps.setObject(4, fdh.getCoreSwitchId(), Types.BIGINT);
+        });
+    }
+
+    public void insertSplitters(List<Splitter> splitters) {
+        if (splitters.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SPLITTER_SQL, splitters, batchSize, (ps, splitter) -> {
+            ps.setLong(1, splitter.getId());
+            ps.setObject(2, splitter.getFdhId(), Types.BIGINT);
+            ps.setInt(3, splitter.getPortCapacity());
+            ps.setInt(4, splitter.getUsedPorts());
+            ps.setLong(5, splitter.getPortMap());
+            ps.setString(6, splitter.getNeighborhood());
+        });
+    }
+
+    public void insertJournalEntries(List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_JOURNAL_ENTRY_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.assetId());
+            ps.setString(2, entry.changeType());
+            ps.setString(3, entry.description());
+            ps.setTimestamp(4, Timestamp.from(entry.timestamp()));
+            ps.setObject(5, entry.changedByUserId(), Types.BIGINT);
+            ps.setString(6, entry.journalKey());
+        });
+    }
+
+    public void insertChanges(List<InventoryChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, changes, batchSize, (ps, change) -> {
+            ps.setString(1, change.getEntityType().name());
+            ps.setLong(2, change.getEntityId());
+            ps.setString(3, change.getOperation().name());
+            ps.setString(4, change.getPayload());
+            ps.setTimestamp(5, Timestamp.from(change.getChangedAt()));
+        });
+    }
+
+    /**
+     * Locks every asset assigned to the given customers and returns their state before the reclaim.
+     * Must run inside the transaction that performs the reclaim.
+     */
+    public List<AssetSnapshot> lockAssetsAssignedToCustomers(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.format(LOCK_ASSIGNED_TO_CUSTOMERS_SQL, placeholders(customerIds.size())),
+                SNAPSHOT_ROW_MAPPER, customerIds.toArray());
+    }
+
+    public List<AssetSnapshot> findSnapshotsBySerials(Collection<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.format(SNAPSHOTS_FOR_SERIALS_SQL, placeholders(serialNumbers.size())),
+                SNAPSHOT_ROW_MAPPER, serialNumbers.toArray());
+    }
+
+    /**
+     * Locks the assets with the given serial numbers, in id order, and returns their current
+     * state. Must run inside the transaction that updates them; lock every row it needs in
+     * one call, since two calls from concurrent transactions can interleave and deadlock.
+     */
+    public List<AssetSnapshot> lockSnapshotsBySerials(Collection<String> serialNumbers) {
+        if (serialNumbers.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.format(LOCK_SNAPSHOTS_FOR_SERIALS_SQL, placeholders(serialNumbers.size())),
+                SNAPSHOT_ROW_MAPPER, serialNumbers.toArray());
+    }
+
+    /**
+     * The form under which the IN lookups above treat two serial numbers as equal: the
+     * column's collation is case-insensitive, so results must be matched to the requested
+     * serials by this key, not by exact string.
+     */
+    public static String serialKey(String serialNumber) {
+        return serialNumber.toUpperCase(Locale.ROOT);
+    }
+
+    public List<AssetSnapshot> findSnapshotsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.format(SNAPSHOTS_FOR_IDS_SQL, placeholders(ids.size())),
+                SNAPSHOT_ROW_MAPPER, ids.toArray());
+    }
+
+    /**
+     * Up to {@code limit} assets at the location with an id above {@code afterId}, in id order,
+     * leaving out the given statuses.
+     */
+    public List<AssetSnapshot> findSnapshotsAtLocation(String location, Collection<AssetStatus> excludedStatuses, long afterId, int limit) {
+        List<Object> args = new ArrayList<>(excludedStatuses.size() + 3);
+        args.add(location);
+        excludedStatuses.forEach(status -> args.add(status.name()));
+        args.add(afterId);
+        args.add(limit);
+        return jdbcTemplate.query(String.format(SNAPSHOTS_AT_LOCATION_SQL, placeholders(excludedStatuses.size())),
+                SNAPSHOT_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Streams every asset row through the consumer without materialising the table. The
+     * connection is busy until the last row is read, so the consumer must not query the
+     * database itself.
+     */
+    public void forEachSnapshot(Consumer<AssetSnapshot> consumer) {
+        // Server-side cursor: MySQL streams rows only for a forward-only, read-only statement
+        // with fetch size Integer.MIN_VALUE; otherwise the driver buffers the whole result
+        PreparedStatementCreator streaming = connection -> {
+            PreparedStatement ps = connection.prepareStatement(SNAPSHOT_COLUMNS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            return ps;
+        };
+        jdbcTemplate.query(streaming, rs -> {
+            consumer.accept(SNAPSHOT_ROW_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    public int insertHistoryForCustomers(Collection<Long> customerIds, String changeType, String descriptionPrefix, Long changedByUserId) {
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(customerIds.size() + 4);
+        args.add(changeType);
+        args.add(descriptionPrefix);
+        args.add(Timestamp.from(Instant.now()));
+        args.add(changedByUserId);
+        args.addAll(customerIds);
+        return jdbcTemplate.update(String.format(INSERT_HISTORY_FOR_CUSTOMERS_SQL, placeholders(customerIds.size())), args.toArray());
+    }
+
+    public int unassignCustomers(Collection<Long> customerIds, AssetStatus newStatus) {
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(customerIds.size() + 1);
+        args.add(newStatus.name());
+        args.addAll(customerIds);
+        return jdbcTemplate.update(String.format(UNASSIGN_CUSTOMERS_SQL, placeholders(customerIds.size())), args.toArray());
+    }
+
+    public int markFaulty(Collection<Long> assetIds) {
+        if (assetIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(assetIds.size() + 1);
+        args.add(AssetStatus.FAULTY.name());
+        args.addAll(assetIds);
+        return jdbcTemplate.update(String.format(MARK_FAULTY_SQL, placeholders(assetIds.size())), args.toArray());
+    }
+
+    /**
+     * Marks each asset ASSIGNED to its own customer, one CASE UPDATE per batch of assets.
+     */
+    public int assignToCustomers(Map<Long, Long> customerByAssetId) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(customerByAssetId.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Long, Long>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            List<Object> args = new ArrayList<>(batch.size() * 3 + 1);
+            args.add(AssetStatus.ASSIGNED.name());
+            for (Map.Entry<Long, Long> entry : batch) {
+                args.add(entry.getKey());
+                args.add(entry.getValue());
+            }
+            batch.forEach(entry -> args.add(entry.getKey()));
+            String cases = String.join(" ", Collections.nCopies(batch.size(), "WHEN ? THEN ?"));
+            updated += jdbcTemplate.update(String.format(ASSIGN_TO_CUSTOMERS_SQL, cases, placeholders(batch.size())), args.toArray());
+        }
+        return updated;
+    }
+
+    public int insertHistoryForSerials(Collection<String> serialNumbers, String changeType, String description, Long changedByUserId) {
+        if (serialNumbers.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(serialNumbers.size() + 4);
+        args.add(changeType);
+        args.add(description);
+        args.add(Timestamp.from(Instant.now()));
+        args.add(changedByUserId);
+        args.addAll(serialNumbers);
+        return jdbcTemplate.update(String.format(INSERT_HISTORY_FOR_SERIALS_SQL, placeholders(serialNumbers.size())), args.toArray());
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
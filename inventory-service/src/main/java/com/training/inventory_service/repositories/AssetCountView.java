@@ -0,0 +1,14 @@
+package com.training.inventory_service.repositories;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+
+/**
+ * Number of assets sharing one (type, status, location) combination.
+ */
+public interface AssetCountView {
+    AssetType getAssetType();
+    AssetStatus getAssetStatus();
+    String getLocation();
+    long getAssetCount();
+}
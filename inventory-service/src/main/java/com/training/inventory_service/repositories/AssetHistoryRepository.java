@@ -1,13 +1,19 @@
 package com.training.inventory_service.repositories;
 
 import com.training.inventory_service.entities.AssetHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long> {
+public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long>, JpaSpecificationExecutor<AssetHistory> {
     List<AssetHistory> findByAssetIdOrderByTimestampDesc(Long assetId);
     void deleteByAssetId(Long assetId); // New method
+
+    // Oldest rows first, so each archive segment covers a contiguous time range
+    List<AssetHistory> findByTimestampBeforeOrderByTimestampAscIdAsc(Instant cutoff, Limit limit);
 }
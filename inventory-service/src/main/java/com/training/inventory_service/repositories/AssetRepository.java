@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +17,28 @@ public interface AssetRepository extends JpaRepository<Asset, Long>, JpaSpecific
     boolean existsBySerialNumber(String serialNumber);
     Optional<Asset> findBySerialNumber(String serialNumber);
     List<Asset> findByAssignedToCustomerId(Long customerId);
+    List<Asset> findByAssignedToCustomerIdIn(Collection<Long> customerIds);
 
     // New method to find faulty, assigned ONTs and Routers
     @Query("SELECT a FROM Asset a WHERE a.assetStatus = :status AND a.assignedToCustomerId IS NOT NULL AND a.assetType IN :types")
     List<Asset> findByStatusAndAssignedAndType(AssetStatus status, List<AssetType> types);
+
+    // Used by bulk import to dedupe a whole chunk of serials in one round trip
+    @Query("SELECT a.serialNumber FROM Asset a WHERE a.serialNumber IN :serialNumbers")
+    List<String> findExistingSerialNumbers(Collection<String> serialNumbers);
+
+    // Used by the history stream to drop archived entries of deleted assets, one query per chunk
+    @Query("SELECT a.id FROM Asset a WHERE a.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Seeds and reconciles the in-memory stats counters; served by idx_assets_type_status_location
+    @Query("SELECT a.assetType AS assetType, a.assetStatus AS assetStatus, a.location AS location, COUNT(a) AS assetCount "
+            + "FROM Asset a GROUP BY a.assetType, a.assetStatus, a.location")
+    List<AssetCountView> countByTypeStatusAndLocation();
+
+    // Seeds and reconciles the in-memory stock levels; served by idx_assets_status_location_model
+    @Query("SELECT a.location AS location, a.model AS model, a.assetType AS assetType, COUNT(a) AS available "
+            + "FROM Asset a WHERE a.assetStatus = :status AND a.location IS NOT NULL AND a.model IS NOT NULL "
+            + "GROUP BY a.location, a.model, a.assetType")
+    List<StockLevelView> countStockLevels(AssetStatus status);
 }
@@ -1,9 +1,12 @@
 package com.training.inventory_service.repositories;
 
+import com.training.inventory_service.dtos.CoreSwitchDto;
 import com.training.inventory_service.entities.CoreSwitch;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,20 @@ public interface CoreSwitchRepository extends JpaRepository<CoreSwitch, Long> {
     boolean existsByHeadendId(Long headendId);
     Optional<CoreSwitch> findByAssetId(Long assetId);
     void deleteByAssetId(Long assetId);
+
+    @Query("SELECT c.id AS id, c.headendId AS parentId FROM CoreSwitch c")
+    List<HierarchyLinkView> findAllLinks();
+
+    // Read model: core switch rows with their asset's serial and model in one query
+    @Query("SELECT new com.training.inventory_service.dtos.CoreSwitchDto(c.id, c.name, c.location, c.headendId, a.serialNumber, a.model) "
+            + "FROM CoreSwitch c LEFT JOIN c.asset a ORDER BY c.id")
+    List<CoreSwitchDto> findAllCoreSwitchDtos();
+
+    @Query("SELECT new com.training.inventory_service.dtos.CoreSwitchDto(c.id, c.name, c.location, c.headendId, a.serialNumber, a.model) "
+            + "FROM CoreSwitch c LEFT JOIN c.asset a WHERE c.headendId = :headendId ORDER BY c.id")
+    List<CoreSwitchDto> findCoreSwitchDtosByHeadendId(Long headendId);
+
+    // Used by bulk provisioning to reject a taken name before any row is written
+    @Query("SELECT c.name FROM CoreSwitch c WHERE c.name IN :names")
+    List<String> findExistingNames(Collection<String> names);
 }
@@ -1,10 +1,14 @@
 package com.training.inventory_service.repositories;
 
+import com.training.inventory_service.dtos.FdhDto;
 import com.training.inventory_service.entities.Fdh;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,32 @@ public interface FdhRepository extends JpaRepository<Fdh, Long>, JpaSpecificatio
     Optional<Fdh> findByAssetId(Long assetId);
     void deleteByAssetId(Long assetId);
     List<Fdh> findAllByCoreSwitchIdIn(List<Long> coreSwitchIds);
+
+    @Query("SELECT f.id AS id, f.coreSwitchId AS parentId FROM Fdh f")
+    List<HierarchyLinkView> findAllLinks();
+
+    // Read model: FDH rows with their asset's serial and model in one query
+    @Query("SELECT new com.training.inventory_service.dtos.FdhDto(f.id, f.name, f.region, f.coreSwitchId, a.serialNumber, a.model) "
+            + "FROM Fdh f LEFT JOIN f.asset a ORDER BY f.id")
+    List<FdhDto> findAllFdhDtos();
+
+    // Ordered by parent first so the streamed topology can walk FDHs and splitters in step
+    @Query("SELECT new com.training.inventory_service.dtos.FdhDto(f.id, f.name, f.region, f.coreSwitchId, a.serialNumber, a.model) "
+            + "FROM Fdh f LEFT JOIN f.asset a WHERE f.coreSwitchId IN :coreSwitchIds ORDER BY f.coreSwitchId, f.id")
+    List<FdhDto> findFdhDtosByCoreSwitchIdIn(Collection<Long> coreSwitchIds);
+
+    // Used by bulk provisioning to reject taken names for a whole subtree in one round trip
+    @Query("SELECT f.name FROM Fdh f WHERE f.name IN :names")
+    List<String> findExistingNames(Collection<String> names);
+
+    // Bulk reparent: resolve the batch with one query, then move it with one UPDATE
+    @Query("SELECT f.id FROM Fdh f WHERE f.coreSwitchId = :coreSwitchId ORDER BY f.id")
+    List<Long> findIdsByCoreSwitchId(Long coreSwitchId);
+
+    @Query("SELECT f.id FROM Fdh f WHERE f.id IN :ids ORDER BY f.id")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Fdh f SET f.coreSwitchId = :newCoreSwitchId WHERE f.id IN :ids")
+    int moveToCoreSwitch(Collection<Long> ids, Long newCoreSwitchId);
 }
@@ -1,13 +1,24 @@
 package com.training.inventory_service.repositories;
 
+import com.training.inventory_service.dtos.HeadendDto;
 import com.training.inventory_service.entities.Headend;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface HeadendRepository extends JpaRepository<Headend, Long> {
     Optional<Headend> findByAssetId(Long assetId);
     void deleteByAssetId(Long assetId);
+
+    @Query("SELECT h.id FROM Headend h")
+    List<Long> findAllIds();
+
+    // Read model: headend rows with their asset's serial and model in one query
+    @Query("SELECT new com.training.inventory_service.dtos.HeadendDto(h.id, h.name, h.location, a.serialNumber, a.model) "
+            + "FROM Headend h LEFT JOIN h.asset a ORDER BY h.id")
+    List<HeadendDto> findAllHeadendDtos();
 }
@@ -0,0 +1,9 @@
+package com.training.inventory_service.repositories;
+
+/**
+ * Child-to-parent link of a hierarchy node (FDH to core switch, core switch to headend).
+ */
+public interface HierarchyLinkView {
+    Long getId();
+    Long getParentId();
+}
@@ -0,0 +1,30 @@
+package com.training.inventory_service.repositories;
+
+import com.training.inventory_service.entities.InventoryChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface InventoryChangeRepository extends JpaRepository<InventoryChange, Long> {
+
+    List<InventoryChange> findByIdGreaterThanOrderByIdAsc(Long since, Pageable pageable);
+
+    @Query("SELECT MIN(c.id) FROM InventoryChange c")
+    Long findFirstSequence();
+
+    @Query("SELECT MAX(c.id) FROM InventoryChange c")
+    Long findLastSequence();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InventoryChange c WHERE c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") Instant cutoff);
+}
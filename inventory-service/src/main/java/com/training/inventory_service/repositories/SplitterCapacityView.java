@@ -0,0 +1,11 @@
+package com.training.inventory_service.repositories;
+
+/**
+ * Closed projection used to seed capacity rollups without loading splitter entities.
+ */
+public interface SplitterCapacityView {
+    Long getId();
+    Long getFdhId();
+    int getPortCapacity();
+    int getUsedPorts();
+}
@@ -1,11 +1,20 @@
 package com.training.inventory_service.repositories;
 
+import com.training.inventory_service.dtos.SplitterDto;
 import com.training.inventory_service.entities.Splitter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SplitterRepository extends JpaRepository<Splitter, Long>  {
@@ -14,4 +23,69 @@ public interface SplitterRepository extends JpaRepository<Splitter, Long>  {
     Optional<Splitter> findByAssetId(Long assetId);
     void deleteByAssetId(Long assetId);
     List<Splitter> findByFdhIdIn(List<Long> fdhIds);
+    List<SplitterCapacityView> findAllProjectedBy();
+
+    // Read models: splitter rows with their asset's serial and model in one query instead of one lazy load per row
+    String SPLITTER_DTO_SELECT = "SELECT new com.training.inventory_service.dtos.SplitterDto("
+            + "s.id, s.fdhId, s.portCapacity, s.usedPorts, a.serialNumber, s.neighborhood, a.model) "
+            + "FROM Splitter s LEFT JOIN s.asset a";
+
+    @Query(SPLITTER_DTO_SELECT + " ORDER BY s.id")
+    List<SplitterDto> findAllSplitterDtos();
+
+    @Query(SPLITTER_DTO_SELECT + " WHERE s.fdhId = :fdhId ORDER BY s.id")
+    List<SplitterDto> findSplitterDtosByFdhId(Long fdhId);
+
+    @Query(SPLITTER_DTO_SELECT + " WHERE s.fdhId IN :fdhIds ORDER BY s.id")
+    List<SplitterDto> findSplitterDtosByFdhIdIn(Collection<Long> fdhIds);
+
+    // Server-side cursor (MySQL streams rows when the fetch size is Integer.MIN_VALUE); must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(SPLITTER_DTO_SELECT + " JOIN Fdh f ON f.id = s.fdhId WHERE f.coreSwitchId IN :coreSwitchIds ORDER BY f.coreSwitchId, s.fdhId, s.id")
+    Stream<SplitterDto> streamSplitterDtosByCoreSwitchIdIn(Collection<Long> coreSwitchIds);
+
+    // Conditional single-statement updates: the occupancy check and the write happen atomically in the database.
+    // Native SQL because JPQL has no bitwise operators; CAST keeps bit 63 representable in the signed BIGINT column.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE splitters SET port_map = CAST(port_map | :bit AS SIGNED), used_ports = used_ports + 1, version = version + 1 "
+            + "WHERE id = :id AND (port_map & :bit) = 0 AND used_ports < port_capacity AND :port <= port_capacity",
+            nativeQuery = true)
+    int reservePortNumber(Long id, int port, long bit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE splitters SET port_map = CAST(port_map & :mask AS SIGNED), used_ports = used_ports - 1, version = version + 1 "
+            + "WHERE id = :id AND (port_map & :bit) <> 0",
+            nativeQuery = true)
+    int releasePortNumber(Long id, long bit, long mask);
+
+    // Backfill: gives a port number to usage already counted without one, so used_ports stays unchanged
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE splitters SET port_map = CAST(port_map | :bit AS SIGNED), version = version + 1 "
+            + "WHERE id = :id AND (port_map & :bit) = 0 AND used_ports > BIT_COUNT(port_map) AND :port <= port_capacity",
+            nativeQuery = true)
+    int trackUntrackedPort(Long id, int port, long bit);
+
+    // Releases usage recorded without a port number (pre-bitmap counts); tracked ports are never touched
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE splitters SET used_ports = used_ports - 1, version = version + 1 WHERE id = :id AND used_ports > BIT_COUNT(port_map)",
+            nativeQuery = true)
+    int releaseUntrackedPort(Long id);
+
+    // Bulk reparent: resolve the batch with one query, then move it with one UPDATE
+    @Query("SELECT s.id FROM Splitter s WHERE s.fdhId = :fdhId ORDER BY s.id")
+    List<Long> findIdsByFdhId(Long fdhId);
+
+    @Query("SELECT s.id AS id, s.fdhId AS parentId FROM Splitter s WHERE s.id IN :ids")
+    List<HierarchyLinkView> findLinksByIdIn(Collection<Long> ids);
+
+    @Query("SELECT s.id FROM Splitter s WHERE s.id IN :ids ORDER BY s.id")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Splitter s SET s.fdhId = :newFdhId, s.version = s.version + 1 WHERE s.id IN :ids")
+    int moveToFdh(Collection<Long> ids, Long newFdhId);
 }
@@ -0,0 +1,13 @@
+package com.training.inventory_service.repositories;
+
+import com.training.inventory_service.enums.AssetType;
+
+/**
+ * Number of AVAILABLE assets of one SKU (model and type) at one location.
+ */
+public interface StockLevelView {
+    String getLocation();
+    String getModel();
+    AssetType getAssetType();
+    long getAvailable();
+}
@@ -0,0 +1,13 @@
+package com.training.inventory_service.repositories;
+
+import com.training.inventory_service.entities.StockThreshold;
+import com.training.inventory_service.enums.AssetType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StockThresholdRepository extends JpaRepository<StockThreshold, Long> {
+    Optional<StockThreshold> findByLocationAndModelAndAssetType(String location, String model, AssetType assetType);
+}
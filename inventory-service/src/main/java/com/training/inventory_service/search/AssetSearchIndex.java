@@ -0,0 +1,252 @@
+package com.training.inventory_service.search;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix and substring index over asset serial numbers and models.
+ * <p>
+ * Every indexed asset gets an ordinal. Prefix lookups walk a sorted map of the lower-cased
+ * values; substring lookups intersect trigram posting lists and verify the candidates.
+ * Ordinals only ever grow, so posting lists stay sorted by appending. A removed or re-keyed
+ * asset leaves a tombstone that queries skip; once tombstones outnumber live entries the
+ * index compacts itself.
+ */
+public class AssetSearchIndex {
+
+    public static final String FIELD_SERIAL_NUMBER = "serialNumber";
+    public static final String FIELD_MODEL = "model";
+
+    private static final int GRAM = 3;
+    private static final char PREFIX_UPPER_BOUND = Character.MAX_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<AssetSnapshot> docs = new ArrayList<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final NavigableMap<String, Postings> serialPrefixes = new TreeMap<>();
+    private final NavigableMap<String, Postings> modelPrefixes = new TreeMap<>();
+    private final Map<String, Postings> serialGrams = new HashMap<>();
+    private final Map<String, Postings> modelGrams = new HashMap<>();
+    private int tombstones;
+
+    /**
+     * Inserts the asset or replaces its previous version. Status, type and location changes
+     * are applied in place; a changed serial number or model re-indexes the asset.
+     */
+    public void put(AssetSnapshot asset) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.get(asset.id());
+            if (ordinal != null) {
+                AssetSnapshot current = docs.get(ordinal);
+                if (sameKey(current.serialNumber(), asset.serialNumber()) && sameKey(current.model(), asset.model())) {
+                    docs.set(ordinal, asset);
+                    return;
+                }
+                bury(ordinal);
+            }
+            add(asset);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long assetId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.remove(assetId);
+            if (ordinal != null) {
+                bury(ordinal);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} assets matching {@code query}, ranked serial prefix matches first,
+     * then serial substring, model prefix and model substring matches. Substring matching needs
+     * at least three characters.
+     */
+    public List<Match> search(String query, AssetType type, AssetStatus status, int limit) {
+        String q = normalize(query);
+        if (q == null || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, String> hits = new LinkedHashMap<>();
+            collectPrefix(serialPrefixes, q, FIELD_SERIAL_NUMBER, type, status, limit, hits);
+            collectSubstring(serialGrams, q, FIELD_SERIAL_NUMBER, type, status, limit, hits);
+            collectPrefix(modelPrefixes, q, FIELD_MODEL, type, status, limit, hits);
+            collectSubstring(modelGrams, q, FIELD_MODEL, type, status, limit, hits);
+
+            List<Match> matches = new ArrayList<>(hits.size());
+            hits.forEach((ordinal, field) -> matches.add(new Match(docs.get(ordinal), field)));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internals (callers hold the appropriate lock) ---
+
+    private void add(AssetSnapshot asset) {
+        int ordinal = docs.size();
+        docs.add(asset);
+        ordinalById.put(asset.id(), ordinal);
+        index(serialPrefixes, serialGrams, normalize(asset.serialNumber()), ordinal);
+        index(modelPrefixes, modelGrams, normalize(asset.model()), ordinal);
+    }
+
+    private static void index(NavigableMap<String, Postings> prefixes, Map<String, Postings> grams, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        prefixes.computeIfAbsent(value, k -> new Postings()).append(ordinal);
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.computeIfAbsent(value.substring(i, i + GRAM), k -> new Postings()).append(ordinal);
+        }
+    }
+
+    private void bury(int ordinal) {
+        docs.set(ordinal, null);
+        tombstones++;
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones <= ordinalById.size()) {
+            return;
+        }
+        List<AssetSnapshot> live = docs.stream().filter(doc -> doc != null).toList();
+        docs.clear();
+        ordinalById.clear();
+        serialPrefixes.clear();
+        modelPrefixes.clear();
+        serialGrams.clear();
+        modelGrams.clear();
+        tombstones = 0;
+        live.forEach(this::add);
+    }
+
+    private void collectPrefix(NavigableMap<String, Postings> prefixes, String q, String field,
+                               AssetType type, AssetStatus status, int limit, Map<Integer, String> hits) {
+        for (Postings postings : prefixes.subMap(q, true, q + PREFIX_UPPER_BOUND, false).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                if (hits.size() >= limit) {
+                    return;
+                }
+                accept(postings.ordinals[i], field, type, status, hits);
+            }
+        }
+    }
+
+    private void collectSubstring(Map<String, Postings> grams, String q, String field,
+                                  AssetType type, AssetStatus status, int limit, Map<Integer, String> hits) {
+        if (q.length() < GRAM || hits.size() >= limit) {
+            return;
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Postings postings = grams.get(q.substring(i, i + GRAM));
+            if (postings == null) {
+                return;
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        Postings smallest = lists.get(0);
+        for (int i = 0; i < smallest.size && hits.size() < limit; i++) {
+            int ordinal = smallest.ordinals[i];
+            if (containsAll(lists, ordinal)) {
+                AssetSnapshot doc = docs.get(ordinal);
+                // Trigram intersection can over-match, so confirm the real substring
+                String value = doc == null ? null
+                        : normalize(FIELD_SERIAL_NUMBER.equals(field) ? doc.serialNumber() : doc.model());
+                if (value != null && value.contains(q)) {
+                    accept(ordinal, field, type, status, hits);
+                }
+            }
+        }
+    }
+
+    private static boolean containsAll(List<Postings> lists, int ordinal) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(ordinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void accept(int ordinal, String field, AssetType type, AssetStatus status, Map<Integer, String> hits) {
+        AssetSnapshot doc = docs.get(ordinal);
+        if (doc == null || hits.containsKey(ordinal)) {
+            return;
+        }
+        if ((type == null || type == doc.assetType()) && (status == null || status == doc.assetStatus())) {
+            hits.put(ordinal, field);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean sameKey(String a, String b) {
+        String left = normalize(a);
+        String right = normalize(b);
+        return left == null ? right == null : left.equals(right);
+    }
+
+    public record Match(AssetSnapshot asset, String matchedField) {
+    }
+
+    /** Growable, always sorted list of ordinals. */
+    private static final class Postings {
+        private int[] ordinals = new int[2];
+        private int size;
+
+        private void append(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        private boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+    }
+}
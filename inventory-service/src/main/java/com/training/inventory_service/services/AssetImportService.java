@@ -0,0 +1,317 @@
+package com.training.inventory_service.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.dtos.AssetCreateRequest;
+import com.training.inventory_service.dtos.AssetImportResult;
+import com.training.inventory_service.dtos.AssetImportRowError;
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ImportFormat;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.exceptions.InvalidImportFileException;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a CSV or NDJSON upload and writes it in fixed-size chunks.
+ * Only the current chunk is kept in memory; each chunk is deduped against the
+ * database with a single IN query and committed in its own transaction.
+ */
+@Service
+public class AssetImportService implements AssetImportServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetImportService.class);
+
+    // --- Sonar: Exception Message Constants ---
+    private static final String SERIAL_REQUIRED_MSG = "Serial number is required.";
+    private static final String ASSET_TYPE_REQUIRED_MSG = "Asset type is required.";
+    private static final String UNKNOWN_ASSET_TYPE_MSG = "Unknown asset type: %s";
+    private static final String INFRASTRUCTURE_NOT_IMPORTABLE_MSG = "Asset type %s must be created through the network hierarchy endpoints.";
+    private static final String DUPLICATE_IN_FILE_MSG = "Duplicate serial number in import file.";
+    private static final String ASSET_ALREADY_EXISTS_MSG = "Asset with serial number %s already exists.";
+    private static final String MALFORMED_ROW_MSG = "Malformed row: %s";
+    private static final String MISSING_HEADER_MSG = "CSV header must contain assetType and serialNumber columns.";
+    private static final String CHUNK_REJECTED_MSG = "Chunk rejected by database: %s";
+    private static final String READ_FAILED_MSG = "Failed to read import stream";
+
+    // --- Sonar: Log Type Constants (kept in line with AssetService) ---
+    private static final String LOG_ASSET_CREATED = "ASSET_CREATED";
+    private static final String LOG_DESC_ASSET_CREATED = "New asset created.";
+
+    private static final String COL_ASSET_TYPE = "assettype";
+    private static final String COL_SERIAL_NUMBER = "serialnumber";
+    private static final String COL_MODEL = "model";
+    private static final String COL_LOCATION = "location";
+
+    private static final Set<AssetType> IMPORTABLE_TYPES = Set.of(AssetType.ONT, AssetType.ROUTER, AssetType.FIBER_ROLL);
+
+    private final AssetRepository assetRepository;
+    private final AssetBatchRepository assetBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public AssetImportService(AssetRepository assetRepository,
+                              AssetBatchRepository assetBatchRepository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${inventory.import.chunk-size:1000}") int chunkSize,
+                              @Value("${inventory.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.assetRepository = assetRepository;
+        this.assetBatchRepository = assetBatchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public AssetImportResult importAssets(InputStream input, ImportFormat format, Long userId) {
+        AssetImportResult result = new AssetImportResult();
+        Map<String, PendingRow> chunk = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && columns == null) {
+                    columns = parseHeader(line);
+                    continue;
+                }
+
+                result.setTotalRows(result.getTotalRows() + 1);
+                AssetCreateRequest request;
+                try {
+                    request = format == ImportFormat.CSV ? parseCsvRow(line, columns) : parseJsonRow(line);
+                } catch (IllegalArgumentException e) {
+                    recordError(result, lineNumber, null, e.getMessage());
+                    continue;
+                }
+
+                String validationError = validate(request);
+                if (validationError != null) {
+                    recordError(result, lineNumber, request.getSerialNumber(), validationError);
+                    continue;
+                }
+
+                Asset asset = toAsset(request);
+                // Keyed by serialKey: the serial column compares case-insensitively
+                String key = AssetBatchRepository.serialKey(asset.getSerialNumber());
+                if (chunk.containsKey(key)) {
+                    recordError(result, lineNumber, asset.getSerialNumber(), DUPLICATE_IN_FILE_MSG);
+                } else {
+                    chunk.put(key, new PendingRow(lineNumber, asset));
+                    if (chunk.size() >= chunkSize) {
+                        flushChunk(chunk, result, userId);
+                    }
+                }
+            }
+            flushChunk(chunk, result, userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(READ_FAILED_MSG, e);
+        }
+
+        logger.info("Asset import finished: {} rows, {} imported, {} failed",
+                result.getTotalRows(), result.getImportedCount(), result.getFailedCount());
+        return result;
+    }
+
+    private void flushChunk(Map<String, PendingRow> chunk, AssetImportResult result, Long userId) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // 1. Drop serials that already exist (including ones written by earlier chunks)
+        List<String> chunkSerials = chunk.values().stream().map(row -> row.asset().getSerialNumber()).toList();
+        Set<String> existing = new HashSet<>();
+        for (String serial : assetRepository.findExistingSerialNumbers(chunkSerials)) {
+            existing.add(AssetBatchRepository.serialKey(serial));
+        }
+        List<Asset> toInsert = new ArrayList<>(chunk.size());
+        chunk.forEach((key, row) -> {
+            String serial = row.asset().getSerialNumber();
+            if (existing.contains(key)) {
+                recordError(result, row.lineNumber(), serial, String.format(ASSET_ALREADY_EXISTS_MSG, serial));
+            } else {
+                toInsert.add(row.asset());
+            }
+        });
+
+        // 2. Batch insert assets and their creation history in one transaction per chunk
+        if (!toInsert.isEmpty()) {
+            List<String> serials = toInsert.stream().map(Asset::getSerialNumber).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    assetBatchRepository.insertAssets(toInsert);
+                    assetBatchRepository.insertHistoryForSerials(serials, LOG_ASSET_CREATED, LOG_DESC_ASSET_CREATED, userId);
+                    for (AssetSnapshot created : assetBatchRepository.findSnapshotsBySerials(serials)) {
+                        eventPublisher.publishEvent(AssetChangedEvent.created(created));
+                    }
+                });
+                result.setImportedCount(result.getImportedCount() + toInsert.size());
+            } catch (DataAccessException e) {
+                // A concurrent writer may have taken one of the serials; report the whole chunk as failed
+                logger.warn("Import chunk of {} rows rejected: {}", toInsert.size(), e.getMessage());
+                String message = String.format(CHUNK_REJECTED_MSG, e.getMostSpecificCause().getMessage());
+                for (Asset asset : toInsert) {
+                    recordError(result, chunk.get(AssetBatchRepository.serialKey(asset.getSerialNumber())).lineNumber(), asset.getSerialNumber(), message);
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void recordError(AssetImportResult result, long lineNumber, String serialNumber, String message) {
+        result.setFailedCount(result.getFailedCount() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new AssetImportRowError(lineNumber, serialNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private String validate(AssetCreateRequest request) {
+        if (request.getAssetType() == null) {
+            return ASSET_TYPE_REQUIRED_MSG;
+        }
+        if (!IMPORTABLE_TYPES.contains(request.getAssetType())) {
+            return String.format(INFRASTRUCTURE_NOT_IMPORTABLE_MSG, request.getAssetType());
+        }
+        if (!StringUtils.hasText(request.getSerialNumber())) {
+            return SERIAL_REQUIRED_MSG;
+        }
+        return null;
+    }
+
+    private Asset toAsset(AssetCreateRequest request) {
+        Asset asset = new Asset();
+        asset.setAssetType(request.getAssetType());
+        asset.setSerialNumber(request.getSerialNumber().trim());
+        asset.setModel(request.getModel());
+        asset.setLocation(request.getLocation());
+        asset.setAssetStatus(AssetStatus.AVAILABLE);
+        asset.setCreatedAt(Instant.now());
+        return asset;
+    }
+
+    // --- Parsers ---
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey(COL_ASSET_TYPE) || !columns.containsKey(COL_SERIAL_NUMBER)) {
+            throw new InvalidImportFileException(MISSING_HEADER_MSG);
+        }
+        return columns;
+    }
+
+    private AssetCreateRequest parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        AssetCreateRequest request = new AssetCreateRequest();
+        String type = column(values, columns, COL_ASSET_TYPE);
+        if (StringUtils.hasText(type)) {
+            try {
+                request.setAssetType(AssetType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format(UNKNOWN_ASSET_TYPE_MSG, type));
+            }
+        }
+        request.setSerialNumber(column(values, columns, COL_SERIAL_NUMBER));
+        request.setModel(column(values, columns, COL_MODEL));
+        request.setLocation(column(values, columns, COL_LOCATION));
+        return request;
+    }
+
+    private AssetCreateRequest parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, AssetCreateRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(String.format(MALFORMED_ROW_MSG, e.getOriginalMessage()));
+        }
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Minimal RFC 4180 splitter: handles quoted fields and doubled quotes, but not
+     * line breaks inside quotes (each record must be on one line for streaming).
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private record PendingRow(long lineNumber, Asset asset) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetImportResult;
+import com.training.inventory_service.enums.ImportFormat;
+
+import java.io.InputStream;
+
+public interface AssetImportServiceInterface {
+    AssetImportResult importAssets(InputStream input, ImportFormat format, Long userId);
+}
@@ -0,0 +1,115 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetSearchHit;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.search.AssetSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves autocomplete lookups on serial number and model from {@link AssetSearchIndex}.
+ * The index is loaded at startup, kept current from committed asset changes, and rebuilt
+ * periodically to pick up writes made by other instances.
+ */
+@Service
+public class AssetSearchService implements AssetSearchServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetSearchService.class);
+
+    private final AssetBatchRepository assetBatchRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    private volatile AssetSearchIndex index = new AssetSearchIndex();
+
+    // Guarded by "this"; non-null while a rebuild is scanning, so changes committed meanwhile are replayed on the new index
+    private List<AssetChangedEvent> pendingDuringRebuild;
+
+    @Autowired
+    public AssetSearchService(AssetBatchRepository assetBatchRepository,
+                              @Value("${inventory.search.default-limit:10}") int defaultLimit,
+                              @Value("${inventory.search.max-limit:50}") int maxLimit) {
+        this.assetBatchRepository = assetBatchRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public List<AssetSearchHit> search(String query, AssetType type, AssetStatus status, Integer limit) {
+        int effectiveLimit = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+        return index.search(query, type, status, effectiveLimit).stream()
+                .map(AssetSearchService::toHit)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAssetChanged(AssetChangedEvent event) {
+        apply(index, event);
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(event);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${inventory.search.rebuild-interval-ms:900000}",
+            fixedDelayString = "${inventory.search.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        AssetSearchIndex fresh = new AssetSearchIndex();
+        try {
+            assetBatchRepository.forEachSnapshot(fresh::put);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingDuringRebuild.forEach(event -> apply(fresh, event));
+            pendingDuringRebuild = null;
+            index = fresh;
+        }
+        logger.info("Asset search index rebuilt with {} assets in {} ms", fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void apply(AssetSearchIndex target, AssetChangedEvent event) {
+        if (event.after() == null) {
+            target.remove(event.assetId());
+        } else {
+            target.put(event.after());
+        }
+    }
+
+    private static AssetSearchHit toHit(AssetSearchIndex.Match match) {
+        AssetSnapshot asset = match.asset();
+        AssetSearchHit hit = new AssetSearchHit();
+        hit.setId(asset.id());
+        hit.setSerialNumber(asset.serialNumber());
+        hit.setModel(asset.model());
+        hit.setAssetType(asset.assetType());
+        hit.setAssetStatus(asset.assetStatus());
+        hit.setLocation(asset.location());
+        hit.setMatchedField(match.matchedField());
+        return hit;
+    }
+}
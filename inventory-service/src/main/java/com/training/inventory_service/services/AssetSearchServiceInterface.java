@@ -0,0 +1,12 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetSearchHit;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+
+import java.util.List;
+
+public interface AssetSearchServiceInterface {
+    List<AssetSearchHit> search(String query, AssetType type, AssetStatus status, Integer limit);
+    void rebuild();
+}
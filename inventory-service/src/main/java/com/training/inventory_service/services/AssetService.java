@@ -1,24 +1,56 @@
 package com.training.inventory_service.services;
 
+import com.training.inventory_service.archive.ArchivedHistoryEntry;
+import com.training.inventory_service.archive.HistoryArchive;
 import com.training.inventory_service.dtos.*;
 import com.training.inventory_service.entities.Asset;
 import com.training.inventory_service.entities.AssetHistory;
 import com.training.inventory_service.entities.Splitter;
 import com.training.inventory_service.enums.AssetStatus;
 import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
 import com.training.inventory_service.exceptions.AssetAlreadyExistsException;
 import com.training.inventory_service.exceptions.AssetInUseException;
 import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.exceptions.AssetVersionConflictException;
+import com.training.inventory_service.exceptions.InvalidAssetStatusTransitionException;
+import com.training.inventory_service.exceptions.InvalidCursorException;
+import com.training.inventory_service.journal.AssetHistoryJournal;
 import com.training.inventory_service.repositories.*;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification; // Import for Specification
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class AssetService implements AssetServiceInterface {
@@ -32,6 +64,16 @@ public class AssetService implements AssetServiceInterface {
     private final CoreSwitchRepository coreSwitchRepository;
     private final FdhRepository fdhRepository;
     private final SplitterRepository splitterRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AssetHistoryJournal assetHistoryJournal;
+    private final AssetBatchRepository assetBatchRepository;
+    private final HistoryArchive historyArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final int streamChunkSize;
+    private final int reclaimChunkSize;
+    private final int assignMaxAttempts;
+    private final long assignRetryBackoffMs;
 
     // --- Sonar: Exception Message Constants ---
     private static final String ASSET_NOT_FOUND_SERIAL_MSG = "Asset not found with serial number: %s";
@@ -49,6 +91,27 @@ public class AssetService implements AssetServiceInterface {
     private static final String CANNOT_DELETE_SPLITTER_MSG = "Cannot delete Splitter with ID %d. It has active customer connections.";
     private static final String SPLITTER_DETAILS_NOT_FOUND_MSG = "Splitter details not found for asset ID: %d";
     private static final String ASSET_ALREADY_EXISTS_SERIAL_MSG = "Asset with serial number %s already exists.";
+    private static final String INVALID_CURSOR_MSG = "Invalid pagination cursor: %s";
+    private static final String INVALID_RECLAIM_STATUS_MSG = "Assets cannot be reclaimed into status %s.";
+    private static final String ASSET_NOT_ASSIGNABLE_MSG = "Asset %s is %s and cannot be assigned to customer ID: %d";
+    private static final String SERIAL_REPEATED_IN_BATCH_MSG = "Serial number %s appears in more than one replacement pair of this batch.";
+    private static final String ASSET_VERSION_MISMATCH_MSG = "Asset %s was modified concurrently (expected version %d, current version %d).";
+    private static final String ASSET_ASSIGN_CONTENDED_MSG = "Asset %s was modified concurrently; gave up after %d attempts.";
+
+    // --- Keyset pagination ---
+    private static final String FIELD_ID = "id";
+    private static final String CURSOR_PREFIX = "id:";
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // --- History pagination: keyset on (timestamp, id) ---
+    private static final String FIELD_TIMESTAMP = "timestamp";
+    private static final String FIELD_ASSET_ID = "assetId";
+    private static final String FIELD_CHANGE_TYPE = "changeType";
+    private static final String HISTORY_CURSOR_PREFIX = "h:";
+    private static final char HISTORY_CURSOR_SEPARATOR = '|';
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofHours(24);
+    private static final Comparator<AssetHistory> NEWEST_FIRST =
+            Comparator.comparing(AssetHistory::getTimestamp).thenComparing(AssetHistory::getId).reversed();
 
     // --- Sonar: Log Type Constants ---
     private static final String LOG_ASSET_REPLACEMENT_FAULTY = "ASSET_REPLACEMENT_FAULTY";
@@ -62,6 +125,7 @@ public class AssetService implements AssetServiceInterface {
     private static final String LOG_DESC_REPLACED_FAULTY = "Marked as FAULTY and unassigned from customer ID: %d. Replaced by %s";
     private static final String LOG_DESC_REPLACED_NEW = "Assigned to customer ID: %d as replacement for %s";
     private static final String LOG_DESC_UNASSIGNED = "Unassigned from customer ID: %d";
+    private static final String LOG_DESC_UNASSIGNED_PREFIX = "Unassigned from customer ID: "; // Set-based form of LOG_DESC_UNASSIGNED
     private static final String LOG_DESC_ASSIGNED = "Assigned to customer ID: %d";
     private static final String LOG_DESC_STATUS_UPDATE = "Status changed from %s to %s";
     private static final String LOG_DESC_ASSET_CREATED = "New asset created.";
@@ -73,13 +137,33 @@ public class AssetService implements AssetServiceInterface {
                         HeadendRepository headendRepository,
                         CoreSwitchRepository coreSwitchRepository,
                         FdhRepository fdhRepository,
-                        SplitterRepository splitterRepository) {
+                        SplitterRepository splitterRepository,
+                        EntityManager entityManager,
+                        ApplicationEventPublisher eventPublisher,
+                        AssetHistoryJournal assetHistoryJournal,
+                        AssetBatchRepository assetBatchRepository,
+                        HistoryArchive historyArchive,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${inventory.stream.chunk-size:1000}") int streamChunkSize,
+                        @Value("${inventory.reclaim.chunk-size:1000}") int reclaimChunkSize,
+                        @Value("${inventory.assignment.max-attempts:5}") int assignMaxAttempts,
+                        @Value("${inventory.assignment.retry-backoff-ms:10}") long assignRetryBackoffMs) {
         this.assetRepository = assetRepository;
         this.assetHistoryRepository = assetHistoryRepository;
         this.headendRepository = headendRepository;
         this.coreSwitchRepository = coreSwitchRepository;
         this.fdhRepository = fdhRepository;
         this.splitterRepository = splitterRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.assetHistoryJournal = assetHistoryJournal;
+        this.assetBatchRepository = assetBatchRepository;
+        this.historyArchive = historyArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.streamChunkSize = streamChunkSize;
+        this.reclaimChunkSize = reclaimChunkSize;
+        this.assignMaxAttempts = assignMaxAttempts;
+        this.assignRetryBackoffMs = assignRetryBackoffMs;
     }
 
     public List<AssetResponse> getFaultyAssignedAssets() {
@@ -113,16 +197,20 @@ public class AssetService implements AssetServiceInterface {
         }
 
         // 3. Update the faulty asset
+        AssetSnapshot faultyBefore = AssetSnapshot.of(faultyAsset);
         faultyAsset.setAssignedToCustomerId(null);
         faultyAsset.setAssetStatus(AssetStatus.FAULTY);
         assetRepository.save(faultyAsset);
+        publishAssetChange(faultyBefore, faultyAsset);
         String logDescFaulty = String.format(LOG_DESC_REPLACED_FAULTY, customerId, newAsset.getSerialNumber());
         logAssetHistory(faultyAsset.getId(), LOG_ASSET_REPLACEMENT_FAULTY, logDescFaulty, userId);
 
         // 4. Update the new asset
+        AssetSnapshot newBefore = AssetSnapshot.of(newAsset);
         newAsset.setAssignedToCustomerId(customerId);
         newAsset.setAssetStatus(AssetStatus.ASSIGNED);
         Asset savedNewAsset = assetRepository.save(newAsset);
+        publishAssetChange(newBefore, savedNewAsset);
         String logDescNew = String.format(LOG_DESC_REPLACED_NEW, customerId, faultyAsset.getSerialNumber());
         logAssetHistory(newAsset.getId(), LOG_ASSET_REPLACEMENT_NEW, logDescNew, userId);
 
@@ -131,6 +219,119 @@ public class AssetService implements AssetServiceInterface {
         return mapToAssetResponse(savedNewAsset);
     }
 
+    /**
+     * Batch variant of replaceFaultyAsset. All faulty and new units are locked together with
+     * one IN query and validated; every valid pair is then applied with two set-based
+     * UPDATEs, and the history entries go out through the journal in one batch. A pair that
+     * fails validation is reported in its result and does not stop the others.
+     */
+    @Transactional
+    public BulkReplacementResult replaceFaultyAssets(List<AssetReplacementRequest> replacements, Long userId) {
+        // Keyed by serialKey: the serial column compares case-insensitively
+        Map<String, Integer> serialUses = new LinkedHashMap<>();
+        for (AssetReplacementRequest pair : replacements) {
+            countSerialUse(pair.getFaultyAssetSerialNumber(), serialUses);
+            countSerialUse(pair.getNewAssetSerialNumber(), serialUses);
+        }
+        // Flush first so the native lock and updates see, and are not later overwritten by, pending entity changes
+        entityManager.flush();
+        Map<String, AssetSnapshot> assetsBySerial = indexBySerial(assetBatchRepository.lockSnapshotsBySerials(serialUses.keySet()));
+
+        BulkReplacementResult result = new BulkReplacementResult();
+        result.setRequested(replacements.size());
+        List<ReplacementPair> accepted = new ArrayList<>();
+        for (AssetReplacementRequest pair : replacements) {
+            AssetSnapshot faulty = findBySerial(assetsBySerial, pair.getFaultyAssetSerialNumber());
+            AssetSnapshot replacement = findBySerial(assetsBySerial, pair.getNewAssetSerialNumber());
+            String error = validateReplacementPair(pair, faulty, replacement, serialUses);
+            Long customerId = faulty == null ? null : faulty.assignedToCustomerId();
+            result.getResults().add(new ReplacementPairResult(pair.getFaultyAssetSerialNumber(),
+                    pair.getNewAssetSerialNumber(), error == null, customerId, error));
+            if (error == null) {
+                accepted.add(new ReplacementPair(faulty, replacement));
+            } else {
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return result;
+        }
+
+        List<Long> faultyIds = new ArrayList<>(accepted.size());
+        Map<Long, Long> customerByNewId = new LinkedHashMap<>();
+        for (ReplacementPair pair : accepted) {
+            faultyIds.add(pair.faulty().id());
+            customerByNewId.put(pair.replacement().id(), pair.faulty().assignedToCustomerId());
+        }
+        assetBatchRepository.markFaulty(faultyIds);
+        assetBatchRepository.assignToCustomers(customerByNewId);
+
+        for (ReplacementPair pair : accepted) {
+            AssetSnapshot faulty = pair.faulty();
+            AssetSnapshot replacement = pair.replacement();
+            Long customerId = faulty.assignedToCustomerId();
+            eventPublisher.publishEvent(new AssetChangedEvent(faulty, faulty.withAssignment(AssetStatus.FAULTY, null)));
+            eventPublisher.publishEvent(new AssetChangedEvent(replacement, replacement.withAssignment(AssetStatus.ASSIGNED, customerId)));
+            logAssetHistory(faulty.id(), LOG_ASSET_REPLACEMENT_FAULTY,
+                    String.format(LOG_DESC_REPLACED_FAULTY, customerId, replacement.serialNumber()), userId);
+            logAssetHistory(replacement.id(), LOG_ASSET_REPLACEMENT_NEW,
+                    String.format(LOG_DESC_REPLACED_NEW, customerId, faulty.serialNumber()), userId);
+        }
+        result.setReplaced(accepted.size());
+        // Native updates bypass the persistence context; evict only the assets they changed
+        evictAssets(customerByNewId.keySet());
+        evictAssets(faultyIds);
+        logger.info("Replaced {} of {} faulty assets in batch", result.getReplaced(), result.getRequested());
+        return result;
+    }
+
+    private record ReplacementPair(AssetSnapshot faulty, AssetSnapshot replacement) {
+    }
+
+    private static void countSerialUse(String serial, Map<String, Integer> serialUses) {
+        if (serial != null && !serial.isBlank()) {
+            serialUses.merge(AssetBatchRepository.serialKey(serial), 1, Integer::sum);
+        }
+    }
+
+    private static Map<String, AssetSnapshot> indexBySerial(List<AssetSnapshot> assets) {
+        Map<String, AssetSnapshot> bySerial = new HashMap<>();
+        assets.forEach(asset -> bySerial.put(AssetBatchRepository.serialKey(asset.serialNumber()), asset));
+        return bySerial;
+    }
+
+    private static AssetSnapshot findBySerial(Map<String, AssetSnapshot> bySerial, String serial) {
+        return serial == null ? null : bySerial.get(AssetBatchRepository.serialKey(serial));
+    }
+
+    // Same checks, in the same order, as replaceFaultyAsset; returns null when the pair can be applied
+    private static String validateReplacementPair(AssetReplacementRequest pair, AssetSnapshot faulty,
+                                                   AssetSnapshot replacement, Map<String, Integer> serialUses) {
+        String faultySerial = pair.getFaultyAssetSerialNumber();
+        String newSerial = pair.getNewAssetSerialNumber();
+        for (String serial : new String[]{faultySerial, newSerial}) {
+            if (serial != null && serialUses.getOrDefault(AssetBatchRepository.serialKey(serial), 0) > 1) {
+                return String.format(SERIAL_REPEATED_IN_BATCH_MSG, serial);
+            }
+        }
+        if (faulty == null) {
+            return String.format(FAULTY_ASSET_NOT_FOUND_MSG, faultySerial);
+        }
+        if (faulty.assignedToCustomerId() == null) {
+            return String.format(ASSET_NOT_ASSIGNED_MSG, faultySerial);
+        }
+        if (replacement == null) {
+            return String.format(NEW_ASSET_NOT_FOUND_MSG, newSerial);
+        }
+        if (replacement.assetStatus() != AssetStatus.AVAILABLE) {
+            return String.format(REPLACEMENT_ASSET_NOT_AVAILABLE_MSG, newSerial);
+        }
+        if (faulty.assetType() != replacement.assetType()) {
+            return String.format(ASSET_TYPES_DO_NOT_MATCH_MSG, faulty.assetType(), replacement.assetType());
+        }
+        return null;
+    }
+
     @Transactional
     public AssetResponse unassignCustomerAssetsBySerialNumber(String serialNumber) {
         Asset asset = assetRepository.findBySerialNumber(serialNumber)
@@ -141,9 +342,11 @@ public class AssetService implements AssetServiceInterface {
         }
 
         Long customerId = asset.getAssignedToCustomerId();
+        AssetSnapshot before = AssetSnapshot.of(asset);
         asset.setAssignedToCustomerId(null);
         asset.setAssetStatus(AssetStatus.AVAILABLE);
         Asset updatedAsset = assetRepository.save(asset);
+        publishAssetChange(before, updatedAsset);
 
         logAssetHistory(updatedAsset.getId(), LOG_ASSET_UNASSIGNED, String.format(LOG_DESC_UNASSIGNED, customerId), null);
 
@@ -166,18 +369,21 @@ public class AssetService implements AssetServiceInterface {
                     throw new AssetInUseException(String.format(CANNOT_DELETE_HEADEND_MSG, assetId));
                 }
                 headendRepository.deleteByAssetId(assetId);
+                eventPublisher.publishEvent(new HierarchyNodeDeletedEvent(AssetType.HEADEND, assetId));
                 break;
             case CORE_SWITCH:
                 if (fdhRepository.existsByCoreSwitchId(asset.getId())) {
                     throw new AssetInUseException(String.format(CANNOT_DELETE_CORE_SWITCH_MSG, assetId));
                 }
                 coreSwitchRepository.deleteByAssetId(assetId);
+                eventPublisher.publishEvent(new HierarchyNodeDeletedEvent(AssetType.CORE_SWITCH, assetId));
                 break;
             case FDH:
                 if (splitterRepository.existsByFdhId(asset.getId())) {
                     throw new AssetInUseException(String.format(CANNOT_DELETE_FDH_MSG, assetId));
                 }
                 fdhRepository.deleteByAssetId(assetId);
+                eventPublisher.publishEvent(new HierarchyNodeDeletedEvent(AssetType.FDH, assetId));
                 break;
             case SPLITTER:
                 Splitter splitter = splitterRepository.findByAssetId(assetId)
@@ -186,6 +392,7 @@ public class AssetService implements AssetServiceInterface {
                     throw new AssetInUseException(String.format(CANNOT_DELETE_SPLITTER_MSG, assetId));
                 }
                 splitterRepository.deleteByAssetId(assetId);
+                eventPublisher.publishEvent(new HierarchyNodeDeletedEvent(AssetType.SPLITTER, assetId));
                 break;
             case ONT, ROUTER:
                 // These are leaf nodes, no child dependency checks needed.
@@ -196,8 +403,11 @@ public class AssetService implements AssetServiceInterface {
                 break;
         }
 
+        // Flush queued entries first so none of this asset's history is written after the delete
+        assetHistoryJournal.flush();
         assetHistoryRepository.deleteByAssetId(assetId);
         assetRepository.delete(asset);
+        eventPublisher.publishEvent(AssetChangedEvent.deleted(AssetSnapshot.of(asset)));
         logger.info("Successfully deleted asset with ID {}", assetId);
     }
 
@@ -216,6 +426,7 @@ public class AssetService implements AssetServiceInterface {
         asset.setCreatedAt(Instant.now());
 
         Asset savedAsset = assetRepository.save(asset);
+        eventPublisher.publishEvent(AssetChangedEvent.created(AssetSnapshot.of(savedAsset)));
 
         logAssetHistory(savedAsset.getId(), LOG_ASSET_CREATED, LOG_DESC_ASSET_CREATED, null);
 
@@ -250,6 +461,20 @@ public class AssetService implements AssetServiceInterface {
         return assets.stream().map(this::mapToAssetResponse).toList();
     }
 
+    /**
+     * Batch variant of getAssetsByCustomerId: one IN query for all customers.
+     * Every requested customer ID is present in the result, with an empty list
+     * when nothing is assigned, so callers never need a follow-up lookup.
+     */
+    public Map<Long, List<AssetResponse>> getAssetsByCustomerIds(List<Long> customerIds) {
+        Map<Long, List<AssetResponse>> result = new LinkedHashMap<>();
+        customerIds.forEach(id -> result.put(id, new ArrayList<>()));
+        for (Asset asset : assetRepository.findByAssignedToCustomerIdIn(result.keySet())) {
+            result.get(asset.getAssignedToCustomerId()).add(mapToAssetResponse(asset));
+        }
+        return result;
+    }
+
     /**
      * Sonar: Refactored to use Specification API.
      * This is much more efficient as it filters in the database,
@@ -257,8 +482,60 @@ public class AssetService implements AssetServiceInterface {
      * NOTE: Your AssetRepository must extend JpaSpecificationExecutor<Asset, Long> for this to work.
      */
     public List<AssetResponse> filterAssets(AssetType type, AssetStatus status, String location) {
+        // This will now work because your repository extends JpaSpecificationExecutor
+        List<Asset> assets = assetRepository.findAll(buildFilterSpec(type, status, location));
 
-        //FIX: Start with a "conjunction" (an always-true predicate) instead of where(null)
+        return assets.stream().map(this::mapToAssetResponse).toList();
+    }
+
+    /**
+     * Keyset (seek) pagination on the primary key: every page is an indexed
+     * range scan "id > lastId ORDER BY id LIMIT n", so page 10,000 costs the
+     * same as page 1 and no COUNT query is issued.
+     */
+    public AssetPageResponse filterAssetsPage(AssetType type, AssetStatus status, String location, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long afterId = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        List<Asset> assets = findPageAfter(buildFilterSpec(type, status, location), afterId, pageSize + 1);
+        boolean hasMore = assets.size() > pageSize;
+        List<Asset> page = hasMore ? assets.subList(0, pageSize) : assets;
+
+        AssetPageResponse response = new AssetPageResponse();
+        response.setItems(page.stream().map(this::mapToAssetResponse).toList());
+        response.setNextCursor(hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null);
+        return response;
+    }
+
+    /**
+     * Walks the filtered result set in keyset-ordered chunks and hands each
+     * chunk to the consumer as soon as it is read. The persistence context is
+     * cleared between chunks so heap use stays flat regardless of result size.
+     */
+    public void streamFilteredAssets(AssetType type, AssetStatus status, String location, Consumer<List<AssetResponse>> chunkConsumer) {
+        Specification<Asset> spec = buildFilterSpec(type, status, location);
+        Long afterId = null;
+        List<Asset> chunk;
+        do {
+            chunk = findPageAfter(spec, afterId, streamChunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+            chunkConsumer.accept(chunk.stream().map(this::mapToAssetResponse).toList());
+            entityManager.clear();
+        } while (chunk.size() == streamChunkSize);
+    }
+
+    private List<Asset> findPageAfter(Specification<Asset> spec, Long afterId, int limit) {
+        Specification<Asset> pageSpec = afterId == null
+                ? spec
+                : spec.and((root, query, cb) -> cb.greaterThan(root.get(FIELD_ID), afterId));
+        return assetRepository.findBy(pageSpec, q -> q.sortBy(Sort.by(FIELD_ID)).limit(limit).all());
+    }
+
+    //FIX: Start with a "conjunction" (an always-true predicate) instead of where(null)
+    private Specification<Asset> buildFilterSpec(AssetType type, AssetStatus status, String location) {
         Specification<Asset> spec = (root, query, cb) -> cb.conjunction();
 
         if (type != null) {
@@ -270,39 +547,137 @@ public class AssetService implements AssetServiceInterface {
         if (location != null && !location.isBlank()) {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("location"), location));
         }
+        return spec;
+    }
 
-        // This will now work because your repository extends JpaSpecificationExecutor
-        List<Asset> assets = assetRepository.findAll(spec);
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
 
-        return assets.stream().map(this::mapToAssetResponse).toList();
+    private static Long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidCursorException(String.format(INVALID_CURSOR_MSG, cursor));
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_MSG, cursor));
+        }
     }
 
-    @Transactional
     public AssetResponse assignAssetToCustomer(String serialNumber, Long customerId, Long userId) {
+        return assignAssetToCustomer(serialNumber, customerId, userId, null);
+    }
+
+    /**
+     * Claims an AVAILABLE asset for a customer without locking the row: the versioned
+     * UPDATE only succeeds if nobody changed the asset since it was read.
+     * <p>
+     * With an {@code expectedVersion} the caller asserts the state it last saw, so any
+     * conflict fails fast with {@link AssetVersionConflictException}. Without one, a
+     * conflict is retried a bounded number of times, each attempt in a fresh transaction
+     * so it sees the latest committed row; a retry that finds the asset taken by another
+     * customer fails with {@link AssetInUseException} instead of overwriting it.
+     * Deliberately not transactional itself for the same reason.
+     */
+    public AssetResponse assignAssetToCustomer(String serialNumber, Long customerId, Long userId, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> tryAssign(serialNumber, customerId, userId, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null || attempt >= assignMaxAttempts) {
+                    throw new AssetVersionConflictException(String.format(ASSET_ASSIGN_CONTENDED_MSG, serialNumber, attempt));
+                }
+                logger.debug("Assignment of asset {} lost a version race (attempt {}), retrying", serialNumber, attempt);
+                backOff(serialNumber, attempt);
+            }
+        }
+    }
+
+    private AssetResponse tryAssign(String serialNumber, Long customerId, Long userId, Long expectedVersion) {
         Asset asset = assetRepository.findBySerialNumber(serialNumber)
                 .orElseThrow(() -> new AssetNotFoundException(String.format(ASSET_NOT_FOUND_SERIAL_MSG, serialNumber)));
 
+        if (expectedVersion != null && !expectedVersion.equals(asset.getVersion())) {
+            throw new AssetVersionConflictException(
+                    String.format(ASSET_VERSION_MISMATCH_MSG, serialNumber, expectedVersion, asset.getVersion()));
+        }
+        if (customerId.equals(asset.getAssignedToCustomerId()) && asset.getAssetStatus() == AssetStatus.ASSIGNED) {
+            return mapToAssetResponse(asset); // Already ours, e.g. a client retrying a lost response
+        }
+        if (asset.getAssetStatus() != AssetStatus.AVAILABLE) {
+            throw new AssetInUseException(String.format(ASSET_NOT_ASSIGNABLE_MSG, serialNumber, asset.getAssetStatus(), customerId));
+        }
+
+        AssetSnapshot before = AssetSnapshot.of(asset);
         asset.setAssignedToCustomerId(customerId);
         asset.setAssetStatus(AssetStatus.ASSIGNED);
-        Asset updatedAsset = assetRepository.save(asset);
+        // Flush now so a lost version race surfaces here, before any event or history is emitted
+        Asset updatedAsset = assetRepository.saveAndFlush(asset);
+        publishAssetChange(before, updatedAsset);
 
         logAssetHistory(updatedAsset.getId(), LOG_ASSET_ASSIGNED, String.format(LOG_DESC_ASSIGNED, customerId), userId);
 
         return mapToAssetResponse(updatedAsset);
     }
 
+    // Linear backoff with jitter so the losers of one race do not collide again on the next attempt
+    private void backOff(String serialNumber, int attempt) {
+        if (assignRetryBackoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(assignRetryBackoffMs * attempt + ThreadLocalRandom.current().nextLong(assignRetryBackoffMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssetVersionConflictException(String.format(ASSET_ASSIGN_CONTENDED_MSG, serialNumber, attempt));
+        }
+    }
+
     @Transactional
     public void unassignAssetsFromCustomer(Long customerId, String newStatus, Long userId) {
-        List<Asset> assets = assetRepository.findByAssignedToCustomerId(customerId);
-        AssetStatus status = AssetStatus.valueOf(newStatus.toUpperCase());
-        String logDesc = String.format(LOG_DESC_UNASSIGNED, customerId);
+        reclaimAssetsFromCustomers(List.of(customerId), newStatus, userId);
+    }
 
-        for (Asset asset : assets) {
-            asset.setAssignedToCustomerId(null);
-            asset.setAssetStatus(status);
-            assetRepository.save(asset);
-            logAssetHistory(asset.getId(), LOG_ASSET_UNASSIGNED, logDesc, userId);
+    /**
+     * Releases every asset held by the given customers with set-based SQL: per chunk of
+     * customers one locking SELECT (for the summary), one INSERT ... SELECT for history and
+     * one UPDATE, instead of a load, save and history insert per asset.
+     */
+    @Transactional
+    public BulkReclaimResult reclaimAssetsFromCustomers(List<Long> customerIds, String newStatus, Long userId) {
+        AssetStatus status = parseReclaimStatus(newStatus);
+        List<Long> distinctIds = customerIds.stream().distinct().toList();
+        // The JDBC statements below do not trigger Hibernate's auto-flush; write pending entity changes first
+        entityManager.flush();
+        List<Long> reclaimedIds = new ArrayList<>();
+
+        BulkReclaimResult result = new BulkReclaimResult();
+        result.setNewStatus(status);
+        result.setCustomerCount(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += reclaimChunkSize) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + reclaimChunkSize, distinctIds.size()));
+            List<AssetSnapshot> locked = assetBatchRepository.lockAssetsAssignedToCustomers(chunk);
+            assetBatchRepository.insertHistoryForCustomers(chunk, LOG_ASSET_UNASSIGNED, LOG_DESC_UNASSIGNED_PREFIX, userId);
+            int updated = assetBatchRepository.unassignCustomers(chunk, status);
+
+            Map<Long, Integer> counts = new HashMap<>();
+            for (AssetSnapshot before : locked) {
+                reclaimedIds.add(before.id());
+                counts.merge(before.assignedToCustomerId(), 1, Integer::sum);
+                eventPublisher.publishEvent(new AssetChangedEvent(before, before.withAssignment(status, null)));
+            }
+
+            result.setReclaimedAssetCount(result.getReclaimedAssetCount() + updated);
+            for (Long customerId : chunk) {
+                result.getCustomers().add(new CustomerReclaimSummary(customerId, counts.getOrDefault(customerId, 0)));
+            }
         }
+        evictAssets(reclaimedIds);
+        logger.info("Reclaimed {} assets from {} customers", result.getReclaimedAssetCount(), result.getCustomerCount());
+        return result;
     }
 
     @Transactional
@@ -312,8 +687,10 @@ public class AssetService implements AssetServiceInterface {
 
         AssetStatus oldStatus = asset.getAssetStatus();
         if (oldStatus != newStatus) {
+            AssetSnapshot before = AssetSnapshot.of(asset);
             asset.setAssetStatus(newStatus);
             Asset updatedAsset = assetRepository.save(asset);
+            publishAssetChange(before, updatedAsset);
             String logDesc = String.format(LOG_DESC_STATUS_UPDATE, oldStatus, newStatus);
             logAssetHistory(updatedAsset.getId(), LOG_STATUS_UPDATE, logDesc, userId);
             return mapToAssetResponse(updatedAsset);
@@ -325,19 +702,202 @@ public class AssetService implements AssetServiceInterface {
         if (!assetRepository.existsById(id)) {
             throw new AssetNotFoundException(String.format(ASSET_NOT_FOUND_ID_MSG, id));
         }
+        assetHistoryJournal.flush(); // Read-your-writes for entries still queued in the journal
         List<AssetHistory> history = assetHistoryRepository.findByAssetIdOrderByTimestampDesc(id);
+        if (historyArchive.mayContain(null)) {
+            history = mergeNewestFirst(history, archivedHistory(id, null, null, null, null), Integer.MAX_VALUE);
+        }
         // Sonar: Use .toList()
         return history.stream().map(this::mapToAssetHistoryResponse).toList();
     }
 
+    /**
+     * One page of an asset's history, newest first. Pages seek on (timestamp, id) so each
+     * one is a range scan of the (asset_id, timestamp) index however deep the cursor is.
+     */
+    public AssetHistoryPageResponse getAssetHistoryPage(Long id, Instant from, Instant to, String changeType, String cursor, int limit) {
+        if (!assetRepository.existsById(id)) {
+            throw new AssetNotFoundException(String.format(ASSET_NOT_FOUND_ID_MSG, id));
+        }
+        assetHistoryJournal.flush(); // Read-your-writes for entries still queued in the journal
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        HistoryCursor after = cursor == null || cursor.isBlank() ? null : decodeHistoryCursor(cursor);
+
+        Specification<AssetHistory> spec = buildHistorySpec(from, to, changeType)
+                .and((root, query, cb) -> cb.equal(root.get(FIELD_ASSET_ID), id));
+        if (after != null) {
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get(FIELD_TIMESTAMP), after.timestamp()),
+                    cb.and(cb.equal(root.get(FIELD_TIMESTAMP), after.timestamp()), cb.lessThan(root.get(FIELD_ID), after.id()))));
+        }
+        List<AssetHistory> rows = assetHistoryRepository.findBy(spec,
+                q -> q.sortBy(Sort.by(Sort.Direction.DESC, FIELD_TIMESTAMP, FIELD_ID)).limit(pageSize + 1).all());
+        if (historyArchive.mayContain(from)) {
+            rows = mergeNewestFirst(rows, archivedHistory(id, from, to, changeType, after), pageSize + 1);
+        }
+        boolean hasMore = rows.size() > pageSize;
+        List<AssetHistory> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        AssetHistoryPageResponse response = new AssetHistoryPageResponse();
+        response.setItems(page.stream().map(this::mapToAssetHistoryResponse).toList());
+        response.setNextCursor(hasMore ? encodeHistoryCursor(page.get(page.size() - 1)) : null);
+        return response;
+    }
+
+    /**
+     * History across all assets in chronological order, e.g. every ASSIGNED entry of the last day.
+     * Without a {@code from} bound the window starts {@link #DEFAULT_HISTORY_WINDOW} ago. Archived
+     * entries in the window come first (they are older than anything left in the table), then hot
+     * rows read in keyset chunks; each chunk goes to the consumer as it arrives, like {@link #streamFilteredAssets}.
+     * The hot keyset starts after the last archived entry, so a row caught between an archive
+     * write and its delete is streamed once. Deleting an asset removes its hot rows but not its
+     * archived entries, so archived entries of assets that no longer exist are left out.
+     */
+    public void streamHistory(String changeType, Instant from, Instant to, Consumer<List<AssetHistoryResponse>> chunkConsumer) {
+        assetHistoryJournal.flush();
+        Instant windowStart = from != null ? from : Instant.now().minus(DEFAULT_HISTORY_WINDOW);
+        // High-water mark of the archived part, in (timestamp, id) order
+        AtomicReference<AssetHistory> lastArchived = new AtomicReference<>();
+        if (historyArchive.mayContain(windowStart)) {
+            historyArchive.stream(windowStart, to, changeType, streamChunkSize, chunk -> {
+                List<AssetHistory> rows = chunk.stream().map(ArchivedHistoryEntry::toAssetHistory).toList();
+                if (rows.isEmpty()) {
+                    return;
+                }
+                lastArchived.set(rows.get(rows.size() - 1));
+                Set<Long> liveAssetIds = new HashSet<>(assetRepository.findExistingIds(
+                        rows.stream().map(AssetHistory::getAssetId).collect(Collectors.toSet())));
+                List<AssetHistoryResponse> live = rows.stream()
+                        .filter(row -> liveAssetIds.contains(row.getAssetId()))
+                        .map(this::mapToAssetHistoryResponse)
+                        .toList();
+                if (!live.isEmpty()) {
+                    chunkConsumer.accept(live);
+                }
+            });
+        }
+        Specification<AssetHistory> spec = buildHistorySpec(windowStart, to, changeType);
+        Sort chronological = Sort.by(Sort.Direction.ASC, FIELD_TIMESTAMP, FIELD_ID);
+        AssetHistory last = lastArchived.get();
+        List<AssetHistory> chunk;
+        do {
+            Specification<AssetHistory> chunkSpec = spec;
+            if (last != null) {
+                Instant lastTimestamp = last.getTimestamp();
+                Long lastId = last.getId();
+                chunkSpec = spec.and((root, query, cb) -> cb.or(
+                        cb.greaterThan(root.get(FIELD_TIMESTAMP), lastTimestamp),
+                        cb.and(cb.equal(root.get(FIELD_TIMESTAMP), lastTimestamp), cb.greaterThan(root.get(FIELD_ID), lastId))));
+            }
+            chunk = assetHistoryRepository.findBy(chunkSpec, q -> q.sortBy(chronological).limit(streamChunkSize).all());
+            if (chunk.isEmpty()) {
+                break;
+            }
+            last = chunk.get(chunk.size() - 1);
+            chunkConsumer.accept(chunk.stream().map(this::mapToAssetHistoryResponse).toList());
+            entityManager.clear();
+        } while (chunk.size() == streamChunkSize);
+    }
+
+    // Archived entries of one asset that sort after the cursor in newest-first order
+    private List<AssetHistory> archivedHistory(Long assetId, Instant from, Instant to, String changeType, HistoryCursor after) {
+        return historyArchive.findByAsset(assetId, from, to, changeType).stream()
+                .filter(entry -> after == null || entry.timestamp().isBefore(after.timestamp())
+                        || (entry.timestamp().equals(after.timestamp()) && entry.id() < after.id()))
+                .map(ArchivedHistoryEntry::toAssetHistory)
+                .toList();
+    }
+
+    // Rows caught between an archive write and its delete exist in both sources, hence the dedupe by id
+    private static List<AssetHistory> mergeNewestFirst(List<AssetHistory> hot, List<AssetHistory> archived, int limit) {
+        Map<Long, AssetHistory> byId = new HashMap<>();
+        archived.forEach(row -> byId.put(row.getId(), row));
+        hot.forEach(row -> byId.put(row.getId(), row));
+        return byId.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private Specification<AssetHistory> buildHistorySpec(Instant from, Instant to, String changeType) {
+        Specification<AssetHistory> spec = (root, query, cb) -> cb.conjunction();
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(FIELD_TIMESTAMP), from));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.get(FIELD_TIMESTAMP), to));
+        }
+        if (changeType != null && !changeType.isBlank()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get(FIELD_CHANGE_TYPE), changeType));
+        }
+        return spec;
+    }
+
+    private record HistoryCursor(Instant timestamp, Long id) {
+    }
+
+    private static String encodeHistoryCursor(AssetHistory last) {
+        String raw = HISTORY_CURSOR_PREFIX + last.getTimestamp() + HISTORY_CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static HistoryCursor decodeHistoryCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(HISTORY_CURSOR_SEPARATOR);
+            if (!decoded.startsWith(HISTORY_CURSOR_PREFIX) || separator < 0) {
+                throw new InvalidCursorException(String.format(INVALID_CURSOR_MSG, cursor));
+            }
+            Instant timestamp = Instant.parse(decoded.substring(HISTORY_CURSOR_PREFIX.length(), separator));
+            return new HistoryCursor(timestamp, Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // Also covers NumberFormatException
+            throw new InvalidCursorException(String.format(INVALID_CURSOR_MSG, cursor));
+        }
+    }
+
+    private static AssetStatus parseReclaimStatus(String newStatus) {
+        if (newStatus == null) {
+            throw new InvalidAssetStatusTransitionException(String.format(INVALID_RECLAIM_STATUS_MSG, newStatus));
+        }
+        AssetStatus status;
+        try {
+            status = AssetStatus.valueOf(newStatus.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAssetStatusTransitionException(String.format(INVALID_RECLAIM_STATUS_MSG, newStatus));
+        }
+        if (status == AssetStatus.ASSIGNED) {
+            throw new InvalidAssetStatusTransitionException(String.format(INVALID_RECLAIM_STATUS_MSG, status));
+        }
+        return status;
+    }
+
+    /**
+     * Detaches the given assets after a native update changed their rows, so a later read in
+     * this transaction reloads them. Other managed entities, possibly still modified by an
+     * enclosing caller, are left alone. getReference never hits the database.
+     */
+    private void evictAssets(Collection<Long> assetIds) {
+        for (Long id : assetIds) {
+            entityManager.detach(entityManager.getReference(Asset.class, id));
+        }
+    }
+
+    private void publishAssetChange(AssetSnapshot before, Asset after) {
+        eventPublisher.publishEvent(new AssetChangedEvent(before, AssetSnapshot.of(after)));
+    }
+
+    public HistoryJournalStatsDto getHistoryJournalStats() {
+        return assetHistoryJournal.getStats();
+    }
+
+    public HistoryArchiveStatsDto getHistoryArchiveStats() {
+        return historyArchive.getStats();
+    }
+
+    // History is written behind the business transaction; see AssetHistoryJournal
     private void logAssetHistory(Long assetId, String changeType, String description, Long changedByUserId) {
-        AssetHistory history = new AssetHistory();
-        history.setAssetId(assetId);
-        history.setChangeType(changeType);
-        history.setDescription(description);
-        history.setTimestamp(Instant.now());
-        history.setChangedByUserId(changedByUserId);
-        assetHistoryRepository.save(history);
+        assetHistoryJournal.record(assetId, changeType, description, changedByUserId);
     }
 
     // Sonar: This is a helper method and should be private
@@ -351,6 +911,7 @@ public class AssetService implements AssetServiceInterface {
         response.setLocation(asset.getLocation());
         response.setAssignedToCustomerId(asset.getAssignedToCustomerId());
         response.setCreatedAt(asset.getCreatedAt());
+        response.setVersion(asset.getVersion());
         return response;
     }
 
@@ -4,20 +4,34 @@ import com.training.inventory_service.dtos.*;
 import com.training.inventory_service.enums.AssetStatus;
 import com.training.inventory_service.enums.AssetType;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface AssetServiceInterface {
     AssetResponse replaceFaultyAsset(AssetReplacementRequest request, Long userId);
+
+    BulkReplacementResult replaceFaultyAssets(List<AssetReplacementRequest> replacements, Long userId);
     AssetResponse unassignCustomerAssetsBySerialNumber(String serialNumber);
     void deleteAsset(Long assetId);
     AssetResponse createAsset(AssetCreateRequest request);
     AssetResponse getAssetBySerial(String serialNumber);
     AssetAssignmentDetailsDto getAssetAssignmentDetails(String serialNumber);
     List<AssetResponse> getAssetsByCustomerId(Long customerId);
+    Map<Long, List<AssetResponse>> getAssetsByCustomerIds(List<Long> customerIds);
     List<AssetResponse> filterAssets(AssetType type, AssetStatus status, String location);
+    AssetPageResponse filterAssetsPage(AssetType type, AssetStatus status, String location, String cursor, int limit);
+    void streamFilteredAssets(AssetType type, AssetStatus status, String location, Consumer<List<AssetResponse>> chunkConsumer);
     AssetResponse assignAssetToCustomer(String serialNumber, Long customerId, Long userId);
+    AssetResponse assignAssetToCustomer(String serialNumber, Long customerId, Long userId, Long expectedVersion);
+    BulkReclaimResult reclaimAssetsFromCustomers(List<Long> customerIds, String newStatus, Long userId);
     void unassignAssetsFromCustomer(Long customerId, String newStatus, Long userId);
     AssetResponse updateAssetStatus(Long id, AssetStatus newStatus, Long userId);
     List<AssetHistoryResponse> getAssetHistory(Long id);
+    AssetHistoryPageResponse getAssetHistoryPage(Long id, Instant from, Instant to, String changeType, String cursor, int limit);
+    void streamHistory(String changeType, Instant from, Instant to, Consumer<List<AssetHistoryResponse>> chunkConsumer);
+    HistoryJournalStatsDto getHistoryJournalStats();
+    HistoryArchiveStatsDto getHistoryArchiveStats();
     List<AssetResponse> getFaultyAssignedAssets();
 }
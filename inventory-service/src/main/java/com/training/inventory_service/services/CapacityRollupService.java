@@ -0,0 +1,397 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.CapacityRollupDto;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import com.training.inventory_service.events.HierarchyNodesMovedEvent;
+import com.training.inventory_service.events.SplitterCapacityChangedEvent;
+import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.repositories.CoreSwitchRepository;
+import com.training.inventory_service.repositories.FdhRepository;
+import com.training.inventory_service.repositories.HeadendRepository;
+import com.training.inventory_service.repositories.HierarchyLinkView;
+import com.training.inventory_service.repositories.SplitterCapacityView;
+import com.training.inventory_service.repositories.SplitterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps port capacity and usage totals per FDH, core switch and headend in memory.
+ * Totals are seeded from the database at startup and then adjusted incrementally
+ * from hierarchy events after each commit, so a read is a map lookup instead of a
+ * topology rebuild. A periodic full rebuild corrects drift, e.g. from writes made
+ * by other instances of the service; changes committed while it reads are replayed
+ * onto the rebuilt tree before it is swapped in.
+ */
+@Service
+public class CapacityRollupService implements CapacityRollupServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityRollupService.class);
+
+    // --- Sonar: Exception Message Constants ---
+    private static final String HEADEND_NOT_FOUND_ID = "Headend not found with ID: %d";
+    private static final String CORE_SWITCH_NOT_FOUND_ID = "Core Switch not found with ID: %d";
+    private static final String FDH_NOT_FOUND_ID = "FDH not found with ID: %d";
+
+    private final SplitterRepository splitterRepository;
+    private final FdhRepository fdhRepository;
+    private final CoreSwitchRepository coreSwitchRepository;
+    private final HeadendRepository headendRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    // Guarded by "this"; replaced wholesale on rebuild
+    private RollupState state = new RollupState();
+
+    // Guarded by "this"; non-null while a rebuild is reading, so changes committed meanwhile are replayed on the new tree
+    private List<Consumer<RollupState>> pendingDuringRebuild;
+
+    @Autowired
+    public CapacityRollupService(SplitterRepository splitterRepository,
+                                 FdhRepository fdhRepository,
+                                 CoreSwitchRepository coreSwitchRepository,
+                                 HeadendRepository headendRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.splitterRepository = splitterRepository;
+        this.fdhRepository = fdhRepository;
+        this.coreSwitchRepository = coreSwitchRepository;
+        this.headendRepository = headendRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    // --- Reads ---
+
+    public synchronized CapacityRollupDto getHeadendCapacity(Long headendId) {
+        return toDto(AssetType.HEADEND, headendId, findTotals(state.headendTotals, headendId, HEADEND_NOT_FOUND_ID));
+    }
+
+    public synchronized CapacityRollupDto getCoreSwitchCapacity(Long coreSwitchId) {
+        return toDto(AssetType.CORE_SWITCH, coreSwitchId, findTotals(state.coreSwitchTotals, coreSwitchId, CORE_SWITCH_NOT_FOUND_ID));
+    }
+
+    public synchronized CapacityRollupDto getFdhCapacity(Long fdhId) {
+        return toDto(AssetType.FDH, fdhId, findTotals(state.fdhTotals, fdhId, FDH_NOT_FOUND_ID));
+    }
+
+    public synchronized List<CapacityRollupDto> getAllHeadendCapacities() {
+        return state.headendTotals.entrySet().stream()
+                .map(entry -> toDto(AssetType.HEADEND, entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public synchronized List<CapacityRollupDto> getCoreSwitchCapacitiesByHeadend(Long headendId) {
+        findTotals(state.headendTotals, headendId, HEADEND_NOT_FOUND_ID);
+        return state.coreSwitchesByHeadend.getOrDefault(headendId, Collections.emptySet()).stream()
+                .map(id -> toDto(AssetType.CORE_SWITCH, id, state.coreSwitchTotals.get(id)))
+                .toList();
+    }
+
+    public synchronized List<CapacityRollupDto> getFdhCapacitiesByCoreSwitch(Long coreSwitchId) {
+        findTotals(state.coreSwitchTotals, coreSwitchId, CORE_SWITCH_NOT_FOUND_ID);
+        return state.fdhsByCoreSwitch.getOrDefault(coreSwitchId, Collections.emptySet()).stream()
+                .map(id -> toDto(AssetType.FDH, id, state.fdhTotals.get(id)))
+                .toList();
+    }
+
+    // --- Incremental maintenance (applied only once the change is committed) ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSplitterCapacityChanged(SplitterCapacityChangedEvent event) {
+        state.applySplitter(event);
+        // The rebuild may already have read this change, so the replay sets the published usage instead of adding the delta
+        recordForRebuild(rebuilt -> rebuilt.replaceSplitter(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onHierarchyNodeChanged(HierarchyNodeChangedEvent event) {
+        state.applyNode(event);
+        recordForRebuild(rebuilt -> rebuilt.applyNode(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onHierarchyNodesMoved(HierarchyNodesMovedEvent event) {
+        state.applyMove(event);
+        recordForRebuild(rebuilt -> rebuilt.applyMove(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onHierarchyNodeDeleted(HierarchyNodeDeletedEvent event) {
+        state.applyDelete(event);
+        recordForRebuild(rebuilt -> rebuilt.applyDelete(event));
+    }
+
+    // Caller holds the lock
+    private void recordForRebuild(Consumer<RollupState> change) {
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(change);
+        }
+    }
+
+    // --- Full rebuild ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${inventory.capacity.rebuild-interval-ms:900000}",
+            fixedDelayString = "${inventory.capacity.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        // Read every level from one snapshot so parents and children agree
+        RollupState rebuilt;
+        try {
+            rebuilt = readOnlyTransactionTemplate.execute(status -> {
+                RollupState fresh = new RollupState();
+                headendRepository.findAllIds().forEach(id -> fresh.applyNode(new HierarchyNodeChangedEvent(AssetType.HEADEND, id, null)));
+                for (HierarchyLinkView link : coreSwitchRepository.findAllLinks()) {
+                    fresh.applyNode(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, link.getId(), link.getParentId()));
+                }
+                for (HierarchyLinkView link : fdhRepository.findAllLinks()) {
+                    fresh.applyNode(new HierarchyNodeChangedEvent(AssetType.FDH, link.getId(), link.getParentId()));
+                }
+                for (SplitterCapacityView splitter : splitterRepository.findAllProjectedBy()) {
+                    fresh.applySplitter(new SplitterCapacityChangedEvent(splitter.getId(), splitter.getFdhId(),
+                            splitter.getPortCapacity(), splitter.getUsedPorts(), 0));
+                }
+                return fresh;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // Node changes are idempotent and splitter changes replay as absolute values, so a change the rebuild already saw is harmless
+            pendingDuringRebuild.forEach(change -> change.accept(rebuilt));
+            pendingDuringRebuild = null;
+            state = rebuilt;
+        }
+        logger.info("Capacity rollups rebuilt for {} splitters in {} ms",
+                rebuilt.splitters.size(), System.currentTimeMillis() - start);
+    }
+
+    private static Totals findTotals(Map<Long, Totals> totals, Long id, String notFoundMessage) {
+        Totals found = totals.get(id);
+        if (found == null) {
+            throw new AssetNotFoundException(String.format(notFoundMessage, id));
+        }
+        return found;
+    }
+
+    private static CapacityRollupDto toDto(AssetType nodeType, Long id, Totals totals) {
+        CapacityRollupDto dto = new CapacityRollupDto();
+        dto.setNodeType(nodeType);
+        dto.setId(id);
+        dto.setSplitterCount(totals.splitterCount);
+        dto.setTotalPorts(totals.totalPorts);
+        dto.setUsedPorts(totals.usedPorts);
+        dto.setFreePorts(Math.max(0, totals.totalPorts - totals.usedPorts));
+        return dto;
+    }
+
+    private static final class Totals {
+        private int splitterCount;
+        private long totalPorts;
+        private long usedPorts;
+
+        private void add(int splitters, long total, long used) {
+            splitterCount += splitters;
+            totalPorts += total;
+            usedPorts += used;
+        }
+    }
+
+    private record SplitterState(Long fdhId, int portCapacity, int usedPorts) {
+    }
+
+    /**
+     * The rollup tree. Every change walks at most splitter -> FDH -> core switch -> headend,
+     * so each update costs a few map operations regardless of network size.
+     */
+    private static final class RollupState {
+        private final Map<Long, SplitterState> splitters = new HashMap<>();
+        private final Map<Long, Long> fdhParents = new HashMap<>();
+        private final Map<Long, Long> coreSwitchParents = new HashMap<>();
+        private final Map<Long, Totals> fdhTotals = new HashMap<>();
+        private final Map<Long, Totals> coreSwitchTotals = new HashMap<>();
+        private final Map<Long, Totals> headendTotals = new HashMap<>();
+        private final Map<Long, Set<Long>> fdhsByCoreSwitch = new HashMap<>();
+        private final Map<Long, Set<Long>> coreSwitchesByHeadend = new HashMap<>();
+
+        private void applySplitter(SplitterCapacityChangedEvent event) {
+            SplitterState previous = splitters.get(event.splitterId());
+            // Usage is taken as a delta once the splitter is known so out-of-order reservations still add up
+            int usedPorts = previous == null ? event.usedPorts() : Math.max(0, previous.usedPorts() + event.usedPortsDelta());
+            putSplitter(event.splitterId(), event.fdhId(), event.portCapacity(), usedPorts);
+        }
+
+        private void replaceSplitter(SplitterCapacityChangedEvent event) {
+            putSplitter(event.splitterId(), event.fdhId(), event.portCapacity(), event.usedPorts());
+        }
+
+        private void putSplitter(Long splitterId, Long fdhId, int portCapacity, int usedPorts) {
+            SplitterState previous = splitters.put(splitterId, new SplitterState(fdhId, portCapacity, usedPorts));
+            if (previous != null) {
+                addToFdh(previous.fdhId(), -1, -previous.portCapacity(), -previous.usedPorts());
+            }
+            addToFdh(fdhId, 1, portCapacity, usedPorts);
+        }
+
+        private void applyNode(HierarchyNodeChangedEvent event) {
+            switch (event.nodeType()) {
+                case HEADEND -> headendTotals.computeIfAbsent(event.id(), id -> new Totals());
+                case CORE_SWITCH -> {
+                    Totals totals = coreSwitchTotals.computeIfAbsent(event.id(), id -> new Totals());
+                    detachCoreSwitch(event.id(), totals);
+                    coreSwitchParents.put(event.id(), event.parentId());
+                    if (event.parentId() != null) {
+                        coreSwitchesByHeadend.computeIfAbsent(event.parentId(), id -> new LinkedHashSet<>()).add(event.id());
+                    }
+                    addToHeadend(event.parentId(), totals.splitterCount, totals.totalPorts, totals.usedPorts);
+                }
+                case FDH -> {
+                    Totals totals = fdhTotals.computeIfAbsent(event.id(), id -> new Totals());
+                    detachFdh(event.id(), totals);
+                    fdhParents.put(event.id(), event.parentId());
+                    if (event.parentId() != null) {
+                        fdhsByCoreSwitch.computeIfAbsent(event.parentId(), id -> new LinkedHashSet<>()).add(event.id());
+                    }
+                    addToCoreSwitch(event.parentId(), totals.splitterCount, totals.totalPorts, totals.usedPorts);
+                }
+                default -> logger.warn("Ignoring hierarchy change for unsupported node type {}", event.nodeType());
+            }
+        }
+
+        private void applyMove(HierarchyNodesMovedEvent event) {
+            switch (event.nodeType()) {
+                case SPLITTER -> moveSplitters(event.ids(), event.newParentId());
+                case FDH, CORE_SWITCH -> {
+                    for (Long id : event.ids()) {
+                        applyNode(new HierarchyNodeChangedEvent(event.nodeType(), id, event.newParentId()));
+                    }
+                }
+                default -> logger.warn("Ignoring hierarchy move for unsupported node type {}", event.nodeType());
+            }
+        }
+
+        // Sums the batch per old FDH so each affected branch is walked once, not once per splitter
+        private void moveSplitters(List<Long> ids, Long newFdhId) {
+            Map<Long, Totals> removedByFdh = new HashMap<>();
+            Totals moved = new Totals();
+            for (Long id : ids) {
+                SplitterState previous = splitters.get(id);
+                if (previous == null) {
+                    continue; // Not seen yet; the next rebuild places it
+                }
+                if (previous.fdhId() != null) {
+                    removedByFdh.computeIfAbsent(previous.fdhId(), fdhId -> new Totals())
+                            .add(1, previous.portCapacity(), previous.usedPorts());
+                }
+                splitters.put(id, new SplitterState(newFdhId, previous.portCapacity(), previous.usedPorts()));
+                moved.add(1, previous.portCapacity(), previous.usedPorts());
+            }
+            removedByFdh.forEach((fdhId, removed) ->
+                    addToFdh(fdhId, -removed.splitterCount, -removed.totalPorts, -removed.usedPorts));
+            addToFdh(newFdhId, moved.splitterCount, moved.totalPorts, moved.usedPorts);
+        }
+
+        private void applyDelete(HierarchyNodeDeletedEvent event) {
+            switch (event.nodeType()) {
+                case SPLITTER -> {
+                    SplitterState previous = splitters.remove(event.id());
+                    if (previous != null) {
+                        addToFdh(previous.fdhId(), -1, -previous.portCapacity(), -previous.usedPorts());
+                    }
+                }
+                case FDH -> {
+                    Totals totals = fdhTotals.remove(event.id());
+                    if (totals != null) {
+                        detachFdh(event.id(), totals);
+                    }
+                    fdhParents.remove(event.id());
+                }
+                case CORE_SWITCH -> {
+                    Totals totals = coreSwitchTotals.remove(event.id());
+                    if (totals != null) {
+                        detachCoreSwitch(event.id(), totals);
+                    }
+                    coreSwitchParents.remove(event.id());
+                    fdhsByCoreSwitch.remove(event.id());
+                }
+                case HEADEND -> {
+                    headendTotals.remove(event.id());
+                    coreSwitchesByHeadend.remove(event.id());
+                }
+                default -> logger.warn("Ignoring hierarchy delete for unsupported node type {}", event.nodeType());
+            }
+        }
+
+        private void detachFdh(Long fdhId, Totals totals) {
+            Long oldParent = fdhParents.get(fdhId);
+            if (oldParent != null) {
+                addToCoreSwitch(oldParent, -totals.splitterCount, -totals.totalPorts, -totals.usedPorts);
+                Set<Long> siblings = fdhsByCoreSwitch.get(oldParent);
+                if (siblings != null) {
+                    siblings.remove(fdhId);
+                }
+            }
+        }
+
+        private void detachCoreSwitch(Long coreSwitchId, Totals totals) {
+            Long oldParent = coreSwitchParents.get(coreSwitchId);
+            if (oldParent != null) {
+                addToHeadend(oldParent, -totals.splitterCount, -totals.totalPorts, -totals.usedPorts);
+                Set<Long> siblings = coreSwitchesByHeadend.get(oldParent);
+                if (siblings != null) {
+                    siblings.remove(coreSwitchId);
+                }
+            }
+        }
+
+        private void addToFdh(Long fdhId, int splitterCount, long totalPorts, long usedPorts) {
+            if (fdhId == null) {
+                return;
+            }
+            fdhTotals.computeIfAbsent(fdhId, id -> new Totals()).add(splitterCount, totalPorts, usedPorts);
+            addToCoreSwitch(fdhParents.get(fdhId), splitterCount, totalPorts, usedPorts);
+        }
+
+        private void addToCoreSwitch(Long coreSwitchId, int splitterCount, long totalPorts, long usedPorts) {
+            if (coreSwitchId == null) {
+                return;
+            }
+            coreSwitchTotals.computeIfAbsent(coreSwitchId, id -> new Totals()).add(splitterCount, totalPorts, usedPorts);
+            addToHeadend(coreSwitchParents.get(coreSwitchId), splitterCount, totalPorts, usedPorts);
+        }
+
+        private void addToHeadend(Long headendId, int splitterCount, long totalPorts, long usedPorts) {
+            if (headendId == null) {
+                return;
+            }
+            headendTotals.computeIfAbsent(headendId, id -> new Totals()).add(splitterCount, totalPorts, usedPorts);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.CapacityRollupDto;
+
+import java.util.List;
+
+public interface CapacityRollupServiceInterface {
+    CapacityRollupDto getHeadendCapacity(Long headendId);
+    CapacityRollupDto getCoreSwitchCapacity(Long coreSwitchId);
+    CapacityRollupDto getFdhCapacity(Long fdhId);
+    List<CapacityRollupDto> getAllHeadendCapacities();
+    List<CapacityRollupDto> getCoreSwitchCapacitiesByHeadend(Long headendId);
+    List<CapacityRollupDto> getFdhCapacitiesByCoreSwitch(Long coreSwitchId);
+    void rebuild();
+}
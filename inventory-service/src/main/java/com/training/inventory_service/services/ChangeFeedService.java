@@ -0,0 +1,217 @@
+package com.training.inventory_service.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+import com.training.inventory_service.dtos.InventoryChangeDto;
+import com.training.inventory_service.entities.InventoryChange;
+import com.training.inventory_service.enums.ChangeEntityType;
+import com.training.inventory_service.enums.ChangeOperation;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import com.training.inventory_service.events.HierarchyNodesMovedEvent;
+import com.training.inventory_service.events.SplitterCapacityChangedEvent;
+import com.training.inventory_service.exceptions.ChangeFeedExpiredException;
+import com.training.inventory_service.exceptions.InvalidCursorException;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.InventoryChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only change feed for assets and the network hierarchy.
+ * <p>
+ * Every mutation event is turned into a row of {@code inventory_changes}, written in the same
+ * transaction as the change itself (just before commit, batched per transaction), so the feed
+ * never shows a change that was rolled back. Consumers page through it by sequence number.
+ * Sequence numbers are allocated at insert time but become visible at commit, so a page stops
+ * at the first row younger than the settle window; a slower transaction holding a lower
+ * sequence then still gets its rows in before the consumer's position moves past them.
+ */
+@Service
+public class ChangeFeedService implements ChangeFeedServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    // --- Sonar: Exception Message Constants ---
+    private static final String INVALID_SINCE_MSG = "'since' must be zero or a sequence number returned by the feed.";
+    private static final String FEED_EXPIRED_MSG = "Changes after sequence %d are no longer retained; resynchronize and resume from the current sequence.";
+    private static final String PAYLOAD_SERIALIZATION_FAILED_MSG = "Failed to serialize change payload";
+
+    private final InventoryChangeRepository inventoryChangeRepository;
+    private final AssetBatchRepository assetBatchRepository;
+    private final ObjectMapper objectMapper;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final Duration settleWindow;
+    private final Duration retention;
+
+    @Autowired
+    public ChangeFeedService(InventoryChangeRepository inventoryChangeRepository,
+                             AssetBatchRepository assetBatchRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${inventory.changes.default-limit:500}") int defaultLimit,
+                             @Value("${inventory.changes.max-limit:5000}") int maxLimit,
+                             @Value("${inventory.changes.settle-ms:2000}") long settleMillis,
+                             @Value("${inventory.changes.retention-days:30}") long retentionDays) {
+        this.inventoryChangeRepository = inventoryChangeRepository;
+        this.assetBatchRepository = assetBatchRepository;
+        this.objectMapper = objectMapper;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.settleWindow = Duration.ofMillis(settleMillis);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    // --- Reads ---
+
+    public ChangeFeedResponse getChanges(long since, Integer limit) {
+        if (since < 0) {
+            throw new InvalidCursorException(INVALID_SINCE_MSG);
+        }
+        Long first = inventoryChangeRepository.findFirstSequence();
+        if (first != null && since < first - 1) {
+            // Older rows were pruned (or never committed); either way the consumer can no longer catch up incrementally
+            throw new ChangeFeedExpiredException(String.format(FEED_EXPIRED_MSG, since));
+        }
+
+        int effectiveLimit = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+        Instant settledBefore = Instant.now().minus(settleWindow);
+        List<InventoryChange> rows = inventoryChangeRepository.findByIdGreaterThanOrderByIdAsc(since, PageRequest.of(0, effectiveLimit + 1));
+        // Stop at the first unsettled row rather than skipping it: commit timestamps are not
+        // ordered by sequence, so settled rows after it must wait until it has settled too
+        int settled = 0;
+        while (settled < rows.size() && !rows.get(settled).getChangedAt().isAfter(settledBefore)) {
+            settled++;
+        }
+
+        ChangeFeedResponse response = new ChangeFeedResponse();
+        response.setHasMore(settled > effectiveLimit);
+        List<InventoryChange> page = rows.subList(0, Math.min(settled, effectiveLimit));
+        page.forEach(row -> response.getChanges().add(toDto(row)));
+        response.setNextSince(page.isEmpty() ? since : page.get(page.size() - 1).getId());
+        return response;
+    }
+
+    public long getLastSequence() {
+        Long last = inventoryChangeRepository.findLastSequence();
+        return last == null ? 0 : last;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.changes.prune-interval-ms:3600000}")
+    public void pruneExpiredChanges() {
+        int pruned = inventoryChangeRepository.deleteByChangedAtBefore(Instant.now().minus(retention));
+        if (pruned > 0) {
+            logger.info("Pruned {} change feed entries older than {} days", pruned, retention.toDays());
+        }
+    }
+
+    // --- Recording (runs in the publisher's transaction) ---
+
+    @EventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        if (event.after() == null) {
+            record(ChangeEntityType.ASSET, event.assetId(), ChangeOperation.DELETE, null);
+        } else {
+            record(ChangeEntityType.ASSET, event.assetId(), ChangeOperation.UPSERT, event.after());
+        }
+    }
+
+    @EventListener
+    public void onHierarchyNodeChanged(HierarchyNodeChangedEvent event) {
+        record(ChangeEntityType.valueOf(event.nodeType().name()), event.id(), ChangeOperation.UPSERT, event);
+    }
+
+    @EventListener
+    public void onSplitterCapacityChanged(SplitterCapacityChangedEvent event) {
+        record(ChangeEntityType.SPLITTER, event.splitterId(), ChangeOperation.UPSERT, event);
+    }
+
+    // A bulk move still yields one row per node so feed consumers never see a batch-shaped entry
+    @EventListener
+    public void onHierarchyNodesMoved(HierarchyNodesMovedEvent event) {
+        ChangeEntityType entityType = ChangeEntityType.valueOf(event.nodeType().name());
+        for (Long id : event.ids()) {
+            record(entityType, id, ChangeOperation.UPSERT, new HierarchyNodeChangedEvent(event.nodeType(), id, event.newParentId()));
+        }
+    }
+
+    @EventListener
+    public void onHierarchyNodeDeleted(HierarchyNodeDeletedEvent event) {
+        record(ChangeEntityType.valueOf(event.nodeType().name()), event.id(), ChangeOperation.DELETE, null);
+    }
+
+    private void record(ChangeEntityType entityType, Long entityId, ChangeOperation operation, Object payload) {
+        InventoryChange change = new InventoryChange();
+        change.setEntityType(entityType);
+        change.setEntityId(entityId);
+        change.setOperation(operation);
+        change.setPayload(payload == null ? null : serialize(payload));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(change));
+            return;
+        }
+
+        // Collect all changes of one transaction and insert them in one batch right before it commits
+        @SuppressWarnings("unchecked")
+        List<InventoryChange> changes = (List<InventoryChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<InventoryChange> transactionChanges = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(transactionChanges);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedService.this);
+                }
+            });
+            changes = transactionChanges;
+        }
+        changes.add(change);
+    }
+
+    private void write(List<InventoryChange> changes) {
+        // Stamped as late as possible so the settle window starts close to the commit
+        Instant now = Instant.now();
+        changes.forEach(change -> change.setChangedAt(now));
+        assetBatchRepository.insertChanges(changes);
+    }
+
+    private String serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(PAYLOAD_SERIALIZATION_FAILED_MSG, e);
+        }
+    }
+
+    private static InventoryChangeDto toDto(InventoryChange change) {
+        InventoryChangeDto dto = new InventoryChangeDto();
+        dto.setSequence(change.getId());
+        dto.setEntityType(change.getEntityType());
+        dto.setEntityId(change.getEntityId());
+        dto.setOperation(change.getOperation());
+        dto.setPayload(change.getPayload());
+        dto.setChangedAt(change.getChangedAt());
+        return dto;
+    }
+}
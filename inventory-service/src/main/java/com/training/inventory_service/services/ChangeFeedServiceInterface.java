@@ -0,0 +1,9 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+
+public interface ChangeFeedServiceInterface {
+    ChangeFeedResponse getChanges(long since, Integer limit);
+    long getLastSequence();
+    void pruneExpiredChanges();
+}
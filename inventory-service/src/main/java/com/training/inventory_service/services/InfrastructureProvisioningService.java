@@ -0,0 +1,278 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.CoreSwitchDto;
+import com.training.inventory_service.dtos.CoreSwitchProvisionRequest;
+import com.training.inventory_service.dtos.FdhDto;
+import com.training.inventory_service.dtos.FdhProvisionRequest;
+import com.training.inventory_service.dtos.ProvisionResult;
+import com.training.inventory_service.dtos.SplitterDto;
+import com.training.inventory_service.dtos.SplitterProvisionRequest;
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.entities.CoreSwitch;
+import com.training.inventory_service.entities.Fdh;
+import com.training.inventory_service.entities.Splitter;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import com.training.inventory_service.events.SplitterCapacityChangedEvent;
+import com.training.inventory_service.exceptions.AssetAlreadyExistsException;
+import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetRepository;
+import com.training.inventory_service.repositories.CoreSwitchRepository;
+import com.training.inventory_service.repositories.FdhRepository;
+import com.training.inventory_service.repositories.HeadendRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates a whole FDH or core switch subtree in one transaction.
+ * Assets, subtype rows and history are written with JDBC batches; generated asset ids
+ * are read back with a single query by serial number and the response is built from
+ * the request, so nothing is re-read through JPA.
+ */
+@Service
+public class InfrastructureProvisioningService implements InfrastructureProvisioningServiceInterface {
+
+    // --- Sonar: Exception Message Constants ---
+    private static final String HEADEND_NOT_FOUND_ID = "Headend not found with ID: %d";
+    private static final String CORE_SWITCH_NOT_FOUND_ID = "Core Switch not found with ID: %d";
+    private static final String SERIAL_ALREADY_EXISTS = "Asset with serial number %s already exists.";
+    private static final String SERIAL_DUPLICATED = "Serial number %s appears more than once in the provisioning request.";
+    private static final String FDH_NAME_ALREADY_EXISTS = "FDH with name %s already exists.";
+    private static final String FDH_NAME_DUPLICATED = "FDH name %s appears more than once in the provisioning request.";
+    private static final String CORE_SWITCH_NAME_ALREADY_EXISTS = "Core Switch with name %s already exists.";
+
+    // --- Sonar: Log Type Constants (kept in line with AssetService) ---
+    private static final String LOG_ASSET_CREATED = "ASSET_CREATED";
+    private static final String LOG_DESC_ASSET_CREATED = "New asset created.";
+
+    // Defaults match the single-node create endpoints in NetworkHierarchyService
+    private static final String MODEL_INFRASTRUCTURE = "Infrastructure";
+    private static final String MODEL_CORE_INFRASTRUCTURE = "Core Infrastructure";
+    private static final String MODEL_SPLITTER_SUFFIX = "-Port Splitter";
+    private static final String SPLITTER_SERIAL_INFIX = "-SPL-";
+
+    private final AssetRepository assetRepository;
+    private final AssetBatchRepository assetBatchRepository;
+    private final HeadendRepository headendRepository;
+    private final CoreSwitchRepository coreSwitchRepository;
+    private final FdhRepository fdhRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public InfrastructureProvisioningService(AssetRepository assetRepository, AssetBatchRepository assetBatchRepository, HeadendRepository headendRepository, CoreSwitchRepository coreSwitchRepository, FdhRepository fdhRepository, ApplicationEventPublisher eventPublisher) {
+        this.assetRepository = assetRepository;
+        this.assetBatchRepository = assetBatchRepository;
+        this.headendRepository = headendRepository;
+        this.coreSwitchRepository = coreSwitchRepository;
+        this.fdhRepository = fdhRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public ProvisionResult provisionFdh(FdhProvisionRequest request, Long userId) {
+        if (request.getCoreSwitchId() != null && !coreSwitchRepository.existsById(request.getCoreSwitchId())) {
+            throw new AssetNotFoundException(String.format(CORE_SWITCH_NOT_FOUND_ID, request.getCoreSwitchId()));
+        }
+        ProvisionPlan plan = new ProvisionPlan();
+        plan.addFdh(request, request.getCoreSwitchId());
+        return execute(plan, userId);
+    }
+
+    @Transactional
+    public ProvisionResult provisionCoreSwitch(CoreSwitchProvisionRequest request, Long userId) {
+        if (!headendRepository.existsById(request.getHeadendId())) {
+            throw new AssetNotFoundException(String.format(HEADEND_NOT_FOUND_ID, request.getHeadendId()));
+        }
+        if (!coreSwitchRepository.findExistingNames(List.of(request.getName())).isEmpty()) {
+            throw new AssetAlreadyExistsException(String.format(CORE_SWITCH_NAME_ALREADY_EXISTS, request.getName()));
+        }
+        ProvisionPlan plan = new ProvisionPlan();
+        plan.addCoreSwitch(request);
+        for (FdhProvisionRequest fdhRequest : request.getFdhs()) {
+            plan.addFdh(fdhRequest, null);
+        }
+        return execute(plan, userId);
+    }
+
+    private ProvisionResult execute(ProvisionPlan plan, Long userId) {
+        validateUnique(plan);
+
+        List<String> serials = new ArrayList<>(plan.assets.size());
+        for (Asset asset : plan.assets) {
+            serials.add(asset.getSerialNumber());
+        }
+        assetBatchRepository.insertAssets(plan.assets);
+        Map<String, Long> idsBySerial = new HashMap<>(serials.size() * 2);
+        for (AssetSnapshot created : assetBatchRepository.findSnapshotsBySerials(serials)) {
+            idsBySerial.put(created.serialNumber(), created.id());
+            eventPublisher.publishEvent(AssetChangedEvent.created(created));
+        }
+
+        // Parents are resolved before children so each child can copy its parent's id
+        if (plan.coreSwitch != null) {
+            plan.coreSwitch.setId(idsBySerial.get(plan.coreSwitch.getAsset().getSerialNumber()));
+        }
+        for (Fdh fdh : plan.fdhs) {
+            fdh.setId(idsBySerial.get(fdh.getAsset().getSerialNumber()));
+            if (plan.coreSwitch != null) {
+                fdh.setCoreSwitchId(plan.coreSwitch.getId());
+            }
+        }
+        for (PlannedSplitter planned : plan.splitters) {
+            planned.splitter().setId(idsBySerial.get(planned.splitter().getAsset().getSerialNumber()));
+            planned.splitter().setFdhId(planned.fdh().getId());
+        }
+
+        ProvisionResult result = new ProvisionResult();
+        if (plan.coreSwitch != null) {
+            assetBatchRepository.insertCoreSwitches(List.of(plan.coreSwitch));
+            eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, plan.coreSwitch.getId(), plan.coreSwitch.getHeadendId()));
+            result.setCoreSwitch(toCoreSwitchDto(plan.coreSwitch));
+        }
+        assetBatchRepository.insertFdhs(plan.fdhs);
+        for (Fdh fdh : plan.fdhs) {
+            eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.FDH, fdh.getId(), fdh.getCoreSwitchId()));
+            result.getFdhs().add(toFdhDto(fdh));
+        }
+        List<Splitter> splitters = new ArrayList<>(plan.splitters.size());
+        for (PlannedSplitter planned : plan.splitters) {
+            splitters.add(planned.splitter());
+        }
+        assetBatchRepository.insertSplitters(splitters);
+        for (Splitter splitter : splitters) {
+            eventPublisher.publishEvent(new SplitterCapacityChangedEvent(splitter.getId(), splitter.getFdhId(),
+                    splitter.getPortCapacity(), splitter.getUsedPorts(), 0));
+            result.getSplitters().add(toSplitterDto(splitter));
+        }
+
+        assetBatchRepository.insertHistoryForSerials(serials, LOG_ASSET_CREATED, LOG_DESC_ASSET_CREATED, userId);
+        return result;
+    }
+
+    private void validateUnique(ProvisionPlan plan) {
+        Set<String> serials = new HashSet<>();
+        for (Asset asset : plan.assets) {
+            if (!serials.add(asset.getSerialNumber())) {
+                throw new AssetAlreadyExistsException(String.format(SERIAL_DUPLICATED, asset.getSerialNumber()));
+            }
+        }
+        List<String> existingSerials = assetRepository.findExistingSerialNumbers(serials);
+        if (!existingSerials.isEmpty()) {
+            throw new AssetAlreadyExistsException(String.format(SERIAL_ALREADY_EXISTS, existingSerials.get(0)));
+        }
+
+        Set<String> fdhNames = new HashSet<>();
+        for (Fdh fdh : plan.fdhs) {
+            if (!fdhNames.add(fdh.getName())) {
+                throw new AssetAlreadyExistsException(String.format(FDH_NAME_DUPLICATED, fdh.getName()));
+            }
+        }
+        if (!fdhNames.isEmpty()) {
+            List<String> existingNames = fdhRepository.findExistingNames(fdhNames);
+            if (!existingNames.isEmpty()) {
+                throw new AssetAlreadyExistsException(String.format(FDH_NAME_ALREADY_EXISTS, existingNames.get(0)));
+            }
+        }
+    }
+
+    private static Asset newAsset(AssetType type, String serialNumber, String model, String location, Instant createdAt) {
+        Asset asset = new Asset();
+        asset.setAssetType(type);
+        asset.setSerialNumber(serialNumber);
+        asset.setModel(model);
+        asset.setLocation(location);
+        asset.setAssetStatus(AssetStatus.AVAILABLE);
+        asset.setCreatedAt(createdAt);
+        return asset;
+    }
+
+    private static String defaultIfBlank(String value, String fallback) {
+        return StringUtils.hasText(value) ? value : fallback;
+    }
+
+    private static CoreSwitchDto toCoreSwitchDto(CoreSwitch coreSwitch) {
+        return new CoreSwitchDto(coreSwitch.getId(), coreSwitch.getName(), coreSwitch.getLocation(), coreSwitch.getHeadendId(),
+                coreSwitch.getAsset().getSerialNumber(), coreSwitch.getAsset().getModel());
+    }
+
+    private static FdhDto toFdhDto(Fdh fdh) {
+        return new FdhDto(fdh.getId(), fdh.getName(), fdh.getRegion(), fdh.getCoreSwitchId(),
+                fdh.getAsset().getSerialNumber(), fdh.getAsset().getModel());
+    }
+
+    private static SplitterDto toSplitterDto(Splitter splitter) {
+        return new SplitterDto(splitter.getId(), splitter.getFdhId(), splitter.getPortCapacity(), splitter.getUsedPorts(),
+                splitter.getAsset().getSerialNumber(), splitter.getNeighborhood(), splitter.getAsset().getModel());
+    }
+
+    private record PlannedSplitter(Splitter splitter, Fdh fdh) {
+    }
+
+    /**
+     * The subtree flattened into insert order. Entities hold their unsaved asset until the
+     * generated ids are known; none of them is ever attached to the persistence context.
+     */
+    private static final class ProvisionPlan {
+        private final Instant createdAt = Instant.now();
+        private final List<Asset> assets = new ArrayList<>();
+        private final List<Fdh> fdhs = new ArrayList<>();
+        private final List<PlannedSplitter> splitters = new ArrayList<>();
+        private CoreSwitch coreSwitch;
+
+        void addCoreSwitch(CoreSwitchProvisionRequest request) {
+            Asset asset = newAsset(AssetType.CORE_SWITCH, defaultIfBlank(request.getSerialNumber(), request.getName()),
+                    defaultIfBlank(request.getModel(), MODEL_CORE_INFRASTRUCTURE), request.getLocation(), createdAt);
+            assets.add(asset);
+            coreSwitch = new CoreSwitch();
+            coreSwitch.setAsset(asset);
+            coreSwitch.setName(request.getName());
+            coreSwitch.setLocation(request.getLocation());
+            coreSwitch.setHeadendId(request.getHeadendId());
+        }
+
+        void addFdh(FdhProvisionRequest request, Long coreSwitchId) {
+            String fdhSerial = defaultIfBlank(request.getSerialNumber(), request.getName());
+            Asset asset = newAsset(AssetType.FDH, fdhSerial,
+                    defaultIfBlank(request.getModel(), MODEL_INFRASTRUCTURE), request.getRegion(), createdAt);
+            assets.add(asset);
+            Fdh fdh = new Fdh();
+            fdh.setAsset(asset);
+            fdh.setName(request.getName());
+            fdh.setRegion(request.getRegion());
+            fdh.setCoreSwitchId(coreSwitchId);
+            fdhs.add(fdh);
+
+            int index = 0;
+            for (SplitterProvisionRequest splitterRequest : request.getSplitters()) {
+                index++;
+                Asset splitterAsset = newAsset(AssetType.SPLITTER,
+                        defaultIfBlank(splitterRequest.getSerialNumber(), fdhSerial + SPLITTER_SERIAL_INFIX + index),
+                        defaultIfBlank(splitterRequest.getModel(), splitterRequest.getPortCapacity() + MODEL_SPLITTER_SUFFIX),
+                        splitterRequest.getNeighborhood(), createdAt);
+                assets.add(splitterAsset);
+                Splitter splitter = new Splitter();
+                splitter.setAsset(splitterAsset);
+                splitter.setPortCapacity(splitterRequest.getPortCapacity());
+                splitter.setUsedPorts(0);
+                splitter.setPortMap(0L);
+                splitter.setNeighborhood(splitterRequest.getNeighborhood());
+                splitters.add(new PlannedSplitter(splitter, fdh));
+            }
+        }
+    }
+}
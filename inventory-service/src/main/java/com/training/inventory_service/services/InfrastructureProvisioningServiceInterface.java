@@ -0,0 +1,10 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.CoreSwitchProvisionRequest;
+import com.training.inventory_service.dtos.FdhProvisionRequest;
+import com.training.inventory_service.dtos.ProvisionResult;
+
+public interface InfrastructureProvisioningServiceInterface {
+    ProvisionResult provisionFdh(FdhProvisionRequest request, Long userId);
+    ProvisionResult provisionCoreSwitch(CoreSwitchProvisionRequest request, Long userId);
+}
@@ -0,0 +1,238 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetCountDto;
+import com.training.inventory_service.dtos.InventoryStatsDto;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetCountView;
+import com.training.inventory_service.repositories.AssetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps asset counts per (type, status, location) in memory so dashboards can read
+ * inventory totals without touching the database. The counters are seeded from one
+ * GROUP BY at startup, adjusted from every committed asset change, and periodically
+ * reconciled against the database to correct drift, e.g. from writes made by other
+ * instances of the service. Changes committed while a reconcile counts are resolved per
+ * asset against the recount's snapshot (see {@link PendingAssetChanges}), so none is lost
+ * or counted twice.
+ */
+@Service
+public class InventoryStatsService implements InventoryStatsServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryStatsService.class);
+
+    static final String UNSPECIFIED_LOCATION = "UNSPECIFIED";
+
+    // Touched assets looked up per query while resolving changes committed during a reconcile
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final Comparator<Map.Entry<CountKey, Long>> KEY_ORDER = Comparator
+            .comparing((Map.Entry<CountKey, Long> entry) -> entry.getKey().assetType())
+            .thenComparing(entry -> entry.getKey().assetStatus())
+            .thenComparing(entry -> entry.getKey().location(), Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final AssetRepository assetRepository;
+    private final AssetBatchRepository assetBatchRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    // Guarded by "this"; replaced wholesale on reconcile
+    private Map<CountKey, Long> counts = new HashMap<>();
+    private Instant reconciledAt;
+
+    // Guarded by "this"; non-null while a reconcile is counting, so changes committed meanwhile are resolved on the new counters
+    private PendingAssetChanges pendingDuringReconcile;
+
+    @Autowired
+    public InventoryStatsService(AssetRepository assetRepository,
+                                 AssetBatchRepository assetBatchRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.assetRepository = assetRepository;
+        this.assetBatchRepository = assetBatchRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Totals for the assets matching the optional filters; a null filter matches everything.
+     */
+    public synchronized InventoryStatsDto getStats(AssetType type, AssetStatus status, String location) {
+        long total = 0;
+        Map<AssetType, Long> byType = new EnumMap<>(AssetType.class);
+        Map<AssetStatus, Long> byStatus = new EnumMap<>(AssetStatus.class);
+        Map<String, Long> byLocation = new TreeMap<>();
+        List<AssetCountDto> rows = new ArrayList<>();
+        for (Map.Entry<CountKey, Long> entry : counts.entrySet().stream().sorted(KEY_ORDER).toList()) {
+            CountKey key = entry.getKey();
+            if (!key.matches(type, status, location)) {
+                continue;
+            }
+            long count = entry.getValue();
+            total += count;
+            byType.merge(key.assetType(), count, Long::sum);
+            byStatus.merge(key.assetStatus(), count, Long::sum);
+            byLocation.merge(key.location() == null ? UNSPECIFIED_LOCATION : key.location(), count, Long::sum);
+            rows.add(toDto(key, count));
+        }
+
+        InventoryStatsDto dto = new InventoryStatsDto();
+        dto.setTotalAssets(total);
+        dto.setByType(byType);
+        dto.setByStatus(byStatus);
+        dto.setByLocation(byLocation);
+        dto.setCounts(rows);
+        dto.setReconciledAt(reconciledAt);
+        return dto;
+    }
+
+    // --- Incremental maintenance (applied only once the change is committed) ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAssetChanged(AssetChangedEvent event) {
+        apply(counts, event);
+        if (pendingDuringReconcile != null) {
+            pendingDuringReconcile.add(event);
+        }
+    }
+
+    // --- Full reconcile ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${inventory.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${inventory.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingDuringReconcile = new PendingAssetChanges();
+        }
+        ReconcileOutcome outcome;
+        try {
+            // One read-only transaction, so the recount and the lookups of assets changed meanwhile share a snapshot
+            outcome = readOnlyTransactionTemplate.execute(status -> recountAndSwap());
+        } finally {
+            synchronized (this) {
+                pendingDuringReconcile = null;
+            }
+        }
+        if (outcome.seeded() && outcome.drifted() > 0) {
+            logger.warn("Inventory stats drifted on {} counters; corrected from the database", outcome.drifted());
+        }
+        logger.info("Inventory stats reconciled over {} counters in {} ms", outcome.counters(), System.currentTimeMillis() - start);
+    }
+
+    private ReconcileOutcome recountAndSwap() {
+        Map<CountKey, Long> fresh = new HashMap<>();
+        for (AssetCountView row : assetRepository.countByTypeStatusAndLocation()) {
+            fresh.put(new CountKey(row.getAssetType(), row.getAssetStatus(), row.getLocation()), row.getAssetCount());
+        }
+        while (true) {
+            List<Long> ids;
+            synchronized (this) {
+                ids = pendingDuringReconcile.idsToLookUp(LOOKUP_CHUNK_SIZE);
+                if (ids.isEmpty()) {
+                    // Resolved and swapped under one lock, so no change can slip in between
+                    pendingDuringReconcile.forEachCorrection((counted, latest) -> {
+                        if (counted != null) {
+                            adjust(fresh, CountKey.of(counted), -1);
+                        }
+                        if (latest != null) {
+                            adjust(fresh, CountKey.of(latest), 1);
+                        }
+                    });
+                    pendingDuringReconcile = null;
+                    boolean seeded = reconciledAt != null;
+                    int drifted = countDrift(counts, fresh);
+                    counts = fresh;
+                    reconciledAt = Instant.now();
+                    return new ReconcileOutcome(fresh.size(), drifted, seeded);
+                }
+            }
+            List<AssetSnapshot> rows = assetBatchRepository.findSnapshotsByIds(ids);
+            synchronized (this) {
+                pendingDuringReconcile.recordCounted(ids, rows);
+            }
+        }
+    }
+
+    private static void apply(Map<CountKey, Long> target, AssetChangedEvent event) {
+        if (event.before() != null) {
+            adjust(target, CountKey.of(event.before()), -1);
+        }
+        if (event.after() != null) {
+            adjust(target, CountKey.of(event.after()), 1);
+        }
+    }
+
+    private static void adjust(Map<CountKey, Long> target, CountKey key, long delta) {
+        // Drop a counter that reaches zero so the key set only holds combinations that exist
+        target.compute(key, (k, current) -> {
+            long updated = (current == null ? 0 : current) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    private static int countDrift(Map<CountKey, Long> current, Map<CountKey, Long> fresh) {
+        Set<CountKey> keys = new HashSet<>(current.keySet());
+        keys.addAll(fresh.keySet());
+        int drifted = 0;
+        for (CountKey key : keys) {
+            if (!Objects.equals(current.get(key), fresh.get(key))) {
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private static AssetCountDto toDto(CountKey key, long count) {
+        AssetCountDto dto = new AssetCountDto();
+        dto.setAssetType(key.assetType());
+        dto.setAssetStatus(key.assetStatus());
+        dto.setLocation(key.location());
+        dto.setCount(count);
+        return dto;
+    }
+
+    private record ReconcileOutcome(int counters, int drifted, boolean seeded) {
+    }
+
+    private record CountKey(AssetType assetType, AssetStatus assetStatus, String location) {
+
+        static CountKey of(AssetSnapshot asset) {
+            return new CountKey(asset.assetType(), asset.assetStatus(), asset.location());
+        }
+
+        boolean matches(AssetType type, AssetStatus status, String locationFilter) {
+            return (type == null || type == assetType)
+                    && (status == null || status == assetStatus)
+                    && (locationFilter == null || locationFilter.equals(location == null ? UNSPECIFIED_LOCATION : location));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.InventoryStatsDto;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+
+public interface InventoryStatsServiceInterface {
+    InventoryStatsDto getStats(AssetType type, AssetStatus status, String location);
+    void reconcile();
+}
@@ -1,25 +1,49 @@
 package com.training.inventory_service.services;
 
+import com.training.inventory_service.cache.HierarchyDetailsCache;
 import com.training.inventory_service.dtos.*;
 import com.training.inventory_service.entities.*;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import com.training.inventory_service.events.HierarchyNodesMovedEvent;
+import com.training.inventory_service.events.SplitterCapacityChangedEvent;
 import com.training.inventory_service.exceptions.AssetInUseException;
 import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.exceptions.InvalidReparentRequestException;
+import com.training.inventory_service.exceptions.InvalidSplitterPortException;
+import com.training.inventory_service.exceptions.SplitterCapacityExceededException;
+import com.training.inventory_service.exceptions.SplitterPortInUseException;
 import com.training.inventory_service.repositories.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class NetworkHierarchyService implements NetworkHierarchyServiceInterface {
 
+    private static final Logger logger = LoggerFactory.getLogger(NetworkHierarchyService.class);
+
     // --- Sonar: Constants for repeated strings (S1192) ---
     private static final String ASSET_NOT_FOUND_ID = "Asset not found with ID: %d";
     private static final String HEADEND_NOT_FOUND_ID = "Headend not found with ID: %d";
@@ -32,6 +56,18 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
     private static final String FDH_DETAILS_NOT_FOUND = "FDH details not found";
     private static final String SPLITTER_DETAILS_NOT_FOUND = "Splitter details not found";
     private static final String SPLITTER_NOT_FOUND = "Splitter not found";
+    private static final String SPLITTER_FULL = "Splitter %d is at full capacity.";
+    private static final String SPLITTER_PORT_CONTENDED = "Could not reserve a port on splitter %d due to concurrent reservations. Please retry.";
+    private static final String PORT_IN_USE = "Port %d on splitter %d is already in use.";
+    private static final String PORT_OUT_OF_RANGE = "Port %d is out of range for splitter %d with capacity %d.";
+    private static final String PORT_NUMBER_INVALID = "Port number %d is invalid. Ports are numbered 1 to %d.";
+    private static final String PORT_CAPACITY_INVALID = "Splitter port capacity must be between 1 and %d.";
+    private static final String PORT_CAPACITY_BELOW_USAGE = "Port capacity %d is below the ports currently in use on splitter %d.";
+    private static final String USED_PORTS_BELOW_OCCUPIED = "Used ports cannot be set below the %d ports occupied on splitter %d.";
+
+    private static final String BULK_REPARENT_SELECTOR = "Specify either a source parent or a non-empty list of IDs to move, not both.";
+
+    private static final int MAX_PORT_RESERVE_ATTEMPTS = 8;
 
     private static final String ASSET_CREATE_HIERARCHY_FAIL = "Failed to create asset during hierarchy setup";
     private static final String MODEL_INFRASTRUCTURE = "Infrastructure";
@@ -43,15 +79,19 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
     private final SplitterRepository splitterRepository;
     private final CoreSwitchRepository coreSwitchRepository;
     private final AssetServiceInterface assetService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HierarchyDetailsCache detailsCache;
 
     @Autowired
-    public NetworkHierarchyService(AssetRepository assetRepository, HeadendRepository headendRepository, FdhRepository fdhRepository, SplitterRepository splitterRepository, CoreSwitchRepository coreSwitchRepository, AssetServiceInterface assetService) {
+    public NetworkHierarchyService(AssetRepository assetRepository, HeadendRepository headendRepository, FdhRepository fdhRepository, SplitterRepository splitterRepository, CoreSwitchRepository coreSwitchRepository, AssetServiceInterface assetService, ApplicationEventPublisher eventPublisher, HierarchyDetailsCache detailsCache) {
         this.assetRepository = assetRepository;
         this.headendRepository = headendRepository;
         this.fdhRepository = fdhRepository;
         this.splitterRepository = splitterRepository;
         this.coreSwitchRepository = coreSwitchRepository;
         this.assetService = assetService;
+        this.eventPublisher = eventPublisher;
+        this.detailsCache = detailsCache;
     }
 
     @Transactional
@@ -60,9 +100,12 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
                 .orElseThrow(() -> new AssetNotFoundException(String.format(ASSET_NOT_FOUND_ID, assetId)));
 
         // Update common asset fields
+        AssetSnapshot before = AssetSnapshot.of(asset);
         if (request.getLocation() != null) asset.setLocation(request.getLocation());
         if (request.getModel() != null) asset.setModel(request.getModel());
         assetRepository.save(asset);
+        eventPublisher.publishEvent(new AssetChangedEvent(before, AssetSnapshot.of(asset)));
+        detailsCache.evict(asset.getAssetType(), assetId);
 
         // Update specific infrastructure fields
         switch (asset.getAssetType()) {
@@ -82,7 +125,15 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
             case SPLITTER:
                 Splitter splitter = splitterRepository.findByAssetId(assetId).orElseThrow(() -> new AssetNotFoundException(SPLITTER_DETAILS_NOT_FOUND));
                 if (request.getNeighborhood() != null) splitter.setNeighborhood(request.getNeighborhood());
-                if (request.getPortCapacity() != null) splitter.setPortCapacity(request.getPortCapacity());
+                if (request.getPortCapacity() != null) {
+                    validatePortCapacity(request.getPortCapacity());
+                    if (request.getPortCapacity() < splitter.getUsedPorts()
+                            || request.getPortCapacity() < SplitterPortMap.highestOccupiedPort(splitter.getPortMap())) {
+                        throw new InvalidSplitterPortException(String.format(PORT_CAPACITY_BELOW_USAGE, request.getPortCapacity(), splitter.getId()));
+                    }
+                    splitter.setPortCapacity(request.getPortCapacity());
+                    publishSplitterChange(splitter, 0);
+                }
                 return toSplitterDto(splitterRepository.save(splitter));
             // --- Sonar: Grouped cases with same logic (S131) ---
             case ONT, ROUTER, FIBER_ROLL:
@@ -92,20 +143,22 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         }
     }
 
+    // List endpoints read DTO projections so each is a single joined query rather than one lazy Asset load per row
+
     public List<HeadendDto> getAllHeadends() {
-        return headendRepository.findAll().stream().map(this::toHeadendDto).toList();
+        return headendRepository.findAllHeadendDtos();
     }
 
     public List<CoreSwitchDto> getAllCoreSwitches() {
-        return coreSwitchRepository.findAll().stream().map(this::toCoreSwitchDto).toList();
+        return coreSwitchRepository.findAllCoreSwitchDtos();
     }
 
     public List<FdhDto> getAllFdhs() {
-        return fdhRepository.findAll().stream().map(this::toFdhDto).toList();
+        return fdhRepository.findAllFdhDtos();
     }
 
     public List<SplitterDto> getAllSplitters() {
-        return splitterRepository.findAll().stream().map(this::toSplitterDto).toList();
+        return splitterRepository.findAllSplitterDtos();
     }
 
     @Transactional
@@ -116,6 +169,8 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
             throw new AssetNotFoundException(String.format(HEADEND_NOT_FOUND_ID, newHeadendId));
         }
         coreSwitch.setHeadendId(newHeadendId);
+        detailsCache.evict(AssetType.CORE_SWITCH, coreSwitchId);
+        eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, coreSwitchId, newHeadendId));
         return toCoreSwitchDto(coreSwitchRepository.save(coreSwitch));
     }
 
@@ -127,6 +182,8 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
             throw new AssetNotFoundException(String.format(CORE_SWITCH_NOT_FOUND_ID, newCoreSwitchId));
         }
         fdh.setCoreSwitchId(newCoreSwitchId);
+        detailsCache.evict(AssetType.FDH, fdhId);
+        eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.FDH, fdhId, newCoreSwitchId));
         return toFdhDto(fdhRepository.save(fdh));
     }
 
@@ -138,9 +195,96 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
             throw new AssetNotFoundException(String.format(FDH_NOT_FOUND_ID, newFdhId));
         }
         splitter.setFdhId(newFdhId);
+        detailsCache.evict(AssetType.SPLITTER, splitterId);
+        publishSplitterChange(splitter, 0);
         return toSplitterDto(splitterRepository.save(splitter));
     }
 
+    /**
+     * Moves a batch of splitters (all of one FDH, or an explicit id list) under a new FDH.
+     * The target is checked once and the batch is moved with a single UPDATE; caches and
+     * capacity rollups see one event for the whole batch.
+     */
+    @Transactional
+    public BulkReparentResult reparentSplitters(BulkSplitterReparentRequest request) {
+        Long newFdhId = request.getNewFdhId();
+        if (!fdhRepository.existsById(newFdhId)) {
+            throw new AssetNotFoundException(String.format(FDH_NOT_FOUND_ID, newFdhId));
+        }
+        List<Long> ids;
+        if (request.getSourceFdhId() != null) {
+            requireSingleSelector(request.getSplitterIds());
+            if (!fdhRepository.existsById(request.getSourceFdhId())) {
+                throw new AssetNotFoundException(String.format(FDH_NOT_FOUND_ID, request.getSourceFdhId()));
+            }
+            ids = splitterRepository.findIdsByFdhId(request.getSourceFdhId());
+        } else {
+            ids = requireAllExist(request.getSplitterIds(), splitterRepository::findExistingIds, SPLITTER_NOT_FOUND_ID);
+        }
+        if (!ids.isEmpty()) {
+            splitterRepository.moveToFdh(ids, newFdhId);
+        }
+        return finishBulkMove(AssetType.SPLITTER, newFdhId, ids);
+    }
+
+    /**
+     * Moves a batch of FDHs (all of one core switch, or an explicit id list) under a new core switch.
+     * Their splitters follow implicitly since they reference the FDH, not the core switch.
+     */
+    @Transactional
+    public BulkReparentResult reparentFdhs(BulkFdhReparentRequest request) {
+        Long newCoreSwitchId = request.getNewCoreSwitchId();
+        if (!coreSwitchRepository.existsById(newCoreSwitchId)) {
+            throw new AssetNotFoundException(String.format(CORE_SWITCH_NOT_FOUND_ID, newCoreSwitchId));
+        }
+        List<Long> ids;
+        if (request.getSourceCoreSwitchId() != null) {
+            requireSingleSelector(request.getFdhIds());
+            if (!coreSwitchRepository.existsById(request.getSourceCoreSwitchId())) {
+                throw new AssetNotFoundException(String.format(CORE_SWITCH_NOT_FOUND_ID, request.getSourceCoreSwitchId()));
+            }
+            ids = fdhRepository.findIdsByCoreSwitchId(request.getSourceCoreSwitchId());
+        } else {
+            ids = requireAllExist(request.getFdhIds(), fdhRepository::findExistingIds, FDH_NOT_FOUND_ID);
+        }
+        if (!ids.isEmpty()) {
+            fdhRepository.moveToCoreSwitch(ids, newCoreSwitchId);
+        }
+        return finishBulkMove(AssetType.FDH, newCoreSwitchId, ids);
+    }
+
+    private static void requireSingleSelector(List<Long> explicitIds) {
+        if (explicitIds != null && !explicitIds.isEmpty()) {
+            throw new InvalidReparentRequestException(BULK_REPARENT_SELECTOR);
+        }
+    }
+
+    private static List<Long> requireAllExist(List<Long> requestedIds, Function<Collection<Long>, List<Long>> findExisting, String notFoundMessage) {
+        if (requestedIds == null || requestedIds.isEmpty()) {
+            throw new InvalidReparentRequestException(BULK_REPARENT_SELECTOR);
+        }
+        Set<Long> requested = new LinkedHashSet<>(requestedIds);
+        List<Long> existing = findExisting.apply(requested);
+        if (existing.size() != requested.size()) {
+            requested.removeAll(existing);
+            throw new AssetNotFoundException(String.format(notFoundMessage, requested.iterator().next()));
+        }
+        return existing;
+    }
+
+    private BulkReparentResult finishBulkMove(AssetType nodeType, Long newParentId, List<Long> ids) {
+        if (!ids.isEmpty()) {
+            detailsCache.evictAll(nodeType, ids);
+            eventPublisher.publishEvent(new HierarchyNodesMovedEvent(nodeType, newParentId, ids));
+        }
+        BulkReparentResult result = new BulkReparentResult();
+        result.setNodeType(nodeType);
+        result.setNewParentId(newParentId);
+        result.setMovedCount(ids.size());
+        result.setMovedIds(ids);
+        return result;
+    }
+
     // --- Sonar: Helper to remove duplicated code from create... methods ---
     private Asset prepareAssetRequest(AssetCreateRequest request, String defaultModel, String serialPrefix) {
         String serialNumber = StringUtils.hasText(request.getSerialNumber())
@@ -164,7 +308,9 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         headend.setAsset(asset);
         headend.setName(request.getName());
         headend.setLocation(request.getLocation());
-        return toHeadendDto(headendRepository.save(headend));
+        Headend savedHeadend = headendRepository.save(headend);
+        eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.HEADEND, savedHeadend.getId(), null));
+        return toHeadendDto(savedHeadend);
     }
 
     @Transactional
@@ -176,7 +322,9 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         coreSwitch.setName(request.getName());
         coreSwitch.setLocation(request.getLocation());
         coreSwitch.setHeadendId(request.getHeadendId());
-        return toCoreSwitchDto(coreSwitchRepository.save(coreSwitch));
+        CoreSwitch savedCoreSwitch = coreSwitchRepository.save(coreSwitch);
+        eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, savedCoreSwitch.getId(), savedCoreSwitch.getHeadendId()));
+        return toCoreSwitchDto(savedCoreSwitch);
     }
 
     @Transactional
@@ -188,11 +336,14 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         fdh.setName(request.getName());
         fdh.setRegion(request.getRegion());
         fdh.setCoreSwitchId(request.getCoreSwitchId());
-        return toFdhDto(fdhRepository.save(fdh));
+        Fdh savedFdh = fdhRepository.save(fdh);
+        eventPublisher.publishEvent(new HierarchyNodeChangedEvent(AssetType.FDH, savedFdh.getId(), savedFdh.getCoreSwitchId()));
+        return toFdhDto(savedFdh);
     }
 
     @Transactional
     public SplitterDto createSplitter(AssetCreateRequest request) {
+        validatePortCapacity(request.getPortCapacity());
         String defaultModel = (request.getPortCapacity() != null)
                 ? request.getPortCapacity() + "-Port Splitter"
                 : "Splitter";
@@ -205,44 +356,197 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         splitter.setFdhId(request.getFdhId());
         splitter.setPortCapacity(request.getPortCapacity());
         splitter.setUsedPorts(0);
+        splitter.setPortMap(0L);
         splitter.setNeighborhood(request.getNeighborhood());
-        return toSplitterDto(splitterRepository.save(splitter));
+        Splitter savedSplitter = splitterRepository.save(splitter);
+        publishSplitterChange(savedSplitter, 0);
+        return toSplitterDto(savedSplitter);
     }
 
     @Transactional
     public SplitterDto updateSplitterUsedPorts(Long id, SplitterUpdateRequest request) {
         Splitter splitter = splitterRepository.findById(id)
                 .orElseThrow(() -> new AssetNotFoundException(SPLITTER_NOT_FOUND));
+        int occupied = SplitterPortMap.occupiedCount(splitter.getPortMap());
+        if (request.getUsedPorts() < occupied) {
+            throw new InvalidSplitterPortException(String.format(USED_PORTS_BELOW_OCCUPIED, occupied, id));
+        }
+        int usedPortsDelta = request.getUsedPorts() - splitter.getUsedPorts();
         splitter.setUsedPorts(request.getUsedPorts());
+        detailsCache.evict(AssetType.SPLITTER, id);
+        publishSplitterChange(splitter, usedPortsDelta);
         return toSplitterDto(splitterRepository.save(splitter));
     }
 
+    /**
+     * Reserves the lowest free port. The free port is picked from the bitmap and
+     * claimed with a conditional UPDATE; if a concurrent request claimed it first
+     * the bitmap is re-read and the next free port is tried. Deliberately not
+     * transactional so every retry reads the latest committed bitmap.
+     */
+    public SplitterPortsDto reserveSplitterPort(Long id) {
+        for (int attempt = 0; attempt < MAX_PORT_RESERVE_ATTEMPTS; attempt++) {
+            Splitter splitter = findSplitter(id);
+            int port = SplitterPortMap.firstFreePort(splitter.getPortMap(), splitter.getPortCapacity());
+            if (port == SplitterPortMap.NO_FREE_PORT || splitter.getUsedPorts() >= splitter.getPortCapacity()) {
+                throw new SplitterCapacityExceededException(String.format(SPLITTER_FULL, id));
+            }
+            if (splitterRepository.reservePortNumber(id, port, SplitterPortMap.bit(port)) == 1) {
+                return portChanged(findSplitter(id), 1, port);
+            }
+        }
+        throw new SplitterCapacityExceededException(String.format(SPLITTER_PORT_CONTENDED, id));
+    }
+
+    /**
+     * Reserves a specific port with a single conditional UPDATE; fails if the port
+     * is already taken, beyond the splitter's capacity, or the splitter is full.
+     */
+    public SplitterPortsDto reserveSplitterPort(Long id, int port) {
+        validatePortNumber(port);
+        if (splitterRepository.reservePortNumber(id, port, SplitterPortMap.bit(port)) == 0) {
+            Splitter splitter = findSplitter(id);
+            if (port > splitter.getPortCapacity()) {
+                throw new InvalidSplitterPortException(String.format(PORT_OUT_OF_RANGE, port, id, splitter.getPortCapacity()));
+            }
+            if (SplitterPortMap.isOccupied(splitter.getPortMap(), port)) {
+                throw new SplitterPortInUseException(String.format(PORT_IN_USE, port, id));
+            }
+            throw new SplitterCapacityExceededException(String.format(SPLITTER_FULL, id));
+        }
+        return portChanged(findSplitter(id), 1, port);
+    }
+
+    /**
+     * Gives back one port that was counted without a port number (usage recorded
+     * before the bitmap existed). Ports tracked in the bitmap are left untouched,
+     * and releasing when there is no such usage is a no-op.
+     */
+    public SplitterPortsDto releaseSplitterPort(Long id) {
+        int released = splitterRepository.releaseUntrackedPort(id);
+        return portChanged(findSplitter(id), -released, null);
+    }
+
+    /**
+     * Frees a specific port; releasing a free port is a no-op, so a retried release never
+     * gives back usage held by someone else. Usage recorded without a port number is only
+     * released through {@link #releaseSplitterPort(Long)}.
+     */
+    public SplitterPortsDto releaseSplitterPort(Long id, int port) {
+        validatePortNumber(port);
+        long bit = SplitterPortMap.bit(port);
+        int released = splitterRepository.releasePortNumber(id, bit, ~bit);
+        return portChanged(findSplitter(id), -released, null);
+    }
+
+    /**
+     * One-time backfill of the bitmap from the ports customers already hold. A port counted
+     * in usedPorts without a number is marked without changing usedPorts; a port not counted
+     * at all is reserved. Ports already marked are left alone, so the backfill can be re-run.
+     */
+    public PortOccupancySeedResult seedSplitterPorts(List<SplitterPortOccupancy> ports) {
+        PortOccupancySeedResult result = new PortOccupancySeedResult();
+        result.setRequested(ports.size());
+        for (SplitterPortOccupancy occupancy : ports) {
+            Long id = occupancy.getSplitterId();
+            int port = occupancy.getPort();
+            if (!SplitterPortMap.isValidPort(port)) {
+                result.getRejected().add(occupancy);
+                continue;
+            }
+            long bit = SplitterPortMap.bit(port);
+            if (splitterRepository.trackUntrackedPort(id, port, bit) == 1) {
+                result.setSeeded(result.getSeeded() + 1);
+            } else if (splitterRepository.reservePortNumber(id, port, bit) == 1) {
+                portChanged(findSplitter(id), 1, port);
+                result.setSeeded(result.getSeeded() + 1);
+            } else if (splitterRepository.findById(id)
+                    .filter(splitter -> SplitterPortMap.isOccupied(splitter.getPortMap(), port))
+                    .isPresent()) {
+                result.setAlreadyTracked(result.getAlreadyTracked() + 1);
+            } else {
+                result.getRejected().add(occupancy);
+            }
+        }
+        logger.info("Seeded {} of {} splitter ports ({} already tracked, {} rejected)", result.getSeeded(),
+                result.getRequested(), result.getAlreadyTracked(), result.getRejected().size());
+        return result;
+    }
+
+    public SplitterPortsDto getSplitterPorts(Long id) {
+        return toSplitterPortsDto(findSplitter(id), null);
+    }
+
+    private SplitterPortsDto portChanged(Splitter splitter, int usedPortsDelta, Integer reservedPort) {
+        if (usedPortsDelta != 0) {
+            detailsCache.evict(AssetType.SPLITTER, splitter.getId());
+            publishSplitterChange(splitter, usedPortsDelta);
+        }
+        return toSplitterPortsDto(splitter, reservedPort);
+    }
+
+    private void publishSplitterChange(Splitter splitter, int usedPortsDelta) {
+        eventPublisher.publishEvent(new SplitterCapacityChangedEvent(splitter.getId(), splitter.getFdhId(),
+                splitter.getPortCapacity(), splitter.getUsedPorts(), usedPortsDelta));
+    }
+
+    private Splitter findSplitter(Long id) {
+        return splitterRepository.findById(id)
+                .orElseThrow(() -> new AssetNotFoundException(String.format(SPLITTER_NOT_FOUND_ID, id)));
+    }
+
+    private static void validatePortNumber(int port) {
+        if (!SplitterPortMap.isValidPort(port)) {
+            throw new InvalidSplitterPortException(String.format(PORT_NUMBER_INVALID, port, SplitterPortMap.MAX_PORTS));
+        }
+    }
+
+    private static void validatePortCapacity(Integer portCapacity) {
+        if (portCapacity == null || portCapacity < 1 || portCapacity > SplitterPortMap.MAX_PORTS) {
+            throw new InvalidSplitterPortException(String.format(PORT_CAPACITY_INVALID, SplitterPortMap.MAX_PORTS));
+        }
+    }
+
+    // Detail lookups are served from HierarchyDetailsCache; every writer above evicts the nodes it changes
+
     public HeadendDto getHeadendDetails(Long id) {
-        Headend headend = headendRepository.findById(id)
-                .orElseThrow(() -> new AssetNotFoundException(String.format(HEADEND_NOT_FOUND_ID, id)));
-        return toHeadendDto(headend);
+        return detailsCache.get(AssetType.HEADEND, id, () -> {
+            Headend headend = headendRepository.findById(id)
+                    .orElseThrow(() -> new AssetNotFoundException(String.format(HEADEND_NOT_FOUND_ID, id)));
+            return toHeadendDto(headend);
+        });
     }
 
     public CoreSwitchDto getCoreSwitchDetails(Long id) {
-        CoreSwitch coreSwitch = coreSwitchRepository.findById(id)
-                .orElseThrow(() -> new AssetNotFoundException(String.format(CORE_SWITCH_NOT_FOUND_ID, id)));
-        return toCoreSwitchDto(coreSwitch);
+        return detailsCache.get(AssetType.CORE_SWITCH, id, () -> {
+            CoreSwitch coreSwitch = coreSwitchRepository.findById(id)
+                    .orElseThrow(() -> new AssetNotFoundException(String.format(CORE_SWITCH_NOT_FOUND_ID, id)));
+            return toCoreSwitchDto(coreSwitch);
+        });
     }
 
     public FdhDto getFdhDetails(Long id) {
-        Fdh fdh = fdhRepository.findById(id)
-                .orElseThrow(() -> new AssetNotFoundException(String.format(FDH_NOT_FOUND_ID, id)));
-        return toFdhDto(fdh);
+        return detailsCache.get(AssetType.FDH, id, () -> {
+            Fdh fdh = fdhRepository.findById(id)
+                    .orElseThrow(() -> new AssetNotFoundException(String.format(FDH_NOT_FOUND_ID, id)));
+            return toFdhDto(fdh);
+        });
     }
 
     public SplitterDto getSplitterDetails(Long id) {
-        Splitter splitter = splitterRepository.findById(id)
-                .orElseThrow(() -> new AssetNotFoundException(String.format(SPLITTER_NOT_FOUND_ID, id)));
-        return toSplitterDto(splitter);
+        return detailsCache.get(AssetType.SPLITTER, id, () -> {
+            Splitter splitter = splitterRepository.findById(id)
+                    .orElseThrow(() -> new AssetNotFoundException(String.format(SPLITTER_NOT_FOUND_ID, id)));
+            return toSplitterDto(splitter);
+        });
+    }
+
+    public HierarchyCacheStatsDto getDetailsCacheStats() {
+        return detailsCache.getStats();
     }
 
     public List<SplitterDto> getSplittersByFdh(Long fdhId) {
-        return splitterRepository.findByFdhId(fdhId).stream().map(this::toSplitterDto).toList();
+        return splitterRepository.findSplitterDtosByFdhId(fdhId);
     }
 
     /**
@@ -275,9 +579,10 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
                     .toList());
         }
 
-        List<Splitter> splitters = splitterRepository.findByFdhIdIn(fdhIds);
-        Map<Long, List<Splitter>> splittersByFdhId = splitters.stream()
-                .collect(Collectors.groupingBy(Splitter::getFdhId));
+        // Splitters come back as projections that already carry serial and model
+        List<SplitterDto> splitters = splitterRepository.findSplitterDtosByFdhIdIn(fdhIds);
+        Map<Long, List<SplitterDto>> splittersByFdhId = splitters.stream()
+                .collect(Collectors.groupingBy(SplitterDto::getFdhId));
 
         // 4. Build the DTOs using the pre-fetched maps
         List<CoreSwitchTopologyDto> coreSwitchDtos = coreSwitches.stream()
@@ -287,6 +592,94 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         return toHeadendTopologyDto(headend, coreSwitchDtos);
     }
 
+    /**
+     * Emits a headend's topology depth-first as flat records with parent ids. Core switches and
+     * FDHs are read up front; splitters, the bulk of any headend, come from a server-side cursor
+     * ordered like the FDHs, so both are walked in step and only one splitter row is held at a time.
+     */
+    @Transactional(readOnly = true)
+    public void streamHeadendTopology(Long headendId, Consumer<TopologyNodeRecord> consumer) {
+        HeadendDto headend = getHeadendDetails(headendId);
+        consumer.accept(toNodeRecord(headend));
+
+        List<CoreSwitchDto> coreSwitches = coreSwitchRepository.findCoreSwitchDtosByHeadendId(headendId);
+        if (coreSwitches.isEmpty()) {
+            return;
+        }
+        List<Long> coreSwitchIds = coreSwitches.stream().map(CoreSwitchDto::getId).toList();
+        Iterator<FdhDto> fdhs = fdhRepository.findFdhDtosByCoreSwitchIdIn(coreSwitchIds).iterator();
+
+        try (Stream<SplitterDto> splitterStream = splitterRepository.streamSplitterDtosByCoreSwitchIdIn(coreSwitchIds)) {
+            Iterator<SplitterDto> splitters = splitterStream.iterator();
+            SplitterDto nextSplitter = splitters.hasNext() ? splitters.next() : null;
+            FdhDto nextFdh = fdhs.hasNext() ? fdhs.next() : null;
+
+            for (CoreSwitchDto coreSwitch : coreSwitches) {
+                consumer.accept(toNodeRecord(coreSwitch));
+                while (nextFdh != null && nextFdh.getCoreSwitchId().equals(coreSwitch.getId())) {
+                    consumer.accept(toNodeRecord(nextFdh));
+                    while (nextSplitter != null && nextSplitter.getFdhId().equals(nextFdh.getId())) {
+                        consumer.accept(toNodeRecord(nextSplitter));
+                        nextSplitter = splitters.hasNext() ? splitters.next() : null;
+                    }
+                    nextFdh = fdhs.hasNext() ? fdhs.next() : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the entire network with one set-based query per level and groups each level under
+     * its parent in a single pass, so the cost is four queries regardless of network size.
+     */
+    @Transactional(readOnly = true)
+    public NetworkTopology getNetworkTopology() {
+        List<HeadendDto> headends = headendRepository.findAllHeadendDtos();
+        List<CoreSwitchDto> coreSwitches = coreSwitchRepository.findAllCoreSwitchDtos();
+        List<FdhDto> fdhs = fdhRepository.findAllFdhDtos();
+        List<SplitterDto> splitters = splitterRepository.findAllSplitterDtos();
+
+        List<CoreSwitchDto> unattachedCoreSwitches = new ArrayList<>();
+        List<FdhDto> unattachedFdhs = new ArrayList<>();
+        List<SplitterDto> unattachedSplitters = new ArrayList<>();
+        Map<Long, List<CoreSwitchDto>> coreSwitchesByHeadend = groupByParent(coreSwitches, CoreSwitchDto::getHeadendId,
+                ids(headends, HeadendDto::getId), unattachedCoreSwitches);
+        Map<Long, List<FdhDto>> fdhsByCoreSwitch = groupByParent(fdhs, FdhDto::getCoreSwitchId,
+                ids(coreSwitches, CoreSwitchDto::getId), unattachedFdhs);
+        Map<Long, List<SplitterDto>> splittersByFdh = groupByParent(splitters, SplitterDto::getFdhId,
+                ids(fdhs, FdhDto::getId), unattachedSplitters);
+
+        return new NetworkTopology(headends, coreSwitchesByHeadend, fdhsByCoreSwitch, splittersByFdh,
+                unattachedCoreSwitches, unattachedFdhs, unattachedSplitters);
+    }
+
+    private static <T> Set<Long> ids(List<T> nodes, Function<T, Long> idOf) {
+        Set<Long> ids = new HashSet<>(capacityFor(nodes.size()));
+        for (T node : nodes) {
+            ids.add(idOf.apply(node));
+        }
+        return ids;
+    }
+
+    private static <T> Map<Long, List<T>> groupByParent(List<T> children, Function<T, Long> parentOf,
+                                                        Set<Long> parentIds, List<T> unattached) {
+        Map<Long, List<T>> byParent = new HashMap<>(capacityFor(parentIds.size()));
+        for (T child : children) {
+            Long parentId = parentOf.apply(child);
+            if (parentId != null && parentIds.contains(parentId)) {
+                byParent.computeIfAbsent(parentId, k -> new ArrayList<>()).add(child);
+            } else {
+                unattached.add(child);
+            }
+        }
+        return byParent;
+    }
+
+    // Pre-size hash tables so a full-network read never rehashes
+    private static int capacityFor(int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
     // --- Mappers ---
 
     private HeadendDto toHeadendDto(Headend headend) {
@@ -341,6 +734,63 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         return dto;
     }
 
+    private static TopologyNodeRecord toNodeRecord(HeadendDto headend) {
+        TopologyNodeRecord node = nodeRecord(AssetType.HEADEND, headend.getId(), null, headend.getSerialNumber(), headend.getModel());
+        node.setName(headend.getName());
+        node.setLocation(headend.getLocation());
+        return node;
+    }
+
+    private static TopologyNodeRecord toNodeRecord(CoreSwitchDto coreSwitch) {
+        TopologyNodeRecord node = nodeRecord(AssetType.CORE_SWITCH, coreSwitch.getId(), coreSwitch.getHeadendId(),
+                coreSwitch.getSerialNumber(), coreSwitch.getModel());
+        node.setName(coreSwitch.getName());
+        node.setLocation(coreSwitch.getLocation());
+        return node;
+    }
+
+    private static TopologyNodeRecord toNodeRecord(FdhDto fdh) {
+        TopologyNodeRecord node = nodeRecord(AssetType.FDH, fdh.getId(), fdh.getCoreSwitchId(), fdh.getSerialNumber(), fdh.getModel());
+        node.setName(fdh.getName());
+        node.setRegion(fdh.getRegion());
+        return node;
+    }
+
+    private static TopologyNodeRecord toNodeRecord(SplitterDto splitter) {
+        TopologyNodeRecord node = nodeRecord(AssetType.SPLITTER, splitter.getId(), splitter.getFdhId(),
+                splitter.getSerialNumber(), splitter.getModel());
+        node.setNeighborhood(splitter.getNeighborhood());
+        node.setPortCapacity(splitter.getPortCapacity());
+        node.setUsedPorts(splitter.getUsedPorts());
+        return node;
+    }
+
+    private static TopologyNodeRecord nodeRecord(AssetType nodeType, Long id, Long parentId, String serialNumber, String model) {
+        TopologyNodeRecord node = new TopologyNodeRecord();
+        node.setNodeType(nodeType);
+        node.setId(id);
+        node.setParentId(parentId);
+        node.setSerialNumber(serialNumber);
+        node.setModel(model);
+        return node;
+    }
+
+    private SplitterPortsDto toSplitterPortsDto(Splitter splitter, Integer reservedPort) {
+        long portMap = splitter.getPortMap();
+        int capacity = splitter.getPortCapacity();
+        int firstFree = SplitterPortMap.firstFreePort(portMap, capacity);
+
+        SplitterPortsDto dto = new SplitterPortsDto();
+        dto.setId(splitter.getId());
+        dto.setPortCapacity(capacity);
+        dto.setUsedPorts(splitter.getUsedPorts());
+        dto.setReservedPort(reservedPort);
+        dto.setFirstFreePort(firstFree == SplitterPortMap.NO_FREE_PORT || splitter.getUsedPorts() >= capacity ? null : firstFree);
+        dto.setOccupiedPorts(SplitterPortMap.occupiedPorts(portMap, capacity));
+        dto.setFreePorts(SplitterPortMap.freePorts(portMap, capacity));
+        return dto;
+    }
+
     // --- Topology Mappers (Refactored for N+1 Fix) ---
 
     private HeadendTopologyDto toHeadendTopologyDto(Headend headend, List<CoreSwitchTopologyDto> coreSwitches) {
@@ -352,7 +802,7 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         return dto;
     }
 
-    private CoreSwitchTopologyDto toCoreSwitchTopologyDto(CoreSwitch coreSwitch, List<Fdh> fdhs, Map<Long, List<Splitter>> splittersByFdhId) {
+    private CoreSwitchTopologyDto toCoreSwitchTopologyDto(CoreSwitch coreSwitch, List<Fdh> fdhs, Map<Long, List<SplitterDto>> splittersByFdhId) {
         CoreSwitchTopologyDto dto = new CoreSwitchTopologyDto();
         dto.setId(coreSwitch.getId());
         dto.setName(coreSwitch.getName());
@@ -366,17 +816,13 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         return dto;
     }
 
-    private FdhTopologyDto toFdhTopologyDto(Fdh fdh, List<Splitter> splitters) {
+    private FdhTopologyDto toFdhTopologyDto(Fdh fdh, List<SplitterDto> splitters) {
         FdhTopologyDto dto = new FdhTopologyDto();
         dto.setId(fdh.getId());
         dto.setName(fdh.getName());
         dto.setRegion(fdh.getRegion());
         dto.setCoreSwitchId(fdh.getCoreSwitchId());
-
-        List<SplitterDto> splitterDtos = splitters.stream()
-                .map(this::toSplitterDto)
-                .toList();
-        dto.setSplitters(splitterDtos);
+        dto.setSplitters(splitters);
         return dto;
     }
 
@@ -390,6 +836,7 @@ public class NetworkHierarchyService implements NetworkHierarchyServiceInterface
         response.setLocation(asset.getLocation());
         response.setAssignedToCustomerId(asset.getAssignedToCustomerId());
         response.setCreatedAt(asset.getCreatedAt());
+        response.setVersion(asset.getVersion());
         return response;
     }
 }
\ No newline at end of file
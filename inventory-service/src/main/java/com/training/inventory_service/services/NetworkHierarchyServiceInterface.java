@@ -3,6 +3,7 @@ package com.training.inventory_service.services;
 import com.training.inventory_service.dtos.*;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface NetworkHierarchyServiceInterface {
     Object updateAsset(Long assetId, AssetUpdateRequest request);
@@ -16,6 +17,8 @@ public interface NetworkHierarchyServiceInterface {
     CoreSwitchDto reparentCoreSwitch(Long coreSwitchId, Long newHeadendId);
     FdhDto reparentFdh(Long fdhId, Long newCoreSwitchId);
     SplitterDto reparentSplitter(Long splitterId, Long newFdhId);
+    BulkReparentResult reparentSplitters(BulkSplitterReparentRequest request);
+    BulkReparentResult reparentFdhs(BulkFdhReparentRequest request);
 
     HeadendDto createHeadend(AssetCreateRequest request);
     CoreSwitchDto createCoreSwitch(AssetCreateRequest request);
@@ -23,11 +26,20 @@ public interface NetworkHierarchyServiceInterface {
     SplitterDto createSplitter(AssetCreateRequest request);
 
     SplitterDto updateSplitterUsedPorts(Long id, SplitterUpdateRequest request);
+    SplitterPortsDto reserveSplitterPort(Long id);
+    SplitterPortsDto reserveSplitterPort(Long id, int port);
+    SplitterPortsDto releaseSplitterPort(Long id);
+    SplitterPortsDto releaseSplitterPort(Long id, int port);
+    PortOccupancySeedResult seedSplitterPorts(List<SplitterPortOccupancy> ports);
+    SplitterPortsDto getSplitterPorts(Long id);
     HeadendDto getHeadendDetails(Long id);
     CoreSwitchDto getCoreSwitchDetails(Long id);
     FdhDto getFdhDetails(Long id);
     SplitterDto getSplitterDetails(Long id);
+    HierarchyCacheStatsDto getDetailsCacheStats();
     List<SplitterDto> getSplittersByFdh(Long fdhId);
 
     HeadendTopologyDto getHeadendTopology(Long headendId);
+    NetworkTopology getNetworkTopology();
+    void streamHeadendTopology(Long headendId, Consumer<TopologyNodeRecord> consumer);
 }
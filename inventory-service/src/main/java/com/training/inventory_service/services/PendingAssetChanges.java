@@ -0,0 +1,57 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Asset changes committed while a reconcile recounts from the database. The recount may or
+ * may not already include any one of them, so their deltas cannot simply be added on top.
+ * Instead every asset touched meanwhile is looked up in the recount's own snapshot, and the
+ * state counted there is swapped for the latest state the events report. That correction
+ * is right whether or not the recount saw the change.
+ * <p>
+ * Not thread-safe; the owning service guards it with its own lock.
+ */
+final class PendingAssetChanges {
+
+    // Latest reported state per asset; null once the asset is deleted
+    private final Map<Long, AssetSnapshot> latest = new LinkedHashMap<>();
+    // State per asset as the recount saw it; absent if the asset did not exist in its snapshot
+    private final Map<Long, AssetSnapshot> counted = new HashMap<>();
+    private final Set<Long> lookedUp = new HashSet<>();
+
+    void add(AssetChangedEvent event) {
+        AssetSnapshot after = event.after();
+        latest.put(after != null ? after.id() : event.before().id(), after);
+    }
+
+    /** Touched assets whose counted state is not known yet, at most {@code limit} of them. */
+    List<Long> idsToLookUp(int limit) {
+        return latest.keySet().stream()
+                .filter(id -> !lookedUp.contains(id))
+                .limit(limit)
+                .toList();
+    }
+
+    void recordCounted(Collection<Long> ids, List<AssetSnapshot> rows) {
+        lookedUp.addAll(ids);
+        rows.forEach(row -> counted.put(row.id(), row));
+    }
+
+    /**
+     * Hands (state the recount counted, latest reported state) to the correction for every
+     * touched asset; either side is null when the asset did not exist at that point.
+     */
+    void forEachCorrection(BiConsumer<AssetSnapshot, AssetSnapshot> correction) {
+        latest.forEach((id, state) -> correction.accept(counted.get(id), state));
+    }
+}
@@ -0,0 +1,288 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.SerialReconciliationRecord;
+import com.training.inventory_service.dtos.SerialReconciliationSummary;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ReconciliationRecordType;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.exceptions.InvalidReconciliationScopeException;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.FdhRepository;
+import com.training.inventory_service.repositories.HierarchyLinkView;
+import com.training.inventory_service.repositories.SplitterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Diffs the serial numbers scanned during a field audit against what inventory places
+ * in one location or FDH cabinet.
+ * <p>
+ * The scan is read line by line and checked in chunks: one IN query on the unique serial
+ * index per chunk, then hashed lookups per serial. Serials are compared case-insensitively,
+ * like the column's collation. Apart from the current chunk only the ids of in-scope assets
+ * that were scanned are kept (one long each, compacted as it grows), so memory is bounded
+ * by the size of the scope rather than the upload, however often a shelf is re-scanned.
+ * A final keyset pass over the scope reports the assets nobody scanned.
+ */
+@Service
+public class SerialReconciliationService implements SerialReconciliationServiceInterface {
+
+    // --- Sonar: Exception Message Constants ---
+    private static final String SCOPE_REQUIRED_MSG = "Specify either a location or an FDH ID to reconcile against, not both.";
+    private static final String FDH_NOT_FOUND_ID_MSG = "FDH not found with ID: %d";
+    private static final String READ_FAILED_MSG = "Failed to read scanned serials";
+
+    // Deployed or retired assets are not expected on the shelf, even if their location still names it
+    private static final Set<AssetStatus> OFF_SHELF_STATUSES = Set.of(AssetStatus.ASSIGNED, AssetStatus.RETIRED);
+
+    private final AssetBatchRepository assetBatchRepository;
+    private final FdhRepository fdhRepository;
+    private final SplitterRepository splitterRepository;
+    private final int chunkSize;
+
+    @Autowired
+    public SerialReconciliationService(AssetBatchRepository assetBatchRepository,
+                                       FdhRepository fdhRepository,
+                                       SplitterRepository splitterRepository,
+                                       @Value("${inventory.reconciliation.chunk-size:1000}") int chunkSize) {
+        this.assetBatchRepository = assetBatchRepository;
+        this.fdhRepository = fdhRepository;
+        this.splitterRepository = splitterRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Fails before anything is streamed if the scope is not exactly one existing location or FDH.
+     */
+    public void validateScope(String location, Long fdhId) {
+        if (StringUtils.hasText(location) == (fdhId != null)) {
+            throw new InvalidReconciliationScopeException(SCOPE_REQUIRED_MSG);
+        }
+        if (fdhId != null && !fdhRepository.existsById(fdhId)) {
+            throw new AssetNotFoundException(String.format(FDH_NOT_FOUND_ID_MSG, fdhId));
+        }
+    }
+
+    /**
+     * Reads one serial number per line, hands every discrepancy to the consumer as soon as
+     * its chunk is checked, and returns the totals. Repeats within a chunk are collapsed and
+     * an in-scope asset is matched once however often it was scanned.
+     */
+    public SerialReconciliationSummary reconcile(InputStream serials, String location, Long fdhId,
+                                                 Consumer<SerialReconciliationRecord> discrepancyConsumer) {
+        long start = System.currentTimeMillis();
+        validateScope(location, fdhId);
+        Scope scope = fdhId != null ? Scope.ofFdh(fdhId, cabinetIds(fdhId)) : Scope.ofLocation(location);
+
+        SerialReconciliationSummary summary = new SerialReconciliationSummary();
+        summary.setLocation(scope.location());
+        summary.setFdhId(scope.fdhId());
+        LongList scanned = new LongList();
+        // Keyed by serialKey so repeats differing only in case are collapsed too
+        Map<String, String> chunk = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(serials, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String serial = line.trim();
+                if (serial.isEmpty()) {
+                    continue;
+                }
+                chunk.putIfAbsent(AssetBatchRepository.serialKey(serial), serial);
+                if (chunk.size() >= chunkSize) {
+                    checkChunk(chunk, scope, scanned, summary, discrepancyConsumer);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(READ_FAILED_MSG, e);
+        }
+        checkChunk(chunk, scope, scanned, summary, discrepancyConsumer);
+
+        long[] matched = scanned.sortedDistinct();
+        summary.setMatched(matched.length);
+        reportMissing(scope, matched, summary, discrepancyConsumer);
+        summary.setElapsedMs(System.currentTimeMillis() - start);
+        return summary;
+    }
+
+    private void checkChunk(Map<String, String> chunk, Scope scope, LongList scanned, SerialReconciliationSummary summary,
+                            Consumer<SerialReconciliationRecord> discrepancyConsumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<String, AssetSnapshot> known = new HashMap<>();
+        for (AssetSnapshot asset : assetBatchRepository.findSnapshotsBySerials(chunk.values())) {
+            known.put(AssetBatchRepository.serialKey(asset.serialNumber()), asset);
+        }
+
+        List<AssetSnapshot> misplaced = new ArrayList<>();
+        for (Map.Entry<String, String> scannedSerial : chunk.entrySet()) {
+            summary.setScannedSerials(summary.getScannedSerials() + 1);
+            String serial = scannedSerial.getValue();
+            AssetSnapshot asset = known.get(scannedSerial.getKey());
+            if (asset == null) {
+                SerialReconciliationRecord unexpected = new SerialReconciliationRecord();
+                unexpected.setType(ReconciliationRecordType.UNEXPECTED);
+                unexpected.setSerialNumber(serial);
+                discrepancyConsumer.accept(unexpected);
+                summary.setUnexpected(summary.getUnexpected() + 1);
+            } else if (scope.contains(asset)) {
+                scanned.add(asset.id());
+            } else {
+                misplaced.add(asset);
+            }
+        }
+
+        Map<Long, Long> fdhBySplitter = splitterParents(misplaced);
+        for (AssetSnapshot asset : misplaced) {
+            discrepancyConsumer.accept(toRecord(ReconciliationRecordType.MISPLACED, asset, fdhBySplitter.get(asset.id())));
+        }
+        summary.setMisplaced(summary.getMisplaced() + misplaced.size());
+    }
+
+    private void reportMissing(Scope scope, long[] matched, SerialReconciliationSummary summary,
+                               Consumer<SerialReconciliationRecord> discrepancyConsumer) {
+        if (scope.fdhId() != null) {
+            List<Long> unscanned = Arrays.stream(scope.cabinetIds())
+                    .filter(id -> Arrays.binarySearch(matched, id) < 0)
+                    .boxed()
+                    .toList();
+            for (int from = 0; from < unscanned.size(); from += chunkSize) {
+                List<Long> ids = unscanned.subList(from, Math.min(from + chunkSize, unscanned.size()));
+                reportMissingChunk(assetBatchRepository.findSnapshotsByIds(ids), matched, scope, summary, discrepancyConsumer);
+            }
+            return;
+        }
+        long afterId = 0;
+        List<AssetSnapshot> page;
+        do {
+            page = assetBatchRepository.findSnapshotsAtLocation(scope.location(), OFF_SHELF_STATUSES, afterId, chunkSize);
+            reportMissingChunk(page, matched, scope, summary, discrepancyConsumer);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == chunkSize);
+    }
+
+    private static void reportMissingChunk(List<AssetSnapshot> expected, long[] matched, Scope scope,
+                                           SerialReconciliationSummary summary,
+                                           Consumer<SerialReconciliationRecord> discrepancyConsumer) {
+        for (AssetSnapshot asset : expected) {
+            if (Arrays.binarySearch(matched, asset.id()) < 0) {
+                discrepancyConsumer.accept(toRecord(ReconciliationRecordType.MISSING, asset, scope.fdhId()));
+                summary.setMissing(summary.getMissing() + 1);
+            }
+        }
+    }
+
+    // The cabinet holds the FDH itself and its splitters
+    private long[] cabinetIds(Long fdhId) {
+        List<Long> splitterIds = splitterRepository.findIdsByFdhId(fdhId);
+        long[] ids = new long[splitterIds.size() + 1];
+        ids[0] = fdhId;
+        for (int i = 0; i < splitterIds.size(); i++) {
+            ids[i + 1] = splitterIds.get(i);
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private Map<Long, Long> splitterParents(List<AssetSnapshot> assets) {
+        List<Long> splitterIds = assets.stream()
+                .filter(asset -> asset.assetType() == AssetType.SPLITTER)
+                .map(AssetSnapshot::id)
+                .toList();
+        Map<Long, Long> parents = new HashMap<>();
+        if (!splitterIds.isEmpty()) {
+            for (HierarchyLinkView link : splitterRepository.findLinksByIdIn(splitterIds)) {
+                parents.put(link.getId(), link.getParentId());
+            }
+        }
+        return parents;
+    }
+
+    private static SerialReconciliationRecord toRecord(ReconciliationRecordType type, AssetSnapshot asset, Long fdhId) {
+        SerialReconciliationRecord record = new SerialReconciliationRecord();
+        record.setType(type);
+        record.setSerialNumber(asset.serialNumber());
+        record.setAssetId(asset.id());
+        record.setAssetType(asset.assetType());
+        record.setAssetStatus(asset.assetStatus());
+        record.setRecordedLocation(asset.location());
+        record.setRecordedFdhId(asset.assetType() == AssetType.SPLITTER ? fdhId : null);
+        return record;
+    }
+
+    private record Scope(String location, Long fdhId, long[] cabinetIds) {
+
+        static Scope ofLocation(String location) {
+            return new Scope(location, null, null);
+        }
+
+        static Scope ofFdh(Long fdhId, long[] cabinetIds) {
+            return new Scope(null, fdhId, cabinetIds);
+        }
+
+        boolean contains(AssetSnapshot asset) {
+            if (fdhId != null) {
+                return Arrays.binarySearch(cabinetIds, asset.id()) >= 0;
+            }
+            // The location column's collation is case-insensitive, like the serial column's
+            return location.equalsIgnoreCase(asset.location()) && !OFF_SHELF_STATUSES.contains(asset.assetStatus());
+        }
+    }
+
+    // Growable primitive list; avoids boxing one Long per matched asset. Repeats are
+    // compacted away before it grows, so its size follows the distinct ids added.
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                compact();
+                if (size > values.length / 2) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+            }
+            values[size++] = value;
+        }
+
+        long[] sortedDistinct() {
+            compact();
+            return Arrays.copyOf(values, size);
+        }
+
+        // Sorts and removes duplicates in place
+        private void compact() {
+            Arrays.sort(values, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || values[i] != values[distinct - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            size = distinct;
+        }
+    }
+}
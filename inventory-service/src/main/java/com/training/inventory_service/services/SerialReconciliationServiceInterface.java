@@ -0,0 +1,13 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.SerialReconciliationRecord;
+import com.training.inventory_service.dtos.SerialReconciliationSummary;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface SerialReconciliationServiceInterface {
+    void validateScope(String location, Long fdhId);
+    SerialReconciliationSummary reconcile(InputStream serials, String location, Long fdhId,
+                                          Consumer<SerialReconciliationRecord> discrepancyConsumer);
+}
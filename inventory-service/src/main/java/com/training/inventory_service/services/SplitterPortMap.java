@@ -0,0 +1,70 @@
+package com.training.inventory_service.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for the per-splitter port occupancy bitmap stored in {@code Splitter.portMap}.
+ * Port N (1-based) is bit N-1 of a single long, so a splitter can track up to 64 ports
+ * and every lookup is a handful of bit operations.
+ */
+public final class SplitterPortMap {
+
+    public static final int MAX_PORTS = Long.SIZE;
+    public static final int NO_FREE_PORT = -1;
+
+    private SplitterPortMap() {
+    }
+
+    public static boolean isValidPort(int port) {
+        return port >= 1 && port <= MAX_PORTS;
+    }
+
+    public static long bit(int port) {
+        return 1L << (port - 1);
+    }
+
+    public static boolean isOccupied(long portMap, int port) {
+        return (portMap & bit(port)) != 0;
+    }
+
+    /** Bits for ports 1..capacity. */
+    public static long capacityMask(int capacity) {
+        if (capacity <= 0) {
+            return 0L;
+        }
+        return capacity >= MAX_PORTS ? -1L : (1L << capacity) - 1;
+    }
+
+    public static int firstFreePort(long portMap, int capacity) {
+        long free = ~portMap & capacityMask(capacity);
+        return free == 0 ? NO_FREE_PORT : Long.numberOfTrailingZeros(free) + 1;
+    }
+
+    public static int occupiedCount(long portMap) {
+        return Long.bitCount(portMap);
+    }
+
+    /** Highest occupied port number, or 0 when no port is taken. */
+    public static int highestOccupiedPort(long portMap) {
+        return MAX_PORTS - Long.numberOfLeadingZeros(portMap);
+    }
+
+    public static List<Integer> occupiedPorts(long portMap, int capacity) {
+        return ports(portMap & capacityMask(capacity));
+    }
+
+    public static List<Integer> freePorts(long portMap, int capacity) {
+        return ports(~portMap & capacityMask(capacity));
+    }
+
+    private static List<Integer> ports(long bits) {
+        List<Integer> ports = new ArrayList<>(Long.bitCount(bits));
+        long remaining = bits;
+        while (remaining != 0) {
+            ports.add(Long.numberOfTrailingZeros(remaining) + 1);
+            remaining &= remaining - 1; // Clear the lowest set bit
+        }
+        return ports;
+    }
+}
@@ -0,0 +1,285 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.StockLevelDto;
+import com.training.inventory_service.dtos.StockThresholdRequest;
+import com.training.inventory_service.entities.StockThreshold;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetRepository;
+import com.training.inventory_service.repositories.StockLevelView;
+import com.training.inventory_service.repositories.StockThresholdRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the number of AVAILABLE units per SKU (location, model and type) in memory and
+ * flags SKUs that fall below their configured threshold. Levels are seeded from one
+ * GROUP BY at startup and adjusted from every committed asset change, so creating,
+ * assigning, unassigning or retiring a unit only touches its own SKU; the low-stock
+ * state of that SKU is re-evaluated on the spot. A periodic reconcile recounts from the
+ * database and reloads the thresholds, correcting drift from other instances; changes
+ * committed while it counts are resolved per asset against the recount's snapshot (see
+ * {@link PendingAssetChanges}), so none is lost or counted twice.
+ */
+@Service
+public class StockLevelService implements StockLevelServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLevelService.class);
+
+    private static final Comparator<StockLevelDto> SKU_ORDER = Comparator
+            .comparing(StockLevelDto::getLocation)
+            .thenComparing(StockLevelDto::getModel)
+            .thenComparing(StockLevelDto::getAssetType);
+
+    private static final Comparator<StockLevelDto> LOW_STOCK_ORDER = Comparator
+            .comparing(StockLevelDto::getLowSince)
+            .thenComparing(SKU_ORDER);
+
+    // Touched assets looked up per query while resolving changes committed during a reconcile
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final AssetRepository assetRepository;
+    private final StockThresholdRepository stockThresholdRepository;
+    private final AssetBatchRepository assetBatchRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    // All guarded by "this"; levels only holds SKUs with at least one AVAILABLE unit
+    private Map<SkuKey, Long> levels = new HashMap<>();
+    private Map<SkuKey, Integer> thresholds = new HashMap<>();
+    private final Map<SkuKey, Instant> lowSince = new HashMap<>();
+
+    // Guarded by "this"; non-null while a reconcile is counting, so changes committed meanwhile are resolved on the new levels
+    private PendingAssetChanges pendingDuringReconcile;
+
+    @Autowired
+    public StockLevelService(AssetRepository assetRepository,
+                             StockThresholdRepository stockThresholdRepository,
+                             AssetBatchRepository assetBatchRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.assetRepository = assetRepository;
+        this.stockThresholdRepository = stockThresholdRepository;
+        this.assetBatchRepository = assetBatchRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    // --- Reads ---
+
+    /**
+     * Levels of every SKU that has stock or a threshold, narrowed by the optional filters.
+     */
+    public synchronized List<StockLevelDto> getStockLevels(String location, String model, AssetType type) {
+        Set<SkuKey> keys = new HashSet<>(levels.keySet());
+        keys.addAll(thresholds.keySet());
+        return keys.stream()
+                .filter(key -> key.matches(location, model, type))
+                .map(this::toDto)
+                .sorted(SKU_ORDER)
+                .toList();
+    }
+
+    /**
+     * The low-stock feed: every SKU currently below its threshold, longest-running shortage first.
+     */
+    public synchronized List<StockLevelDto> getLowStock() {
+        return lowSince.keySet().stream()
+                .map(this::toDto)
+                .sorted(LOW_STOCK_ORDER)
+                .toList();
+    }
+
+    // --- Thresholds ---
+
+    public StockLevelDto setThreshold(StockThresholdRequest request) {
+        StockThreshold threshold = stockThresholdRepository
+                .findByLocationAndModelAndAssetType(request.getLocation(), request.getModel(), request.getAssetType())
+                .orElseGet(StockThreshold::new);
+        threshold.setLocation(request.getLocation());
+        threshold.setModel(request.getModel());
+        threshold.setAssetType(request.getAssetType());
+        threshold.setMinAvailable(request.getMinAvailable());
+        threshold.setUpdatedAt(Instant.now());
+        stockThresholdRepository.save(threshold);
+
+        SkuKey key = new SkuKey(request.getLocation(), request.getModel(), request.getAssetType());
+        synchronized (this) {
+            thresholds.put(key, request.getMinAvailable());
+            evaluate(key);
+            return toDto(key);
+        }
+    }
+
+    public void deleteThreshold(String location, String model, AssetType type) {
+        stockThresholdRepository.findByLocationAndModelAndAssetType(location, model, type)
+                .ifPresent(stockThresholdRepository::delete);
+
+        SkuKey key = new SkuKey(location, model, type);
+        synchronized (this) {
+            thresholds.remove(key);
+            evaluate(key);
+        }
+    }
+
+    // --- Incremental maintenance (applied only once the change is committed) ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAssetChanged(AssetChangedEvent event) {
+        for (SkuKey key : apply(levels, event)) {
+            evaluate(key);
+        }
+        if (pendingDuringReconcile != null) {
+            pendingDuringReconcile.add(event);
+        }
+    }
+
+    // --- Full reconcile ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${inventory.stock.reconcile-interval-ms:300000}",
+            fixedDelayString = "${inventory.stock.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            pendingDuringReconcile = new PendingAssetChanges();
+        }
+        ReconcileOutcome outcome;
+        try {
+            // One read-only transaction, so the recount and the lookups of assets changed meanwhile share a snapshot
+            outcome = readOnlyTransactionTemplate.execute(status -> recountAndSwap());
+        } finally {
+            synchronized (this) {
+                pendingDuringReconcile = null;
+            }
+        }
+        logger.info("Stock levels reconciled over {} SKUs ({} low) in {} ms",
+                outcome.skus(), outcome.low(), System.currentTimeMillis() - start);
+    }
+
+    private ReconcileOutcome recountAndSwap() {
+        Map<SkuKey, Long> fresh = new HashMap<>();
+        for (StockLevelView row : assetRepository.countStockLevels(AssetStatus.AVAILABLE)) {
+            fresh.put(new SkuKey(row.getLocation(), row.getModel(), row.getAssetType()), row.getAvailable());
+        }
+        while (true) {
+            List<Long> ids;
+            synchronized (this) {
+                ids = pendingDuringReconcile.idsToLookUp(LOOKUP_CHUNK_SIZE);
+                if (ids.isEmpty()) {
+                    return swap(fresh);
+                }
+            }
+            List<AssetSnapshot> rows = assetBatchRepository.findSnapshotsByIds(ids);
+            synchronized (this) {
+                pendingDuringReconcile.recordCounted(ids, rows);
+            }
+        }
+    }
+
+    // Caller holds the lock, so no change can slip in between resolving and swapping
+    private ReconcileOutcome swap(Map<SkuKey, Long> fresh) {
+        pendingDuringReconcile.forEachCorrection((counted, latest) ->
+                apply(fresh, new AssetChangedEvent(counted, latest)));
+        pendingDuringReconcile = null;
+        levels = fresh;
+        // Read under the lock so a threshold saved concurrently is either in this read or applied after it
+        Map<SkuKey, Integer> loaded = new HashMap<>();
+        for (StockThreshold threshold : stockThresholdRepository.findAll()) {
+            loaded.put(new SkuKey(threshold.getLocation(), threshold.getModel(), threshold.getAssetType()), threshold.getMinAvailable());
+        }
+        thresholds = loaded;
+        Set<SkuKey> keys = new HashSet<>(lowSince.keySet());
+        keys.addAll(thresholds.keySet());
+        keys.forEach(this::evaluate);
+        return new ReconcileOutcome(fresh.size(), lowSince.size());
+    }
+
+    // --- Internals (callers hold the lock) ---
+
+    // Returns the SKUs whose AVAILABLE count changed
+    private static List<SkuKey> apply(Map<SkuKey, Long> target, AssetChangedEvent event) {
+        SkuKey removed = SkuKey.ofAvailable(event.before());
+        SkuKey added = SkuKey.ofAvailable(event.after());
+        if (removed != null && removed.equals(added)) {
+            return List.of(); // e.g. a serial number edit on an AVAILABLE unit
+        }
+        List<SkuKey> changed = new ArrayList<>(2);
+        if (removed != null) {
+            target.compute(removed, (k, current) -> current == null || current <= 1 ? null : current - 1);
+            changed.add(removed);
+        }
+        if (added != null) {
+            target.merge(added, 1L, Long::sum);
+            changed.add(added);
+        }
+        return changed;
+    }
+
+    private void evaluate(SkuKey key) {
+        Integer min = thresholds.get(key);
+        long available = levels.getOrDefault(key, 0L);
+        if (min != null && available < min) {
+            if (lowSince.putIfAbsent(key, Instant.now()) == null) {
+                logger.warn("Low stock: {} x {} ({}) at {}, threshold {}", available, key.model(), key.assetType(), key.location(), min);
+            }
+        } else {
+            lowSince.remove(key);
+        }
+    }
+
+    private StockLevelDto toDto(SkuKey key) {
+        StockLevelDto dto = new StockLevelDto();
+        dto.setLocation(key.location());
+        dto.setModel(key.model());
+        dto.setAssetType(key.assetType());
+        dto.setAvailable(levels.getOrDefault(key, 0L));
+        dto.setMinAvailable(thresholds.get(key));
+        dto.setLowSince(lowSince.get(key));
+        dto.setLowStock(dto.getLowSince() != null);
+        return dto;
+    }
+
+    private record ReconcileOutcome(int skus, int low) {
+    }
+
+    private record SkuKey(String location, String model, AssetType assetType) {
+
+        // Only AVAILABLE units with both a location and a model count as stock
+        static SkuKey ofAvailable(AssetSnapshot asset) {
+            if (asset == null || asset.assetStatus() != AssetStatus.AVAILABLE
+                    || asset.location() == null || asset.model() == null) {
+                return null;
+            }
+            return new SkuKey(asset.location(), asset.model(), asset.assetType());
+        }
+
+        boolean matches(String locationFilter, String modelFilter, AssetType typeFilter) {
+            return (locationFilter == null || locationFilter.equals(location))
+                    && (modelFilter == null || modelFilter.equals(model))
+                    && (typeFilter == null || typeFilter == assetType);
+        }
+    }
+}
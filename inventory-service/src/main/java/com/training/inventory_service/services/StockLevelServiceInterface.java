@@ -0,0 +1,15 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.StockLevelDto;
+import com.training.inventory_service.dtos.StockThresholdRequest;
+import com.training.inventory_service.enums.AssetType;
+
+import java.util.List;
+
+public interface StockLevelServiceInterface {
+    List<StockLevelDto> getStockLevels(String location, String model, AssetType type);
+    List<StockLevelDto> getLowStock();
+    StockLevelDto setThreshold(StockThresholdRequest request);
+    void deleteThreshold(String location, String model, AssetType type);
+    void reconcile();
+}
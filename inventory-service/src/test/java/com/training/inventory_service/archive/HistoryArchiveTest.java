@@ -0,0 +1,72 @@
+package com.training.inventory_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryArchiveTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSealedSegments_SurviveRestartAndFilterByAssetAndWindow() {
+        HistoryArchive archive = new HistoryArchive(objectMapper, directory);
+        archive.append(List.of(entry(1, 10L, "ASSET_ASSIGNED", 0), entry(2, 11L, "STATUS_UPDATE", 1)));
+        archive.append(List.of(entry(3, 10L, "STATUS_UPDATE", 2), entry(4, 12L, "ASSET_ASSIGNED", 3)));
+
+        HistoryArchive reopened = new HistoryArchive(objectMapper, directory);
+        assertEquals(List.of(1L, 3L), ids(reopened.findByAsset(10L, null, null, null)));
+        assertEquals(List.of(3L), ids(reopened.findByAsset(10L, BASE.plusSeconds(1), null, null)));
+        assertEquals(List.of(1L), ids(reopened.findByAsset(10L, null, null, "ASSET_ASSIGNED")));
+        assertEquals(List.of(3L, 4L), reopened.lastSegmentIds());
+        assertEquals(4, reopened.getStats().getArchivedEntries());
+        assertTrue(reopened.mayContain(BASE.plusSeconds(3)));
+        assertFalse(reopened.mayContain(BASE.plusSeconds(4)));
+    }
+
+    @Test
+    void testStream_EmitsAcrossSegmentsInOrderAndInChunks() {
+        HistoryArchive archive = new HistoryArchive(objectMapper, directory);
+        archive.append(List.of(entry(1, 10L, "ASSET_ASSIGNED", 0), entry(2, 11L, "ASSET_ASSIGNED", 1)));
+        archive.append(List.of(entry(3, 12L, "ASSET_ASSIGNED", 2)));
+
+        List<List<ArchivedHistoryEntry>> chunks = new ArrayList<>();
+        archive.stream(BASE, null, "ASSET_ASSIGNED", 2, chunks::add);
+
+        assertEquals(2, chunks.size());
+        assertEquals(List.of(1L, 2L, 3L), ids(chunks.stream().flatMap(List::stream).toList()));
+    }
+
+    @Test
+    void testUnsealedSegment_IsDiscardedOnOpen() throws Exception {
+        Files.write(directory.resolve("history-0000000001.ndjson.gz"), new byte[] {1, 2, 3});
+
+        HistoryArchive archive = new HistoryArchive(objectMapper, directory);
+
+        assertEquals(0, archive.getStats().getSegmentCount());
+        assertFalse(Files.exists(directory.resolve("history-0000000001.ndjson.gz")));
+    }
+
+    private static ArchivedHistoryEntry entry(long id, Long assetId, String changeType, int secondsAfterBase) {
+        return new ArchivedHistoryEntry(id, assetId, changeType, changeType, BASE.plusSeconds(secondsAfterBase), null);
+    }
+
+    private static List<Long> ids(List<ArchivedHistoryEntry> entries) {
+        return entries.stream().map(ArchivedHistoryEntry::id).toList();
+    }
+}
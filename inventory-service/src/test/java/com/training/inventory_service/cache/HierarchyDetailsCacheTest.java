@@ -0,0 +1,74 @@
+package com.training.inventory_service.cache;
+
+import com.training.inventory_service.dtos.HierarchyCacheStatsDto;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HierarchyDetailsCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testGet_CachesUntilEvictedOrExpired() {
+        HierarchyDetailsCache cache = new HierarchyDetailsCache(10, 1000, now::get);
+
+        assertEquals("v1", cache.get(AssetType.SPLITTER, 1L, this::load));
+        assertEquals("v1", cache.get(AssetType.SPLITTER, 1L, this::load));
+
+        cache.evict(AssetType.SPLITTER, 1L);
+        assertEquals("v2", cache.get(AssetType.SPLITTER, 1L, this::load));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals("v3", cache.get(AssetType.SPLITTER, 1L, this::load));
+
+        cache.onHierarchyNodeDeleted(new HierarchyNodeDeletedEvent(AssetType.SPLITTER, 1L));
+        assertEquals("v4", cache.get(AssetType.SPLITTER, 1L, this::load));
+
+        HierarchyCacheStatsDto stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(1, stats.getExpirations());
+        assertEquals(2, stats.getInvalidations());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsedBeyondMaxEntries() {
+        HierarchyDetailsCache cache = new HierarchyDetailsCache(2, 60_000, now::get);
+
+        cache.get(AssetType.FDH, 1L, this::load);
+        cache.get(AssetType.FDH, 2L, this::load);
+        cache.get(AssetType.FDH, 1L, this::load); // 1 is now the most recently used
+        cache.get(AssetType.FDH, 3L, this::load); // pushes out 2
+
+        cache.get(AssetType.FDH, 1L, this::load);
+        cache.get(AssetType.FDH, 2L, this::load);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().getSize());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void testGet_DoesNotCacheLoadThatOverlapsEviction() {
+        HierarchyDetailsCache cache = new HierarchyDetailsCache(10, 60_000, now::get);
+
+        cache.get(AssetType.HEADEND, 1L, () -> {
+            cache.evict(AssetType.HEADEND, 1L); // a writer commits while the stale row is being read
+            return load();
+        });
+
+        assertEquals("v2", cache.get(AssetType.HEADEND, 1L, this::load));
+    }
+
+    private String load() {
+        return "v" + loads.incrementAndGet();
+    }
+}
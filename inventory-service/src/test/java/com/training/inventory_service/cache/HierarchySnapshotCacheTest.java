@@ -0,0 +1,56 @@
+package com.training.inventory_service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchySnapshotCacheTest {
+
+    private final HierarchySnapshotCache cache = new HierarchySnapshotCache(new ObjectMapper(), 10);
+    private final AtomicInteger builds = new AtomicInteger();
+    private final AtomicReference<List<String>> data = new AtomicReference<>(List.of("HE-1"));
+
+    @Test
+    void testGet_ServesCachedSnapshotUntilHierarchyChanges() {
+        HierarchySnapshot first = cache.get("/headends", this::build);
+        HierarchySnapshot second = cache.get("/headends", this::build);
+
+        assertEquals(1, builds.get());
+        assertTrue(second.matches(first.etag()));
+
+        data.set(List.of("HE-1", "HE-2"));
+        cache.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.HEADEND, 2L, null));
+        HierarchySnapshot changed = cache.get("/headends", this::build);
+
+        assertEquals(2, builds.get());
+        assertNotEquals(first.etag(), changed.etag());
+        assertFalse(changed.matches(first.etag()));
+    }
+
+    @Test
+    void testGet_KeepsEtagWhenRebuildProducesSameContent() {
+        HierarchySnapshot first = cache.get("/headends", this::build);
+        cache.bump(); // periodic refresh with no real change
+
+        HierarchySnapshot rebuilt = cache.get("/headends", this::build);
+
+        assertEquals(2, builds.get());
+        assertEquals(first.etag(), rebuilt.etag());
+        assertTrue(rebuilt.matches("W/" + first.etag() + ", \"other\""));
+    }
+
+    private List<String> build() {
+        builds.incrementAndGet();
+        return data.get();
+    }
+}
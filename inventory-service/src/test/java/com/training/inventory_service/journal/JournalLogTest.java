@@ -0,0 +1,70 @@
+package com.training.inventory_service.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JournalLogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testUnflushedEntries_AreRecoverableAfterRestart() throws Exception {
+        JournalLog log = new JournalLog(directory, objectMapper, 100, true);
+        log.append(List.of(entry("k1"), entry("k2")));
+        // Simulated crash: the log is never closed and nothing is released
+
+        JournalLog restarted = new JournalLog(directory, objectMapper, 100, true);
+        assertEquals(1, restarted.recoverableSegments().size());
+        List<JournalEntry> replayed = restarted.readSegment(restarted.recoverableSegments().get(0));
+        assertEquals(List.of("k1", "k2"), replayed.stream().map(JournalEntry::journalKey).toList());
+        restarted.close();
+    }
+
+    @Test
+    void testDrainedSegment_IsDeletedAfterRoll() throws Exception {
+        JournalLog log = new JournalLog(directory, objectMapper, 2, false);
+        JournalLog.Segment first = log.append(List.of(entry("k1"), entry("k2")));
+        log.append(List.of(entry("k3"))); // Rolls to a new segment
+        log.release(first, 2);
+
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        // Only the segment holding the unflushed entry is left for replay
+        assertEquals(1, new JournalLog(directory, objectMapper, 2, false).recoverableSegments().size());
+    }
+
+    @Test
+    void testAbortedEntries_AreSkippedOnReplay() throws Exception {
+        JournalLog log = new JournalLog(directory, objectMapper, 3, true);
+        JournalLog.Segment first = log.append(List.of(entry("k1"), entry("k2")));
+        log.append(List.of(entry("k3")));
+        log.append(List.of(entry("k4"))); // Rolls, so the first segment is sealed when k1 is aborted
+        log.abort(first, List.of(entry("k1")));
+        // Simulated crash: k2, k3 and k4 were never flushed
+
+        JournalLog restarted = new JournalLog(directory, objectMapper, 3, true);
+        List<String> replayed = new ArrayList<>();
+        for (Path segment : restarted.recoverableSegments()) {
+            restarted.readSegment(segment).forEach(entry -> replayed.add(entry.journalKey()));
+        }
+        assertEquals(List.of("k2", "k3", "k4"), replayed);
+        restarted.close();
+    }
+
+    private static JournalEntry entry(String key) {
+        return new JournalEntry(key, 1L, "STATUS_UPDATE", "Status changed", Instant.now(), null);
+    }
+}
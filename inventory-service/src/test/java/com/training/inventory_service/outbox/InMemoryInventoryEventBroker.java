@@ -0,0 +1,27 @@
+package com.training.inventory_service.outbox;
+
+import com.training.inventory_service.dtos.InventoryChangeDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects relayed batches in memory so tests can assert on what subscribers would receive.
+ */
+class InMemoryInventoryEventBroker implements InventoryEventBroker {
+
+    private final List<List<InventoryChangeDto>> batches = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<InventoryChangeDto> batch) {
+        batches.add(List.copyOf(batch));
+    }
+
+    synchronized List<List<InventoryChangeDto>> getBatches() {
+        return List.copyOf(batches);
+    }
+
+    synchronized List<Long> getSequences() {
+        return batches.stream().flatMap(List::stream).map(InventoryChangeDto::getSequence).toList();
+    }
+}
@@ -0,0 +1,88 @@
+package com.training.inventory_service.outbox;
+
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+import com.training.inventory_service.dtos.InventoryChangeDto;
+import com.training.inventory_service.exceptions.ChangeFeedExpiredException;
+import com.training.inventory_service.services.ChangeFeedServiceInterface;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private ChangeFeedServiceInterface changeFeedService;
+
+    private final InMemoryInventoryEventBroker broker = new InMemoryInventoryEventBroker();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(changeFeedService, List.of(failingBroker(), broker), 2, true, 500);
+    }
+
+    @Test
+    void testRelay_PublishesCommittedChangesInBatchesFromStartPosition() {
+        when(changeFeedService.getLastSequence()).thenReturn(10L);
+        when(changeFeedService.getChanges(10L, 2)).thenReturn(page(true, 11, 12));
+        when(changeFeedService.getChanges(12L, 2)).thenReturn(page(false, 13));
+
+        relay.start();
+        relay.relay();
+
+        assertEquals(2, broker.getBatches().size());
+        assertEquals(List.of(11L, 12L, 13L), broker.getSequences());
+        assertEquals(13L, relay.getPosition());
+    }
+
+    @Test
+    void testRelay_NothingNew_KeepsPosition() {
+        when(changeFeedService.getLastSequence()).thenReturn(5L);
+        when(changeFeedService.getChanges(5L, 2)).thenReturn(page(false));
+
+        relay.start();
+        relay.relay();
+
+        assertTrue(broker.getBatches().isEmpty());
+        assertEquals(5L, relay.getPosition());
+    }
+
+    @Test
+    void testRelay_BehindRetention_SkipsToHead() {
+        when(changeFeedService.getLastSequence()).thenReturn(1L, 500L);
+        when(changeFeedService.getChanges(1L, 2)).thenThrow(new ChangeFeedExpiredException("expired"));
+
+        relay.start();
+        relay.relay();
+
+        assertEquals(500L, relay.getPosition());
+    }
+
+    private static InventoryEventBroker failingBroker() {
+        return batch -> {
+            throw new IllegalStateException("broker down");
+        };
+    }
+
+    private static ChangeFeedResponse page(boolean hasMore, long... sequences) {
+        ChangeFeedResponse response = new ChangeFeedResponse();
+        LongStream.of(sequences).forEach(sequence -> {
+            InventoryChangeDto dto = new InventoryChangeDto();
+            dto.setSequence(sequence);
+            response.getChanges().add(dto);
+        });
+        response.setHasMore(hasMore);
+        response.setNextSince(sequences.length == 0 ? null : sequences[sequences.length - 1]);
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.training.inventory_service.search;
+
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssetSearchIndexTest {
+
+    @Test
+    void testSearch_RanksSerialPrefixBeforeSubstringAndModelMatches() {
+        AssetSearchIndex index = new AssetSearchIndex();
+        index.put(asset(1L, "XONT-100", "Nokia G-240", AssetType.ONT, AssetStatus.AVAILABLE));
+        index.put(asset(2L, "ONT-200", "Nokia G-240", AssetType.ONT, AssetStatus.AVAILABLE));
+        index.put(asset(3L, "RTR-300", "ONT Bridge", AssetType.ROUTER, AssetStatus.AVAILABLE));
+
+        List<AssetSearchIndex.Match> matches = index.search("ont", null, null, 10);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(matches));
+        assertEquals(List.of(AssetSearchIndex.FIELD_SERIAL_NUMBER, AssetSearchIndex.FIELD_SERIAL_NUMBER, AssetSearchIndex.FIELD_MODEL),
+                matches.stream().map(AssetSearchIndex.Match::matchedField).toList());
+    }
+
+    @Test
+    void testSearch_AppliesFiltersAndLimit() {
+        AssetSearchIndex index = new AssetSearchIndex();
+        index.put(asset(1L, "ONT-1", "M", AssetType.ONT, AssetStatus.AVAILABLE));
+        index.put(asset(2L, "ONT-2", "M", AssetType.ONT, AssetStatus.ASSIGNED));
+        index.put(asset(3L, "ONT-3", "M", AssetType.ONT, AssetStatus.AVAILABLE));
+
+        assertEquals(List.of(1L, 3L), ids(index.search("ONT", AssetType.ONT, AssetStatus.AVAILABLE, 10)));
+        assertEquals(List.of(1L), ids(index.search("ONT", null, null, 1)));
+        assertTrue(index.search("ONT", AssetType.ROUTER, null, 10).isEmpty());
+    }
+
+    @Test
+    void testPutAndRemove_KeepIndexInSync() {
+        AssetSearchIndex index = new AssetSearchIndex();
+        index.put(asset(1L, "ONT-OLD", "M", AssetType.ONT, AssetStatus.AVAILABLE));
+        index.put(asset(1L, "ONT-NEW", "M", AssetType.ONT, AssetStatus.FAULTY));
+        index.put(asset(2L, "ONT-GONE", "M", AssetType.ONT, AssetStatus.AVAILABLE));
+        index.remove(2L);
+
+        assertTrue(index.search("ont-old", null, null, 10).isEmpty());
+        assertTrue(index.search("gone", null, null, 10).isEmpty());
+        List<AssetSearchIndex.Match> matches = index.search("new", null, null, 10);
+        assertEquals(List.of(1L), ids(matches));
+        assertEquals(AssetStatus.FAULTY, matches.get(0).asset().assetStatus());
+        assertEquals(1, index.size());
+    }
+
+    private static AssetSnapshot asset(Long id, String serial, String model, AssetType type, AssetStatus status) {
+        return new AssetSnapshot(id, serial, type, model, status, null, null);
+    }
+
+    private static List<Long> ids(List<AssetSearchIndex.Match> matches) {
+        return matches.stream().map(match -> match.asset().id()).toList();
+    }
+}
@@ -0,0 +1,165 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetCreateRequest;
+import com.training.inventory_service.dtos.AssetResponse;
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.exceptions.AssetInUseException;
+import com.training.inventory_service.exceptions.AssetVersionConflictException;
+import com.training.inventory_service.repositories.AssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of optimistic assignment with 64 technicians racing for a small pool of routers.
+ * Each winner hands its router straight back, so the pool never runs dry and attempts keep
+ * racing on the versioned update instead of bouncing off already-assigned routers.
+ * Commits for real, so it is opt-in and not picked up by the default surefire includes:
+ * {@code mvn test -Dtest=AssetAssignmentContentionBenchmark -Dbenchmarks=true}
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class AssetAssignmentContentionBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetAssignmentContentionBenchmark.class);
+
+    private static final int ASSIGNERS = 64;
+    private static final int ATTEMPTS_PER_ASSIGNER = 20;
+    private static final int POOL_SIZE = 16;
+    private static final long FIRST_CUSTOMER_ID = 900_000L;
+
+    @Autowired
+    private AssetServiceInterface assetService;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    private final List<String> pool = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String prefix = "BENCH-RTR-" + System.nanoTime() + "-";
+        for (int i = 0; i < POOL_SIZE; i++) {
+            AssetCreateRequest request = new AssetCreateRequest();
+            request.setSerialNumber(prefix + i);
+            request.setAssetType(AssetType.ROUTER);
+            request.setModel("Benchmark");
+            pool.add(assetService.createAsset(request).getSerialNumber());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        assetService.reclaimAssetsFromCustomers(customerIds(), AssetStatus.AVAILABLE.name(), null);
+        for (String serialNumber : pool) {
+            assetRepository.findBySerialNumber(serialNumber).ifPresent(asset -> assetService.deleteAsset(asset.getId()));
+        }
+    }
+
+    @Test
+    void retryingAssignment() throws InterruptedException {
+        Result result = run((serialNumber, customerId) ->
+                assetService.assignAssetToCustomer(serialNumber, customerId, null));
+        report("retrying", result);
+    }
+
+    @Test
+    void failFastAssignment() throws InterruptedException {
+        Result result = run((serialNumber, customerId) -> {
+            Long version = assetRepository.findBySerialNumber(serialNumber).orElseThrow().getVersion();
+            return assetService.assignAssetToCustomer(serialNumber, customerId, null, version);
+        });
+        report("fail-fast", result);
+    }
+
+    private Result run(Assigner assigner) throws InterruptedException {
+        AtomicInteger assigned = new AtomicInteger();
+        AtomicInteger alreadyTaken = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(ASSIGNERS);
+        AtomicInteger doubleWins = new AtomicInteger();
+        Map<String, Long> holders = new ConcurrentHashMap<>();
+        for (int i = 0; i < ASSIGNERS; i++) {
+            long customerId = FIRST_CUSTOMER_ID + i; // One technician per thread
+            executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_ASSIGNER; attempt++) {
+                    String serialNumber = pool.get(ThreadLocalRandom.current().nextInt(POOL_SIZE));
+                    try {
+                        assigner.assign(serialNumber, customerId);
+                        assigned.incrementAndGet();
+                        // A lost update would let a second technician win while the first still holds it
+                        if (holders.putIfAbsent(serialNumber, customerId) != null) {
+                            doubleWins.incrementAndGet();
+                            continue;
+                        }
+                        holders.remove(serialNumber, customerId);
+                        assetService.unassignCustomerAssetsBySerialNumber(serialNumber);
+                    } catch (AssetInUseException e) {
+                        alreadyTaken.incrementAndGet();
+                    } catch (AssetVersionConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        return new Result(assigned.get(), alreadyTaken.get(), conflicts.get(), doubleWins.get(), System.nanoTime() - startedAt);
+    }
+
+    private void report(String mode, Result result) {
+        int operations = ASSIGNERS * ATTEMPTS_PER_ASSIGNER;
+        assertEquals(operations, result.assigned() + result.alreadyTaken() + result.conflicts());
+
+        // No lost updates: a router is never won twice without being handed back in between
+        assertEquals(0, result.doubleWins());
+        for (String serialNumber : pool) {
+            Asset asset = assetRepository.findBySerialNumber(serialNumber).orElseThrow();
+            assertEquals(AssetStatus.AVAILABLE, asset.getAssetStatus(), serialNumber);
+        }
+
+        double seconds = result.elapsedNanos() / 1_000_000_000.0;
+        logger.info("{} assignment, {} assigners over {} routers: {} ops in {} s ({} ops/s); assigned={}, already taken={}, version conflicts={}",
+                mode, ASSIGNERS, POOL_SIZE, operations, String.format("%.2f", seconds),
+                String.format("%.0f", operations / seconds), result.assigned(), result.alreadyTaken(), result.conflicts());
+    }
+
+    private static List<Long> customerIds() {
+        return IntStream.range(0, ASSIGNERS).mapToObj(i -> FIRST_CUSTOMER_ID + i).toList();
+    }
+
+    @FunctionalInterface
+    private interface Assigner {
+        AssetResponse assign(String serialNumber, Long customerId);
+    }
+
+    private record Result(int assigned, int alreadyTaken, int conflicts, int doubleWins, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetImportResult;
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ImportFormat;
+import com.training.inventory_service.exceptions.InvalidImportFileException;
+import com.training.inventory_service.repositories.AssetHistoryRepository;
+import com.training.inventory_service.repositories.AssetRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class AssetImportServiceIntegrationTest {
+
+    @Autowired
+    private AssetImportServiceInterface assetImportService;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Test
+    void testImportCsv_InsertsAssetsAndReportsBadRows() {
+        Asset existing = new Asset();
+        existing.setAssetType(AssetType.ONT);
+        existing.setSerialNumber("IMPORT-ONT-EXISTING");
+        existing.setAssetStatus(AssetStatus.AVAILABLE);
+        assetRepository.save(existing);
+
+        String csv = """
+                assetType,serialNumber,model,location
+                ONT,IMPORT-ONT-1,ONT-X9100,Central Store
+                ROUTER,"IMPORT-RTR-1",RTR-200,Central Store
+                ONT,IMPORT-ONT-1,ONT-X9100,Central Store
+                ONT,IMPORT-ONT-EXISTING,ONT-X9100,Central Store
+                SPLITTER,IMPORT-SPL-1,8-Port,Central Store
+                BOGUS,IMPORT-X-1,,
+                """;
+
+        AssetImportResult result = assetImportService.importAssets(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, 1L);
+
+        assertEquals(6, result.getTotalRows());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(4, result.getFailedCount());
+        assertEquals(4, result.getErrors().size());
+
+        Asset imported = assetRepository.findBySerialNumber("IMPORT-ONT-1").orElseThrow();
+        assertEquals(AssetStatus.AVAILABLE, imported.getAssetStatus());
+        assertEquals("Central Store", imported.getLocation());
+        assertEquals(1, assetHistoryRepository.findByAssetIdOrderByTimestampDesc(imported.getId()).size());
+    }
+
+    @Test
+    void testImportCsv_TreatsSerialsDifferingOnlyInCaseAsDuplicates() {
+        Asset existing = new Asset();
+        existing.setAssetType(AssetType.ONT);
+        existing.setSerialNumber("IMPORT-ONT-CASE-EXISTING");
+        existing.setAssetStatus(AssetStatus.AVAILABLE);
+        assetRepository.save(existing);
+
+        String csv = """
+                assetType,serialNumber,model,location
+                ONT,import-ont-case-1,ONT-X9100,Central Store
+                ONT,IMPORT-ONT-CASE-1,ONT-X9100,Central Store
+                ONT,import-ont-case-existing,ONT-X9100,Central Store
+                """;
+
+        AssetImportResult result = assetImportService.importAssets(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, 1L);
+
+        // Neither duplicate reaches the batch insert, so the first row is not lost to a rejected chunk
+        assertEquals(1, result.getImportedCount());
+        assertEquals(2, result.getFailedCount());
+        assertTrue(assetRepository.existsBySerialNumber("import-ont-case-1"));
+    }
+
+    @Test
+    void testImportNdjson_Success() {
+        String ndjson = """
+                {"assetType":"ONT","serialNumber":"IMPORT-NDJSON-1","model":"ONT-X9100","location":"North Store"}
+                {"assetType":"ROUTER","serialNumber":"IMPORT-NDJSON-2","model":"RTR-200","location":"North Store"}
+                {not json}
+                """;
+
+        AssetImportResult result = assetImportService.importAssets(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON, 1L);
+
+        assertEquals(2, result.getImportedCount());
+        assertEquals(1, result.getFailedCount());
+        assertTrue(assetRepository.existsBySerialNumber("IMPORT-NDJSON-2"));
+    }
+
+    @Test
+    void testImportCsv_RejectsFileWithoutRequiredHeader() {
+        String csv = """
+                ONT,IMPORT-ONT-NOHEADER,ONT-X9100,Central Store
+                """;
+
+        assertThrows(InvalidImportFileException.class, () -> assetImportService.importAssets(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV, 1L));
+        assertFalse(assetRepository.existsBySerialNumber("IMPORT-ONT-NOHEADER"));
+    }
+}
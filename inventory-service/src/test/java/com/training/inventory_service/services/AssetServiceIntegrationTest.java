@@ -1,13 +1,22 @@
 
 package com.training.inventory_service.services;
 
+import com.training.inventory_service.dtos.AssetHistoryPageResponse;
+import com.training.inventory_service.dtos.AssetHistoryResponse;
 import com.training.inventory_service.dtos.AssetReplacementRequest;
 import com.training.inventory_service.dtos.AssetResponse;
+import com.training.inventory_service.dtos.BulkReclaimResult;
+import com.training.inventory_service.dtos.BulkReplacementResult;
 import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.entities.AssetHistory;
 import com.training.inventory_service.enums.AssetStatus;
 import com.training.inventory_service.enums.AssetType;
 import com.training.inventory_service.exceptions.AssetInUseException;
 import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.exceptions.AssetVersionConflictException;
+import com.training.inventory_service.exceptions.InvalidAssetStatusTransitionException;
+import com.training.inventory_service.exceptions.InvalidCursorException;
+import com.training.inventory_service.repositories.AssetHistoryRepository;
 import com.training.inventory_service.repositories.AssetRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,9 +24,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "inventory.history-journal.enabled=false") // Write history inside the test transaction
 @Transactional // Roll back transactions after each test
 class AssetServiceIntegrationTest {
 
@@ -27,6 +40,9 @@ class AssetServiceIntegrationTest {
     @Autowired
     private AssetRepository assetRepository;
 
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
     private Asset faultyOnt;
     private Asset newOnt;
     private Asset newRouter;
@@ -113,4 +129,179 @@ class AssetServiceIntegrationTest {
             assetService.replaceFaultyAsset(request, 1L);
         });
     }
+
+    @Test
+    void testReplaceFaultyAssets_AppliesValidPairsAndReportsTheRest() {
+        BulkReplacementResult result = assetService.replaceFaultyAssets(List.of(
+                replacement("FAULTY-ONT-123", "NEW-ONT-456"),
+                replacement("NON-EXISTENT-SN", "NEW-ROUTER-789")), 1L);
+
+        assertEquals(2, result.getRequested());
+        assertEquals(1, result.getReplaced());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getResults().get(0).isReplaced());
+        assertEquals(101L, result.getResults().get(0).getCustomerId());
+        assertFalse(result.getResults().get(1).isReplaced());
+        assertNotNull(result.getResults().get(1).getError());
+
+        Asset replaced = assetRepository.findBySerialNumber("NEW-ONT-456").get();
+        assertEquals(AssetStatus.ASSIGNED, replaced.getAssetStatus());
+        assertEquals(101L, replaced.getAssignedToCustomerId());
+        assertNull(assetRepository.findBySerialNumber("FAULTY-ONT-123").get().getAssignedToCustomerId());
+        assertEquals(AssetStatus.AVAILABLE, assetRepository.findBySerialNumber("NEW-ROUTER-789").get().getAssetStatus());
+    }
+
+    @Test
+    void testReplaceFaultyAssets_MatchesSerialsCaseInsensitivelyAndWritesHistory() {
+        BulkReplacementResult result = assetService.replaceFaultyAssets(List.of(
+                replacement("faulty-ont-123", "new-ont-456")), 1L);
+
+        assertEquals(1, result.getReplaced());
+        assertEquals(101L, assetRepository.findBySerialNumber("NEW-ONT-456").get().getAssignedToCustomerId());
+        assertEquals(List.of("ASSET_REPLACEMENT_FAULTY"), changeTypes(faultyOnt.getId()));
+        assertEquals(List.of("ASSET_REPLACEMENT_NEW"), changeTypes(newOnt.getId()));
+    }
+
+    @Test
+    void testReplaceFaultyAssets_RejectsRepeatedSerialsUnavailableReplacementsAndTypeMismatches() {
+        Asset otherFaulty = saveAsset("FAULTY-ONT-124", AssetType.ONT, AssetStatus.FAULTY, 202L);
+        saveAsset("ASSIGNED-ONT-457", AssetType.ONT, AssetStatus.ASSIGNED, 303L);
+
+        BulkReplacementResult repeated = assetService.replaceFaultyAssets(List.of(
+                replacement("FAULTY-ONT-123", "NEW-ONT-456"),
+                replacement("FAULTY-ONT-124", "new-ont-456")), 1L);
+        assertEquals(0, repeated.getReplaced());
+        assertEquals("Serial number NEW-ONT-456 appears in more than one replacement pair of this batch.",
+                repeated.getResults().get(0).getError());
+        assertEquals("Serial number new-ont-456 appears in more than one replacement pair of this batch.",
+                repeated.getResults().get(1).getError());
+
+        BulkReplacementResult invalid = assetService.replaceFaultyAssets(List.of(
+                replacement("FAULTY-ONT-123", "NEW-ROUTER-789"),
+                replacement("FAULTY-ONT-124", "ASSIGNED-ONT-457")), 1L);
+        assertEquals(0, invalid.getReplaced());
+        assertEquals(2, invalid.getFailed());
+        assertEquals("Asset types do not match. Cannot replace ONT with ROUTER", invalid.getResults().get(0).getError());
+        assertEquals("Replacement asset ASSIGNED-ONT-457 is not AVAILABLE.", invalid.getResults().get(1).getError());
+
+        assertEquals(AssetStatus.AVAILABLE, assetRepository.findBySerialNumber("NEW-ONT-456").get().getAssetStatus());
+        assertEquals(202L, assetRepository.findById(otherFaulty.getId()).get().getAssignedToCustomerId());
+        assertTrue(changeTypes(faultyOnt.getId()).isEmpty());
+    }
+
+    @Test
+    void testReclaimAssetsFromCustomers_ReleasesAssetsAndSummarizesPerCustomer() {
+        BulkReclaimResult result = assetService.reclaimAssetsFromCustomers(List.of(101L, 202L, 101L), "available", 1L);
+
+        assertEquals(2, result.getCustomerCount());
+        assertEquals(1, result.getReclaimedAssetCount());
+        assertEquals(1, result.getCustomers().get(0).getReclaimedAssets());
+        assertEquals(0, result.getCustomers().get(1).getReclaimedAssets());
+
+        Asset reclaimed = assetRepository.findBySerialNumber("FAULTY-ONT-123").get();
+        assertEquals(AssetStatus.AVAILABLE, reclaimed.getAssetStatus());
+        assertNull(reclaimed.getAssignedToCustomerId());
+    }
+
+    @Test
+    void testReclaimAssetsFromCustomers_KeepsPendingChangesAndRejectsUnknownStatus() {
+        // Modified but not yet flushed when the reclaim runs its JDBC statements
+        newRouter.setLocation("Depot 7");
+
+        assetService.reclaimAssetsFromCustomers(List.of(101L), "faulty", 1L);
+
+        assertEquals("Depot 7", assetRepository.findBySerialNumber("NEW-ROUTER-789").get().getLocation());
+        assertNull(assetRepository.findBySerialNumber("FAULTY-ONT-123").get().getAssignedToCustomerId());
+        assertThrows(InvalidAssetStatusTransitionException.class,
+                () -> assetService.reclaimAssetsFromCustomers(List.of(101L), "lost", 1L));
+    }
+
+    @Test
+    void testAssignAssetToCustomer_BumpsVersionAndRejectsTakenAsset() {
+        AssetResponse assigned = assetService.assignAssetToCustomer("NEW-ROUTER-789", 300L, 1L);
+        assertEquals(AssetStatus.ASSIGNED, assigned.getAssetStatus());
+        assertEquals(1L, assigned.getVersion());
+
+        // Repeating the same assignment is a no-op, another customer is rejected instead of overwriting
+        assertEquals(1L, assetService.assignAssetToCustomer("NEW-ROUTER-789", 300L, 1L).getVersion());
+        assertThrows(AssetInUseException.class, () -> assetService.assignAssetToCustomer("NEW-ROUTER-789", 400L, 1L));
+        assertEquals(300L, assetRepository.findBySerialNumber("NEW-ROUTER-789").get().getAssignedToCustomerId());
+    }
+
+    @Test
+    void testAssignAssetToCustomer_FailsFastOnStaleExpectedVersion() {
+        assertThrows(AssetVersionConflictException.class,
+                () -> assetService.assignAssetToCustomer("NEW-ONT-456", 300L, 1L, newOnt.getVersion() + 1));
+        assertEquals(AssetStatus.AVAILABLE, assetRepository.findBySerialNumber("NEW-ONT-456").get().getAssetStatus());
+    }
+
+    @Test
+    void testGetAssetHistoryPage_WalksNewestFirstAndFilters() {
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            saveHistory(newOnt.getId(), i % 2 == 0 ? "ASSET_ASSIGNED" : "STATUS_UPDATE", base.plusSeconds(i));
+        }
+
+        AssetHistoryPageResponse first = assetService.getAssetHistoryPage(newOnt.getId(), base, null, null, null, 2);
+        assertEquals(2, first.getItems().size());
+        assertEquals(base.plusSeconds(4), first.getItems().get(0).getTimestamp());
+        assertNotNull(first.getNextCursor());
+
+        AssetHistoryPageResponse second = assetService.getAssetHistoryPage(newOnt.getId(), base, null, null, first.getNextCursor(), 2);
+        assertEquals(base.plusSeconds(2), second.getItems().get(0).getTimestamp());
+
+        AssetHistoryPageResponse assigned = assetService.getAssetHistoryPage(newOnt.getId(), base, base.plusSeconds(4), "ASSET_ASSIGNED", null, 10);
+        assertEquals(2, assigned.getItems().size()); // Upper bound is exclusive
+        assertNull(assigned.getNextCursor());
+        assertThrows(InvalidCursorException.class,
+                () -> assetService.getAssetHistoryPage(newOnt.getId(), null, null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void testStreamHistory_ReturnsMatchingEntriesAcrossAssetsInOrder() {
+        Instant base = Instant.now().minusSeconds(60);
+        saveHistory(newOnt.getId(), "ASSET_ASSIGNED", base);
+        saveHistory(newRouter.getId(), "ASSET_ASSIGNED", base.plusSeconds(1));
+        saveHistory(newRouter.getId(), "STATUS_UPDATE", base.plusSeconds(2));
+
+        List<AssetHistoryResponse> streamed = new ArrayList<>();
+        assetService.streamHistory("ASSET_ASSIGNED", base, null, streamed::addAll);
+
+        // Journal writes from other tests are committed, so only look at this test's assets
+        List<Long> assetIds = streamed.stream().map(AssetHistoryResponse::getAssetId)
+                .filter(id -> id.equals(newOnt.getId()) || id.equals(newRouter.getId()))
+                .toList();
+        assertEquals(List.of(newOnt.getId(), newRouter.getId()), assetIds);
+    }
+
+    private static AssetReplacementRequest replacement(String faultySerial, String newSerial) {
+        AssetReplacementRequest request = new AssetReplacementRequest();
+        request.setFaultyAssetSerialNumber(faultySerial);
+        request.setNewAssetSerialNumber(newSerial);
+        return request;
+    }
+
+    private Asset saveAsset(String serialNumber, AssetType assetType, AssetStatus assetStatus, Long customerId) {
+        Asset asset = new Asset();
+        asset.setAssetType(assetType);
+        asset.setSerialNumber(serialNumber);
+        asset.setAssetStatus(assetStatus);
+        asset.setAssignedToCustomerId(customerId);
+        return assetRepository.save(asset);
+    }
+
+    private List<String> changeTypes(Long assetId) {
+        return assetHistoryRepository.findByAssetIdOrderByTimestampDesc(assetId).stream()
+                .map(AssetHistory::getChangeType)
+                .toList();
+    }
+
+    private void saveHistory(Long assetId, String changeType, Instant timestamp) {
+        AssetHistory history = new AssetHistory();
+        history.setAssetId(assetId);
+        history.setChangeType(changeType);
+        history.setDescription(changeType);
+        history.setTimestamp(timestamp);
+        assetHistoryRepository.save(history);
+    }
 }
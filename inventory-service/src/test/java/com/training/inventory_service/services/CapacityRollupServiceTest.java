@@ -0,0 +1,158 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.CapacityRollupDto;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.HierarchyNodeChangedEvent;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import com.training.inventory_service.events.HierarchyNodesMovedEvent;
+import com.training.inventory_service.events.SplitterCapacityChangedEvent;
+import com.training.inventory_service.exceptions.AssetNotFoundException;
+import com.training.inventory_service.repositories.CoreSwitchRepository;
+import com.training.inventory_service.repositories.FdhRepository;
+import com.training.inventory_service.repositories.HeadendRepository;
+import com.training.inventory_service.repositories.HierarchyLinkView;
+import com.training.inventory_service.repositories.SplitterCapacityView;
+import com.training.inventory_service.repositories.SplitterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CapacityRollupServiceTest {
+
+    @Mock
+    private SplitterRepository splitterRepository;
+    @Mock
+    private FdhRepository fdhRepository;
+    @Mock
+    private CoreSwitchRepository coreSwitchRepository;
+    @Mock
+    private HeadendRepository headendRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CapacityRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new CapacityRollupService(splitterRepository, fdhRepository, coreSwitchRepository, headendRepository, transactionManager);
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.HEADEND, 1L, null));
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.HEADEND, 2L, null));
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, 10L, 1L));
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.FDH, 100L, 10L));
+        rollupService.onSplitterCapacityChanged(new SplitterCapacityChangedEvent(1000L, 100L, 8, 2, 0));
+        rollupService.onSplitterCapacityChanged(new SplitterCapacityChangedEvent(1001L, 100L, 16, 0, 0));
+    }
+
+    @Test
+    void testSplitterChanges_RollUpToEveryLevel() {
+        rollupService.onSplitterCapacityChanged(new SplitterCapacityChangedEvent(1001L, 100L, 16, 1, 1));
+
+        CapacityRollupDto headend = rollupService.getHeadendCapacity(1L);
+        assertEquals(2, headend.getSplitterCount());
+        assertEquals(24, headend.getTotalPorts());
+        assertEquals(3, headend.getUsedPorts());
+        assertEquals(21, headend.getFreePorts());
+        assertEquals(3, rollupService.getCoreSwitchCapacity(10L).getUsedPorts());
+        assertEquals(3, rollupService.getFdhCapacity(100L).getUsedPorts());
+    }
+
+    @Test
+    void testReparentCoreSwitch_MovesTotalsBetweenHeadends() {
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, 10L, 2L));
+
+        assertEquals(0, rollupService.getHeadendCapacity(1L).getTotalPorts());
+        assertEquals(24, rollupService.getHeadendCapacity(2L).getTotalPorts());
+        assertEquals(1, rollupService.getCoreSwitchCapacitiesByHeadend(2L).size());
+        assertEquals(0, rollupService.getCoreSwitchCapacitiesByHeadend(1L).size());
+    }
+
+    @Test
+    void testDeleteSplitter_RemovesItsCapacity() {
+        rollupService.onHierarchyNodeDeleted(new HierarchyNodeDeletedEvent(AssetType.SPLITTER, 1001L));
+
+        CapacityRollupDto fdh = rollupService.getFdhCapacity(100L);
+        assertEquals(1, fdh.getSplitterCount());
+        assertEquals(8, fdh.getTotalPorts());
+        assertThrows(AssetNotFoundException.class, () -> rollupService.getFdhCapacity(999L));
+    }
+
+    @Test
+    void testBulkSplitterMove_ShiftsBatchTotalsAcrossBranches() {
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.CORE_SWITCH, 20L, 2L));
+        rollupService.onHierarchyNodeChanged(new HierarchyNodeChangedEvent(AssetType.FDH, 200L, 20L));
+
+        rollupService.onHierarchyNodesMoved(new HierarchyNodesMovedEvent(AssetType.SPLITTER, 200L, List.of(1000L, 1001L)));
+
+        assertEquals(0, rollupService.getFdhCapacity(100L).getSplitterCount());
+        assertEquals(0, rollupService.getHeadendCapacity(1L).getTotalPorts());
+        CapacityRollupDto target = rollupService.getFdhCapacity(200L);
+        assertEquals(2, target.getSplitterCount());
+        assertEquals(24, target.getTotalPorts());
+        assertEquals(2, rollupService.getHeadendCapacity(2L).getUsedPorts());
+    }
+
+    @Test
+    void testRebuild_ReplaysChangesCommittedWhileReading() {
+        when(headendRepository.findAllIds()).thenReturn(List.of(1L));
+        when(coreSwitchRepository.findAllLinks()).thenReturn(List.of(new Link(10L, 1L)));
+        when(fdhRepository.findAllLinks()).thenReturn(List.of(new Link(100L, 10L)));
+        when(splitterRepository.findAllProjectedBy()).thenAnswer(invocation -> {
+            // Committed while the rebuild reads: one reservation the read already sees, one splitter it misses
+            rollupService.onSplitterCapacityChanged(new SplitterCapacityChangedEvent(1000L, 100L, 8, 3, 1));
+            rollupService.onSplitterCapacityChanged(new SplitterCapacityChangedEvent(1002L, 100L, 4, 0, 0));
+            return List.of(new Capacity(1000L, 100L, 8, 3), new Capacity(1001L, 100L, 16, 0));
+        });
+
+        rollupService.rebuild();
+
+        CapacityRollupDto fdh = rollupService.getFdhCapacity(100L);
+        assertEquals(3, fdh.getSplitterCount());
+        assertEquals(28, fdh.getTotalPorts());
+        assertEquals(3, fdh.getUsedPorts());
+        assertEquals(3, rollupService.getHeadendCapacity(1L).getUsedPorts());
+    }
+
+    private record Link(Long id, Long parentId) implements HierarchyLinkView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+    }
+
+    private record Capacity(Long id, Long fdhId, int portCapacity, int usedPorts) implements SplitterCapacityView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getFdhId() {
+            return fdhId;
+        }
+
+        @Override
+        public int getPortCapacity() {
+            return portCapacity;
+        }
+
+        @Override
+        public int getUsedPorts() {
+            return usedPorts;
+        }
+    }
+}
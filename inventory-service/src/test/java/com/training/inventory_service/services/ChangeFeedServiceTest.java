@@ -0,0 +1,135 @@
+package com.training.inventory_service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.training.inventory_service.dtos.ChangeFeedResponse;
+import com.training.inventory_service.entities.InventoryChange;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ChangeEntityType;
+import com.training.inventory_service.enums.ChangeOperation;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.events.HierarchyNodeDeletedEvent;
+import com.training.inventory_service.exceptions.ChangeFeedExpiredException;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.InventoryChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private InventoryChangeRepository inventoryChangeRepository;
+    @Mock
+    private AssetBatchRepository assetBatchRepository;
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService(inventoryChangeRepository, assetBatchRepository, new ObjectMapper(), 2, 10, 0, 30);
+    }
+
+    @Test
+    void testRecord_InTransaction_WritesOneBatchBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeFeedService.onAssetChanged(AssetChangedEvent.created(
+                    new AssetSnapshot(5L, "ONT-5", AssetType.ONT, "M", AssetStatus.AVAILABLE, null, null)));
+            changeFeedService.onHierarchyNodeDeleted(new HierarchyNodeDeletedEvent(AssetType.FDH, 7L));
+            verify(assetBatchRepository, never()).insertChanges(anyList());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(assetBatchRepository).insertChanges(captor.capture());
+        List<InventoryChange> written = captor.getValue();
+        assertEquals(2, written.size());
+        assertEquals(ChangeEntityType.ASSET, written.get(0).getEntityType());
+        assertEquals(ChangeOperation.UPSERT, written.get(0).getOperation());
+        assertTrue(written.get(0).getPayload().contains("\"serialNumber\":\"ONT-5\""));
+        assertEquals(ChangeEntityType.FDH, written.get(1).getEntityType());
+        assertEquals(ChangeOperation.DELETE, written.get(1).getOperation());
+        assertNull(written.get(1).getPayload());
+    }
+
+    @Test
+    void testGetChanges_PagesBySequence() {
+        when(inventoryChangeRepository.findFirstSequence()).thenReturn(1L);
+        when(inventoryChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class)))
+                .thenReturn(LongStream.of(4, 5, 6).mapToObj(ChangeFeedServiceTest::change).toList());
+
+        ChangeFeedResponse response = changeFeedService.getChanges(3L, null);
+
+        assertEquals(List.of(4L, 5L), response.getChanges().stream().map(c -> c.getSequence()).toList());
+        assertEquals(5L, response.getNextSince());
+        assertTrue(response.isHasMore());
+    }
+
+    @Test
+    void testGetChanges_StopsAtFirstUnsettledRow() {
+        changeFeedService = new ChangeFeedService(inventoryChangeRepository, assetBatchRepository, new ObjectMapper(), 10, 10, 60_000, 30);
+        InventoryChange older = change(4);
+        older.setChangedAt(Instant.now().minusSeconds(120));
+        InventoryChange unsettled = change(5); // Lower sequence, but stamped after the one below
+        InventoryChange settled = change(6);
+        settled.setChangedAt(Instant.now().minusSeconds(120));
+        when(inventoryChangeRepository.findFirstSequence()).thenReturn(1L);
+        when(inventoryChangeRepository.findByIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(older, unsettled, settled));
+
+        ChangeFeedResponse response = changeFeedService.getChanges(3L, null);
+
+        assertEquals(List.of(4L), response.getChanges().stream().map(c -> c.getSequence()).toList());
+        assertEquals(4L, response.getNextSince());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void testGetChanges_BehindRetention_Throws() {
+        when(inventoryChangeRepository.findFirstSequence()).thenReturn(100L);
+
+        assertThrows(ChangeFeedExpiredException.class, () -> changeFeedService.getChanges(50L, 10));
+        assertFalse(changeFeedService.getChanges(99L, 10).isHasMore());
+    }
+
+    private static InventoryChange change(long id) {
+        InventoryChange change = new InventoryChange();
+        change.setId(id);
+        change.setEntityType(ChangeEntityType.ASSET);
+        change.setEntityId(id);
+        change.setOperation(ChangeOperation.UPSERT);
+        change.setChangedAt(Instant.now());
+        return change;
+    }
+}
@@ -0,0 +1,92 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.*;
+import com.training.inventory_service.entities.Splitter;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.exceptions.AssetAlreadyExistsException;
+import com.training.inventory_service.repositories.AssetRepository;
+import com.training.inventory_service.repositories.FdhRepository;
+import com.training.inventory_service.repositories.SplitterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class InfrastructureProvisioningServiceIntegrationTest {
+
+    @Autowired
+    private InfrastructureProvisioningService provisioningService;
+
+    @Autowired
+    private NetworkHierarchyService networkHierarchyService;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private FdhRepository fdhRepository;
+
+    @Autowired
+    private SplitterRepository splitterRepository;
+
+    @Test
+    void testProvisionCoreSwitch_CreatesWholeSubtree() {
+        AssetCreateRequest headendReq = new AssetCreateRequest();
+        headendReq.setAssetType(AssetType.HEADEND);
+        headendReq.setName("Prov-HE");
+        HeadendDto headend = networkHierarchyService.createHeadend(headendReq);
+
+        CoreSwitchProvisionRequest request = new CoreSwitchProvisionRequest();
+        request.setName("Prov-CS");
+        request.setHeadendId(headend.getId());
+        request.setFdhs(List.of(fdhRequest("Prov-FDH-1", 3), fdhRequest("Prov-FDH-2", 2)));
+
+        ProvisionResult result = provisioningService.provisionCoreSwitch(request, 1L);
+
+        assertEquals(headend.getId(), result.getCoreSwitch().getHeadendId());
+        assertEquals(2, result.getFdhs().size());
+        assertEquals(5, result.getSplitters().size());
+        assertTrue(result.getFdhs().stream().allMatch(f -> result.getCoreSwitch().getId().equals(f.getCoreSwitchId())));
+
+        // Subtype rows share the asset id and are linked to their parents
+        FdhDto firstFdh = result.getFdhs().get(0);
+        assertEquals(result.getCoreSwitch().getId(), fdhRepository.findById(firstFdh.getId()).orElseThrow().getCoreSwitchId());
+        SplitterDto firstSplitter = result.getSplitters().get(0);
+        Splitter splitter = splitterRepository.findById(firstSplitter.getId()).orElseThrow();
+        assertEquals(firstFdh.getId(), splitter.getFdhId());
+        assertEquals(32, splitter.getPortCapacity());
+        assertEquals("Prov-FDH-1-SPL-1", firstSplitter.getSerialNumber());
+        assertEquals("32-Port Splitter", firstSplitter.getModel());
+        assertEquals(AssetType.SPLITTER, assetRepository.findById(firstSplitter.getId()).orElseThrow().getAssetType());
+    }
+
+    @Test
+    void testProvisionFdh_RejectsExistingSerialWithoutWritingAnything() {
+        provisioningService.provisionFdh(fdhRequest("Prov-FDH-A", 1), 1L);
+
+        FdhProvisionRequest clash = fdhRequest("Prov-FDH-B", 1);
+        clash.getSplitters().get(0).setSerialNumber("Prov-FDH-A-SPL-1");
+
+        assertThrows(AssetAlreadyExistsException.class, () -> provisioningService.provisionFdh(clash, 1L));
+        assertTrue(assetRepository.findBySerialNumber("Prov-FDH-B").isEmpty());
+    }
+
+    private static FdhProvisionRequest fdhRequest(String name, int splitterCount) {
+        FdhProvisionRequest request = new FdhProvisionRequest();
+        request.setName(name);
+        request.setRegion("North");
+        for (int i = 0; i < splitterCount; i++) {
+            SplitterProvisionRequest splitter = new SplitterProvisionRequest();
+            splitter.setPortCapacity(32);
+            splitter.setNeighborhood("Block " + i);
+            request.getSplitters().add(splitter);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.InventoryStatsDto;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetCountView;
+import com.training.inventory_service.repositories.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryStatsServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+    @Mock
+    private AssetBatchRepository assetBatchRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InventoryStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        when(assetRepository.countByTypeStatusAndLocation()).thenReturn(List.of(
+                new Count(AssetType.ONT, AssetStatus.AVAILABLE, "Pune", 5),
+                new Count(AssetType.ONT, AssetStatus.ASSIGNED, "Pune", 3),
+                new Count(AssetType.ROUTER, AssetStatus.AVAILABLE, null, 2)));
+        statsService = new InventoryStatsService(assetRepository, assetBatchRepository, transactionManager);
+        statsService.reconcile();
+    }
+
+    @Test
+    void testGetStats_AggregatesSeededCounters() {
+        InventoryStatsDto stats = statsService.getStats(null, null, null);
+
+        assertEquals(10, stats.getTotalAssets());
+        assertEquals(8, stats.getByType().get(AssetType.ONT));
+        assertEquals(7, stats.getByStatus().get(AssetStatus.AVAILABLE));
+        assertEquals(2, stats.getByLocation().get(InventoryStatsService.UNSPECIFIED_LOCATION));
+        assertEquals(3, stats.getCounts().size());
+        assertNotNull(stats.getReconciledAt());
+
+        assertEquals(5, statsService.getStats(AssetType.ONT, AssetStatus.AVAILABLE, "Pune").getTotalAssets());
+    }
+
+    @Test
+    void testAssetChanges_MoveCountsBetweenCombinations() {
+        AssetSnapshot available = new AssetSnapshot(1L, "ONT-1", AssetType.ONT, "M1", AssetStatus.AVAILABLE, "Pune", null);
+        statsService.onAssetChanged(new AssetChangedEvent(available, available.withAssignment(AssetStatus.ASSIGNED, 42L)));
+        statsService.onAssetChanged(AssetChangedEvent.created(
+                new AssetSnapshot(2L, "RTR-1", AssetType.ROUTER, "M2", AssetStatus.AVAILABLE, "Mumbai", null)));
+        statsService.onAssetChanged(AssetChangedEvent.deleted(
+                new AssetSnapshot(3L, "RTR-2", AssetType.ROUTER, "M2", AssetStatus.AVAILABLE, null, null)));
+
+        InventoryStatsDto stats = statsService.getStats(null, null, null);
+        assertEquals(10, stats.getTotalAssets());
+        assertEquals(4, stats.getByStatus().get(AssetStatus.ASSIGNED));
+        assertEquals(1, stats.getByLocation().get("Mumbai"));
+        assertEquals(1, stats.getByLocation().get(InventoryStatsService.UNSPECIFIED_LOCATION));
+    }
+
+    @Test
+    void testReconcile_ReplacesDriftedCounters() {
+        AssetSnapshot stray = new AssetSnapshot(9L, "ONT-9", AssetType.ONT, "M1", AssetStatus.FAULTY, "Pune", null);
+        statsService.onAssetChanged(AssetChangedEvent.created(stray));
+        assertEquals(11, statsService.getStats(null, null, null).getTotalAssets());
+
+        statsService.reconcile(); // The database never saw the stray asset
+
+        assertEquals(10, statsService.getStats(null, null, null).getTotalAssets());
+        assertEquals(0, statsService.getStats(null, AssetStatus.FAULTY, null).getTotalAssets());
+    }
+
+    @Test
+    void testReconcile_ResolvesChangesCommittedWhileCountingWithoutDoubleCounting() {
+        AssetSnapshot available = new AssetSnapshot(1L, "ONT-1", AssetType.ONT, "M1", AssetStatus.AVAILABLE, "Pune", null);
+        AssetSnapshot assigned = available.withAssignment(AssetStatus.ASSIGNED, 42L);
+        AssetSnapshot created = new AssetSnapshot(2L, "RTR-1", AssetType.ROUTER, "M2", AssetStatus.AVAILABLE, "Mumbai", null);
+        when(assetRepository.countByTypeStatusAndLocation()).thenAnswer(invocation -> {
+            // Both commit while the recount runs: its snapshot already holds the assignment but not the new router
+            statsService.onAssetChanged(new AssetChangedEvent(available, assigned));
+            statsService.onAssetChanged(AssetChangedEvent.created(created));
+            return List.of(
+                    new Count(AssetType.ONT, AssetStatus.AVAILABLE, "Pune", 4),
+                    new Count(AssetType.ONT, AssetStatus.ASSIGNED, "Pune", 4),
+                    new Count(AssetType.ROUTER, AssetStatus.AVAILABLE, null, 2));
+        });
+        when(assetBatchRepository.findSnapshotsByIds(anyCollection())).thenReturn(List.of(assigned));
+
+        statsService.reconcile();
+
+        InventoryStatsDto stats = statsService.getStats(null, null, null);
+        assertEquals(11, stats.getTotalAssets());
+        assertEquals(4, stats.getByStatus().get(AssetStatus.ASSIGNED));
+        assertEquals(1, stats.getByLocation().get("Mumbai"));
+    }
+
+    private record Count(AssetType assetType, AssetStatus assetStatus, String location, long assetCount) implements AssetCountView {
+        @Override
+        public AssetType getAssetType() {
+            return assetType;
+        }
+
+        @Override
+        public AssetStatus getAssetStatus() {
+            return assetStatus;
+        }
+
+        @Override
+        public String getLocation() {
+            return location;
+        }
+
+        @Override
+        public long getAssetCount() {
+            return assetCount;
+        }
+    }
+}
@@ -3,16 +3,25 @@ package com.training.inventory_service.services;
 import com.training.inventory_service.dtos.*;
 import com.training.inventory_service.entities.Asset;
 import com.training.inventory_service.entities.CoreSwitch;
+import com.training.inventory_service.entities.Splitter;
 import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.exceptions.InvalidReparentRequestException;
+import com.training.inventory_service.exceptions.InvalidSplitterPortException;
+import com.training.inventory_service.exceptions.SplitterCapacityExceededException;
+import com.training.inventory_service.exceptions.SplitterPortInUseException;
 import com.training.inventory_service.repositories.AssetRepository;
 import com.training.inventory_service.repositories.CoreSwitchRepository;
 import com.training.inventory_service.repositories.FdhRepository;
 import com.training.inventory_service.repositories.HeadendRepository;
+import com.training.inventory_service.repositories.SplitterRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -34,6 +43,9 @@ class NetworkHierarchyServiceIntegrationTest {
     @Autowired
     private FdhRepository fdhRepository;
 
+    @Autowired
+    private SplitterRepository splitterRepository;
+
     @Test
     void testCreateHeadend_Success() {
         AssetCreateRequest request = new AssetCreateRequest();
@@ -132,5 +144,179 @@ class NetworkHierarchyServiceIntegrationTest {
         SplitterDto finalSplitter = fdhTopology.getSplitters().get(0);
         assertEquals(splitter.getSerialNumber(), finalSplitter.getSerialNumber());
         assertEquals(16, finalSplitter.getPortCapacity());
+        assertEquals("16-Port Splitter", finalSplitter.getModel());
+        assertEquals(splitter.getSerialNumber(), networkHierarchyService.getSplittersByFdh(fdh.getId()).get(0).getSerialNumber());
+    }
+
+    @Test
+    void testGetNetworkTopology_GroupsEveryLevelUnderItsParent() {
+        AssetCreateRequest headendReq = new AssetCreateRequest();
+        headendReq.setAssetType(AssetType.HEADEND);
+        headendReq.setName("Net-Headend");
+        HeadendDto headend = networkHierarchyService.createHeadend(headendReq);
+
+        AssetCreateRequest csReq = new AssetCreateRequest();
+        csReq.setAssetType(AssetType.CORE_SWITCH);
+        csReq.setName("Net-CS");
+        csReq.setHeadendId(headend.getId());
+        CoreSwitchDto coreSwitch = networkHierarchyService.createCoreSwitch(csReq);
+
+        AssetCreateRequest fdhReq = new AssetCreateRequest();
+        fdhReq.setAssetType(AssetType.FDH);
+        fdhReq.setName("Net-FDH");
+        fdhReq.setCoreSwitchId(coreSwitch.getId());
+        FdhDto fdh = networkHierarchyService.createFdh(fdhReq);
+
+        AssetCreateRequest splitterReq = new AssetCreateRequest();
+        splitterReq.setAssetType(AssetType.SPLITTER);
+        splitterReq.setFdhId(fdh.getId());
+        splitterReq.setPortCapacity(8);
+        SplitterDto splitter = networkHierarchyService.createSplitter(splitterReq);
+
+        AssetCreateRequest looseSplitterReq = new AssetCreateRequest();
+        looseSplitterReq.setAssetType(AssetType.SPLITTER);
+        looseSplitterReq.setPortCapacity(8);
+        SplitterDto looseSplitter = networkHierarchyService.createSplitter(looseSplitterReq);
+
+        NetworkTopology topology = networkHierarchyService.getNetworkTopology();
+
+        assertTrue(topology.headends().stream().anyMatch(h -> h.getId().equals(headend.getId())));
+        assertEquals(coreSwitch.getId(), topology.coreSwitchesByHeadend().get(headend.getId()).get(0).getId());
+        assertEquals(fdh.getId(), topology.fdhsByCoreSwitch().get(coreSwitch.getId()).get(0).getId());
+        assertEquals(splitter.getSerialNumber(), topology.splittersByFdh().get(fdh.getId()).get(0).getSerialNumber());
+        assertTrue(topology.unattachedSplitters().stream().anyMatch(s -> s.getId().equals(looseSplitter.getId())));
+    }
+
+    @Test
+    void testStreamHeadendTopology_EmitsNodesDepthFirstWithParentIds() {
+        AssetCreateRequest headendReq = new AssetCreateRequest();
+        headendReq.setAssetType(AssetType.HEADEND);
+        headendReq.setName("Stream-Headend");
+        HeadendDto headend = networkHierarchyService.createHeadend(headendReq);
+
+        AssetCreateRequest csReq = new AssetCreateRequest();
+        csReq.setAssetType(AssetType.CORE_SWITCH);
+        csReq.setName("Stream-CS");
+        csReq.setHeadendId(headend.getId());
+        CoreSwitchDto coreSwitch = networkHierarchyService.createCoreSwitch(csReq);
+
+        List<FdhDto> fdhs = new ArrayList<>();
+        for (String name : List.of("Stream-FDH-1", "Stream-FDH-2")) {
+            AssetCreateRequest fdhReq = new AssetCreateRequest();
+            fdhReq.setAssetType(AssetType.FDH);
+            fdhReq.setName(name);
+            fdhReq.setCoreSwitchId(coreSwitch.getId());
+            fdhs.add(networkHierarchyService.createFdh(fdhReq));
+        }
+        for (FdhDto fdh : fdhs) {
+            AssetCreateRequest splitterReq = new AssetCreateRequest();
+            splitterReq.setAssetType(AssetType.SPLITTER);
+            splitterReq.setFdhId(fdh.getId());
+            splitterReq.setPortCapacity(8);
+            networkHierarchyService.createSplitter(splitterReq);
+        }
+
+        List<TopologyNodeRecord> nodes = new ArrayList<>();
+        networkHierarchyService.streamHeadendTopology(headend.getId(), nodes::add);
+
+        assertEquals(List.of(AssetType.HEADEND, AssetType.CORE_SWITCH, AssetType.FDH, AssetType.SPLITTER, AssetType.FDH, AssetType.SPLITTER),
+                nodes.stream().map(TopologyNodeRecord::getNodeType).toList());
+        assertEquals(coreSwitch.getId(), nodes.get(2).getParentId());
+        assertEquals(nodes.get(2).getId(), nodes.get(3).getParentId());
+        assertEquals(nodes.get(4).getId(), nodes.get(5).getParentId());
+    }
+
+    @Test
+    void testReserveAndReleaseSplitterPort_TracksPortNumbers() {
+        AssetCreateRequest splitterReq = new AssetCreateRequest();
+        splitterReq.setAssetType(AssetType.SPLITTER);
+        splitterReq.setPortCapacity(2);
+        SplitterDto splitter = networkHierarchyService.createSplitter(splitterReq);
+
+        SplitterPortsDto first = networkHierarchyService.reserveSplitterPort(splitter.getId(), 2);
+        assertEquals(2, first.getReservedPort());
+        assertThrows(SplitterPortInUseException.class,
+                () -> networkHierarchyService.reserveSplitterPort(splitter.getId(), 2));
+        assertThrows(InvalidSplitterPortException.class,
+                () -> networkHierarchyService.reserveSplitterPort(splitter.getId(), 3));
+
+        // First-free lookup picks the lowest open port
+        SplitterPortsDto second = networkHierarchyService.reserveSplitterPort(splitter.getId());
+        assertEquals(1, second.getReservedPort());
+        assertEquals(2, second.getUsedPorts());
+        assertThrows(SplitterCapacityExceededException.class,
+                () -> networkHierarchyService.reserveSplitterPort(splitter.getId()));
+
+        SplitterPortsDto released = networkHierarchyService.releaseSplitterPort(splitter.getId(), 1);
+        assertEquals(1, released.getUsedPorts());
+        assertEquals(1, released.getFirstFreePort());
+        // Releasing a free port is a no-op
+        assertEquals(1, networkHierarchyService.releaseSplitterPort(splitter.getId(), 1).getUsedPorts());
+    }
+
+    @Test
+    void testSeedSplitterPorts_TracksLegacyPortsAndKeepsReleaseIdempotent() {
+        AssetCreateRequest splitterReq = new AssetCreateRequest();
+        splitterReq.setAssetType(AssetType.SPLITTER);
+        splitterReq.setPortCapacity(8);
+        SplitterDto created = networkHierarchyService.createSplitter(splitterReq);
+        Long id = created.getId();
+        // Two legacy customers on ports 3 and 5: counted in usedPorts, absent from the bitmap
+        Splitter legacy = splitterRepository.findById(id).get();
+        legacy.setUsedPorts(2);
+        splitterRepository.saveAndFlush(legacy);
+
+        PortOccupancySeedResult seeded = networkHierarchyService.seedSplitterPorts(List.of(
+                new SplitterPortOccupancy(id, 3),
+                new SplitterPortOccupancy(id, 5),
+                new SplitterPortOccupancy(id, 6), // Held but never counted
+                new SplitterPortOccupancy(id, 3),
+                new SplitterPortOccupancy(id, 9)));
+        assertEquals(3, seeded.getSeeded());
+        assertEquals(1, seeded.getAlreadyTracked());
+        assertEquals(1, seeded.getRejected().size());
+
+        SplitterPortsDto ports = networkHierarchyService.getSplitterPorts(id);
+        assertEquals(3, ports.getUsedPorts());
+        assertEquals(List.of(3, 5, 6), ports.getOccupiedPorts());
+        assertThrows(SplitterPortInUseException.class, () -> networkHierarchyService.reserveSplitterPort(id, 5));
+
+        assertEquals(2, networkHierarchyService.releaseSplitterPort(id, 5).getUsedPorts());
+        // A retried release of the same port does not give back anyone else's port
+        assertEquals(2, networkHierarchyService.releaseSplitterPort(id, 5).getUsedPorts());
+    }
+
+    @Test
+    void testReparentSplitters_MovesEverySplitterOfSourceFdh() {
+        FdhDto source = createFdh("Bulk-FDH-A");
+        FdhDto target = createFdh("Bulk-FDH-B");
+        for (int i = 0; i < 3; i++) {
+            AssetCreateRequest splitterReq = new AssetCreateRequest();
+            splitterReq.setAssetType(AssetType.SPLITTER);
+            splitterReq.setSerialNumber("Bulk-SPL-" + i);
+            splitterReq.setPortCapacity(8);
+            splitterReq.setFdhId(source.getId());
+            networkHierarchyService.createSplitter(splitterReq);
+        }
+
+        BulkSplitterReparentRequest request = new BulkSplitterReparentRequest();
+        request.setSourceFdhId(source.getId());
+        request.setNewFdhId(target.getId());
+        BulkReparentResult result = networkHierarchyService.reparentSplitters(request);
+
+        assertEquals(3, result.getMovedCount());
+        assertTrue(networkHierarchyService.getSplittersByFdh(source.getId()).isEmpty());
+        assertEquals(3, networkHierarchyService.getSplittersByFdh(target.getId()).size());
+
+        // Naming both a source and explicit ids is ambiguous
+        request.setSplitterIds(result.getMovedIds());
+        assertThrows(InvalidReparentRequestException.class, () -> networkHierarchyService.reparentSplitters(request));
+    }
+
+    private FdhDto createFdh(String name) {
+        AssetCreateRequest fdhReq = new AssetCreateRequest();
+        fdhReq.setAssetType(AssetType.FDH);
+        fdhReq.setName(name);
+        return networkHierarchyService.createFdh(fdhReq);
     }
 }
@@ -0,0 +1,146 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.AssetCreateRequest;
+import com.training.inventory_service.dtos.FdhDto;
+import com.training.inventory_service.dtos.SerialReconciliationRecord;
+import com.training.inventory_service.dtos.SerialReconciliationSummary;
+import com.training.inventory_service.entities.Asset;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.enums.ReconciliationRecordType;
+import com.training.inventory_service.exceptions.InvalidReconciliationScopeException;
+import com.training.inventory_service.repositories.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.reconciliation.chunk-size=2") // Force several chunks and keyset pages
+@Transactional // Roll back transactions after each test
+class SerialReconciliationServiceIntegrationTest {
+
+    private static final String STORE = "Audit Test Store";
+
+    @Autowired
+    private SerialReconciliationServiceInterface reconciliationService;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private NetworkHierarchyServiceInterface networkHierarchyService;
+
+    @BeforeEach
+    void setUp() {
+        saveAsset("AUD-ONT-1", STORE, AssetStatus.AVAILABLE);
+        saveAsset("AUD-ONT-2", STORE, AssetStatus.AVAILABLE);
+        saveAsset("AUD-ONT-3", STORE, AssetStatus.FAULTY);
+        saveAsset("AUD-ONT-4", STORE, AssetStatus.ASSIGNED); // Deployed, not expected on the shelf
+        saveAsset("AUD-ONT-5", "Other Store", AssetStatus.AVAILABLE);
+    }
+
+    @Test
+    void testReconcile_ReportsMissingUnexpectedAndMisplacedSerials() {
+        String scan = String.join("\n", "AUD-ONT-1", "AUD-ONT-1", "", "AUD-ONT-5", "AUD-UNKNOWN-9", "AUD-ONT-3", "AUD-ONT-1");
+        List<SerialReconciliationRecord> records = new ArrayList<>();
+
+        SerialReconciliationSummary summary = reconciliationService.reconcile(
+                new ByteArrayInputStream(scan.getBytes(StandardCharsets.UTF_8)), STORE, null, records::add);
+
+        Map<String, ReconciliationRecordType> bySerial = records.stream()
+                .collect(Collectors.toMap(SerialReconciliationRecord::getSerialNumber, SerialReconciliationRecord::getType));
+        assertEquals(Map.of(
+                "AUD-ONT-2", ReconciliationRecordType.MISSING,
+                "AUD-UNKNOWN-9", ReconciliationRecordType.UNEXPECTED,
+                "AUD-ONT-5", ReconciliationRecordType.MISPLACED), bySerial);
+        assertEquals(2, summary.getMatched());
+        assertEquals(1, summary.getMissing());
+        assertEquals(1, summary.getUnexpected());
+        assertEquals(1, summary.getMisplaced());
+        assertEquals("Other Store", records.stream()
+                .filter(r -> r.getType() == ReconciliationRecordType.MISPLACED).findFirst().get().getRecordedLocation());
+    }
+
+    @Test
+    void testReconcile_LocationScopeMatchesCaseInsensitively() {
+        String scan = String.join("\n", "AUD-ONT-1", "AUD-ONT-2", "AUD-ONT-3");
+        List<SerialReconciliationRecord> records = new ArrayList<>();
+
+        SerialReconciliationSummary summary = reconciliationService.reconcile(
+                new ByteArrayInputStream(scan.getBytes(StandardCharsets.UTF_8)), STORE.toLowerCase(), null, records::add);
+
+        assertTrue(records.isEmpty());
+        assertEquals(3, summary.getMatched());
+        assertEquals(0, summary.getMisplaced());
+    }
+
+    @Test
+    void testReconcile_FdhScopeMatchesCaseInsensitivelyAndLocatesMisplacedSplitters() {
+        FdhDto audited = createFdh("AUD-FDH-A");
+        FdhDto other = createFdh("AUD-FDH-B");
+        createSplitter("AUD-SPL-1", audited.getId());
+        createSplitter("AUD-SPL-2", audited.getId());
+        createSplitter("AUD-SPL-3", other.getId());
+        // The cabinet, one of its splitters typed in lower case, and a splitter that belongs elsewhere
+        String scan = String.join("\n", "AUD-FDH-A", "aud-spl-1", "AUD-SPL-1", "AUD-SPL-3");
+        List<SerialReconciliationRecord> records = new ArrayList<>();
+
+        SerialReconciliationSummary summary = reconciliationService.reconcile(
+                new ByteArrayInputStream(scan.getBytes(StandardCharsets.UTF_8)), null, audited.getId(), records::add);
+
+        Map<String, ReconciliationRecordType> bySerial = records.stream()
+                .collect(Collectors.toMap(SerialReconciliationRecord::getSerialNumber, SerialReconciliationRecord::getType));
+        assertEquals(Map.of(
+                "AUD-SPL-2", ReconciliationRecordType.MISSING,
+                "AUD-SPL-3", ReconciliationRecordType.MISPLACED), bySerial);
+        assertEquals(2, summary.getMatched());
+        assertEquals(0, summary.getUnexpected());
+        SerialReconciliationRecord misplaced = records.stream()
+                .filter(r -> r.getType() == ReconciliationRecordType.MISPLACED).findFirst().get();
+        assertEquals(other.getId(), misplaced.getRecordedFdhId());
+        assertEquals(audited.getId(), records.stream()
+                .filter(r -> r.getType() == ReconciliationRecordType.MISSING).findFirst().get().getRecordedFdhId());
+    }
+
+    @Test
+    void testValidateScope_RequiresExactlyOneScope() {
+        assertThrows(InvalidReconciliationScopeException.class, () -> reconciliationService.validateScope(null, null));
+        assertThrows(InvalidReconciliationScopeException.class, () -> reconciliationService.validateScope(STORE, 1L));
+    }
+
+    private FdhDto createFdh(String serialNumber) {
+        AssetCreateRequest request = new AssetCreateRequest();
+        request.setAssetType(AssetType.FDH);
+        request.setSerialNumber(serialNumber);
+        request.setName(serialNumber);
+        return networkHierarchyService.createFdh(request);
+    }
+
+    private void createSplitter(String serialNumber, Long fdhId) {
+        AssetCreateRequest request = new AssetCreateRequest();
+        request.setAssetType(AssetType.SPLITTER);
+        request.setSerialNumber(serialNumber);
+        request.setPortCapacity(8);
+        request.setFdhId(fdhId);
+        networkHierarchyService.createSplitter(request);
+    }
+
+    private void saveAsset(String serialNumber, String location, AssetStatus status) {
+        Asset asset = new Asset();
+        asset.setAssetType(AssetType.ONT);
+        asset.setSerialNumber(serialNumber);
+        asset.setLocation(location);
+        asset.setAssetStatus(status);
+        assetRepository.save(asset);
+    }
+}
@@ -0,0 +1,148 @@
+package com.training.inventory_service.services;
+
+import com.training.inventory_service.dtos.StockLevelDto;
+import com.training.inventory_service.dtos.StockThresholdRequest;
+import com.training.inventory_service.entities.StockThreshold;
+import com.training.inventory_service.enums.AssetStatus;
+import com.training.inventory_service.enums.AssetType;
+import com.training.inventory_service.events.AssetChangedEvent;
+import com.training.inventory_service.events.AssetSnapshot;
+import com.training.inventory_service.repositories.AssetBatchRepository;
+import com.training.inventory_service.repositories.AssetRepository;
+import com.training.inventory_service.repositories.StockLevelView;
+import com.training.inventory_service.repositories.StockThresholdRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockLevelServiceTest {
+
+    private static final String STORE = "Central Store";
+    private static final String MODEL = "ONT-X9100";
+
+    @Mock
+    private AssetRepository assetRepository;
+    @Mock
+    private StockThresholdRepository stockThresholdRepository;
+    @Mock
+    private AssetBatchRepository assetBatchRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockLevelService stockLevelService;
+
+    @BeforeEach
+    void setUp() {
+        StockThreshold threshold = new StockThreshold();
+        threshold.setLocation(STORE);
+        threshold.setModel(MODEL);
+        threshold.setAssetType(AssetType.ONT);
+        threshold.setMinAvailable(2);
+        when(assetRepository.countStockLevels(AssetStatus.AVAILABLE)).thenReturn(List.of(new Level(STORE, MODEL, AssetType.ONT, 2)));
+        when(stockThresholdRepository.findAll()).thenReturn(List.of(threshold));
+        stockLevelService = new StockLevelService(assetRepository, stockThresholdRepository, assetBatchRepository, transactionManager);
+        stockLevelService.reconcile();
+    }
+
+    @Test
+    void testAssigningBelowThreshold_EntersLowStockFeedAndReturnLeavesIt() {
+        AssetSnapshot unit = new AssetSnapshot(1L, "SN-1", AssetType.ONT, MODEL, AssetStatus.AVAILABLE, STORE, null);
+        assertTrue(stockLevelService.getLowStock().isEmpty());
+
+        stockLevelService.onAssetChanged(new AssetChangedEvent(unit, unit.withAssignment(AssetStatus.ASSIGNED, 7L)));
+
+        List<StockLevelDto> low = stockLevelService.getLowStock();
+        assertEquals(1, low.size());
+        assertEquals(1, low.get(0).getAvailable());
+        assertEquals(2, low.get(0).getMinAvailable());
+
+        stockLevelService.onAssetChanged(AssetChangedEvent.created(
+                new AssetSnapshot(2L, "SN-2", AssetType.ONT, MODEL, AssetStatus.AVAILABLE, STORE, null)));
+        assertTrue(stockLevelService.getLowStock().isEmpty());
+    }
+
+    @Test
+    void testOnlyAvailableUnitsWithLocationAndModelCount() {
+        stockLevelService.onAssetChanged(AssetChangedEvent.created(
+                new AssetSnapshot(3L, "SN-3", AssetType.ONT, MODEL, AssetStatus.FAULTY, STORE, null)));
+        stockLevelService.onAssetChanged(AssetChangedEvent.created(
+                new AssetSnapshot(4L, "SN-4", AssetType.ONT, MODEL, AssetStatus.AVAILABLE, null, null)));
+
+        List<StockLevelDto> levels = stockLevelService.getStockLevels(null, MODEL, null);
+        assertEquals(1, levels.size());
+        assertEquals(2, levels.get(0).getAvailable());
+        assertFalse(levels.get(0).isLowStock());
+    }
+
+    @Test
+    void testSetThreshold_FlagsSkuWithoutStock() {
+        when(stockThresholdRepository.findByLocationAndModelAndAssetType(STORE, "RTR-AX3000", AssetType.ROUTER))
+                .thenReturn(Optional.empty());
+        when(stockThresholdRepository.save(any(StockThreshold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        StockThresholdRequest request = new StockThresholdRequest();
+        request.setLocation(STORE);
+        request.setModel("RTR-AX3000");
+        request.setAssetType(AssetType.ROUTER);
+        request.setMinAvailable(5);
+
+        StockLevelDto level = stockLevelService.setThreshold(request);
+
+        assertEquals(0, level.getAvailable());
+        assertTrue(level.isLowStock());
+        assertEquals(1, stockLevelService.getLowStock().size());
+    }
+
+    @Test
+    void testReconcile_DoesNotRecountAnAssignmentTheSnapshotAlreadyHolds() {
+        AssetSnapshot unit = new AssetSnapshot(1L, "SN-1", AssetType.ONT, MODEL, AssetStatus.AVAILABLE, STORE, null);
+        AssetSnapshot assigned = unit.withAssignment(AssetStatus.ASSIGNED, 7L);
+        when(assetRepository.countStockLevels(AssetStatus.AVAILABLE)).thenAnswer(invocation -> {
+            // Commits while the recount runs; the recount's snapshot already excludes the unit
+            stockLevelService.onAssetChanged(new AssetChangedEvent(unit, assigned));
+            return List.of(new Level(STORE, MODEL, AssetType.ONT, 1));
+        });
+        when(assetBatchRepository.findSnapshotsByIds(anyCollection())).thenReturn(List.of(assigned));
+
+        stockLevelService.reconcile();
+
+        List<StockLevelDto> low = stockLevelService.getLowStock();
+        assertEquals(1, low.size());
+        assertEquals(1, low.get(0).getAvailable());
+    }
+
+    private record Level(String location, String model, AssetType assetType, long available) implements StockLevelView {
+        @Override
+        public String getLocation() {
+            return location;
+        }
+
+        @Override
+        public String getModel() {
+            return model;
+        }
+
+        @Override
+        public AssetType getAssetType() {
+            return assetType;
+        }
+
+        @Override
+        public long getAvailable() {
+            return available;
+        }
+    }
+}